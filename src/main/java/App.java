@@ -1,16 +1,28 @@
 import spark.Request;
+import spark.Route;
 import spark.Spark;
 import spark.servlet.SparkApplication;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 
 import dungeonmania.DungeonManiaController;
+import dungeonmania.GameAction;
 import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.metrics.Metrics;
+import dungeonmania.metrics.SessionLockEvent;
 import dungeonmania.response.models.GenericResponseWrapper;
 import dungeonmania.util.Direction;
+import dungeonmania.web.Actions;
+import dungeonmania.web.GameSocket;
+import dungeonmania.web.ResponseCache;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -34,9 +46,15 @@ public class App implements SparkApplication {
     }
 
     private static volatile Map<String, DungeonManiaController> sessionStates = new HashMap<>();
+    // last response of each controller, dropped along with the controller
+    private static final Map<DungeonManiaController, ResponseCache> responseCaches = Collections
+            .synchronizedMap(new WeakHashMap<>());
 
-    private static synchronized DungeonManiaController getDungeonManiaController(Request request) {
-        String session = request.session().id();
+    private static DungeonManiaController getDungeonManiaController(Request request) {
+        return getDungeonManiaController(request.session().id());
+    }
+
+    private static synchronized DungeonManiaController getDungeonManiaController(String session) {
         if (session == null) {
             System.out.println("No Session Found... using default.");
             session = "__DEFAULT_SESSION__";
@@ -63,16 +81,34 @@ public class App implements SparkApplication {
     private static <T> GenericResponseWrapper<T> callUsingSessionAndArgument(Request request,
             Function<DungeonManiaController, T> runnable) {
         try {
-            DungeonManiaController dmc = getDungeonManiaController(request);
-            synchronized (dmc) {
-                return GenericResponseWrapper.ok(runnable.apply(dmc));
-            }
+            return GenericResponseWrapper.ok(callUsingSession(request, runnable));
         } catch (Exception e) {
             e.printStackTrace();
             return GenericResponseWrapper.err(e);
         }
     }
 
+    private static <T> T callUsingSession(Request request, Function<DungeonManiaController, T> runnable) {
+        return callUsingController(request.session().id(), getDungeonManiaController(request), runnable);
+    }
+
+    /**
+     * Run with the controller locked, recording how long the lock took
+     */
+    private static <T> T callUsingController(String session, DungeonManiaController dmc,
+            Function<DungeonManiaController, T> runnable) {
+        SessionLockEvent event = new SessionLockEvent();
+        event.begin();
+        synchronized (dmc) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setSession(session);
+                event.commit();
+            }
+            return runnable.apply(dmc);
+        }
+    }
+
     @Override
     public void init() {
         Scintilla.initialize();
@@ -81,6 +117,9 @@ public class App implements SparkApplication {
         Gson gson = gsonBuilder.create();
         Object globalLock = new Object();
 
+        // websockets have to be mapped before any route or filter
+        Spark.webSocket("/api/game/socket/", new GameSocket(App::getDungeonManiaController, App::callUsingController));
+
         Spark.after((request, response) -> {
             response.header("Access-Control-Allow-Origin", "*");
             response.header("Access-Control-Allow-Methods", "*");
@@ -131,6 +170,19 @@ public class App implements SparkApplication {
             });
         }, gson::toJson);
 
+        Spark.post("/api/game/batch/", "application/json", (request, response) -> {
+            return callUsingSessionAndArgument(request, (dmc) -> {
+                List<GameAction> actions = Actions.parseAll(request.queryParams("actions"));
+                Set<Integer> steps = new HashSet<>();
+                String selected = request.queryParams("steps");
+                if (selected != null && !selected.isBlank()) {
+                    for (String step : selected.split(","))
+                        steps.add(Integer.parseInt(step.trim()));
+                }
+                return dmc.batch(actions, steps);
+            });
+        }, gson::toJson);
+
         Spark.get("/api/skin/current/", "application/json", (request, response) -> {
             return callUsingSessionAndArgument(request, (dmc) -> dmc.getSkin());
         }, gson::toJson);
@@ -149,9 +201,35 @@ public class App implements SparkApplication {
             });
         }, gson::toJson);
 
-        Spark.post("/api/game/dungeonResponseModel/", "application/json", (request, response) -> {
-            return callUsingSessionAndArgument(request, (dmc) -> dmc.getDungeonResponseModel());
-        }, gson::toJson);
+        Route dungeonResponseModel = (request, response) -> {
+            response.type("application/json");
+            try {
+                return callUsingSession(request, (dmc) -> {
+                    String tag = dmc.getStateTag();
+                    if (tag == null)
+                        return gson.toJson(GenericResponseWrapper.ok(dmc.getDungeonResponseModel()));
+                    ResponseCache cache = responseCaches.computeIfAbsent(dmc, (d) -> new ResponseCache());
+                    cache.refresh(tag, () -> gson.toJson(GenericResponseWrapper.ok(dmc.getDungeonResponseModel())));
+                    response.header("ETag", cache.getEtag());
+                    response.header("Cache-Control", "no-cache");
+                    if (cache.matches(request.headers("If-None-Match"))) {
+                        response.status(304);
+                        return "";
+                    }
+                    return cache.getBody();
+                });
+            } catch (Exception e) {
+                e.printStackTrace();
+                return gson.toJson(GenericResponseWrapper.err(e));
+            }
+        };
+        Spark.post("/api/game/dungeonResponseModel/", "application/json", dungeonResponseModel);
+        Spark.get("/api/game/dungeonResponseModel/", "application/json", dungeonResponseModel);
+
+        Spark.get("/api/metrics/", (request, response) -> {
+            response.type("text/plain; version=0.0.4");
+            return Metrics.scrape();
+        });
 
         Scintilla.start();
     }
@@ -2,6 +2,8 @@ package dungeonmania;
 
 import java.io.Serializable;
 
+import dungeonmania.entities.EntityIdAllocator;
+
 /**
  * ComparableCallback is a wrapper around a Runnable
  * For every runnable r, we associate a value v to it
@@ -12,19 +14,25 @@ import java.io.Serializable;
 public class ComparableCallback implements Comparable<ComparableCallback>, Runnable, Serializable {
     private Runnable r;
     private int v;
-    private String entityId; // entityId related to the current runnable
+    private long entityId; // entityId related to the current runnable, UNASSIGNED if none
+    private String category; // what kind of callback this is, for metrics
     private boolean isValid = true; // used to invalidate the current callback
     private boolean once = false; // some callback can only be used once
 
-    public ComparableCallback(Runnable r, int v, String entityId, boolean once) {
+    public ComparableCallback(Runnable r, int v, long entityId, String category, boolean once) {
         this.r = r;
         this.v = v;
         this.entityId = entityId;
+        this.category = category;
         this.once = once;
     }
 
-    public ComparableCallback(Runnable r, int v, String entityId) {
-        this(r, v, entityId, false);
+    public ComparableCallback(Runnable r, int v, String category, boolean once) {
+        this(r, v, EntityIdAllocator.UNASSIGNED, category, once);
+    }
+
+    public ComparableCallback(Runnable r, int v, String category) {
+        this(r, v, category, false);
     }
 
     // run the callback
@@ -46,7 +54,7 @@ public class ComparableCallback implements Comparable<ComparableCallback>, Runna
             return false;
         ComparableCallback other = (ComparableCallback) o;
 
-        return this.entityId.equals(other.entityId);
+        return this.entityId == other.entityId && this.category.equals(other.category);
     }
 
     @Override
@@ -54,10 +62,18 @@ public class ComparableCallback implements Comparable<ComparableCallback>, Runna
         return Integer.compare(v, arg0.v);
     }
 
-    public String getId() {
+    public long getEntityId() {
         return this.entityId;
     }
 
+    public String getCategory() {
+        return category;
+    }
+
+    public int getPriority() {
+        return v;
+    }
+
     public void invalidate() {
         this.isValid = false;
     }
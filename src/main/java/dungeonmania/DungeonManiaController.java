@@ -1,11 +1,15 @@
 package dungeonmania;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.json.JSONException;
 
 import dungeonmania.exceptions.InsufficientTickCount;
 import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.metrics.Metrics;
+import dungeonmania.response.models.BatchResponse;
 import dungeonmania.response.models.DungeonResponse;
 import dungeonmania.response.models.ResponseBuilder;
 import dungeonmania.util.Direction;
@@ -14,6 +18,8 @@ import dungeonmania.util.FileLoader;
  * DO NOT CHANGE METHOD SIGNITURES OF THIS FILE
  * */
 public class DungeonManiaController {
+    private static final List<String> BUILDABLES = List.of("bow", "shield", "midnight_armour", "sceptre");
+
     private Game game = null;
 
     public String getSkin() {
@@ -38,6 +44,13 @@ public class DungeonManiaController {
         return FileLoader.listFileNamesInResourceDirectory("configs");
     }
 
+    private static DungeonResponse respond(Game game) {
+        long start = System.nanoTime();
+        DungeonResponse response = ResponseBuilder.getDungeonResponse(game);
+        Metrics.ENGINE.recordSince("response_build", start);
+        return response;
+    }
+
     /**
      * /game/new
      */
@@ -53,7 +66,7 @@ public class DungeonManiaController {
         try {
             GameBuilder builder = new GameBuilder();
             game = builder.setConfigName(configName).setDungeonName(dungeonName).buildGame();
-            return ResponseBuilder.getDungeonResponse(game);
+            return respond(game);
         } catch (JSONException e) {
             return null;
         }
@@ -64,7 +77,15 @@ public class DungeonManiaController {
      * this gives the current state of the game model
      */
     public DungeonResponse getDungeonResponseModel() {
-        return ResponseBuilder.getDungeonResponse(game);
+        return respond(game);
+    }
+
+    /**
+     * @return tag of the current state, which changes with every tick and new game,
+     *         or null if no game is running
+     */
+    public String getStateTag() {
+        return (game != null) ? game.getId() + "-" + game.getTick() : null;
     }
 
     /**
@@ -78,7 +99,7 @@ public class DungeonManiaController {
     3. This means currentStatePointer is still in the past state (as a result of time travel)
     */
     public DungeonResponse tick(String itemUsedId) throws IllegalArgumentException, InvalidActionException {
-        return ResponseBuilder.getDungeonResponse(game.tick(itemUsedId));
+        return respond(game.tick(itemUsedId));
     }
 
     /**
@@ -86,19 +107,16 @@ public class DungeonManiaController {
      */
     public DungeonResponse tick(Direction movementDirection) {
         Game currentGame = game.tick(movementDirection);
-        return ResponseBuilder.getDungeonResponse(currentGame);
+        return respond(currentGame);
     }
 
     /**
      * /game/build
      */
     public DungeonResponse build(String buildable) throws IllegalArgumentException, InvalidActionException {
-        List<String> validBuildables = List.of("bow", "shield", "midnight_armour", "sceptre");
-        if (!validBuildables.contains(buildable)) {
-            throw new IllegalArgumentException("Only bow, shield, midnight_armour and sceptre can be built");
-        }
+        checkBuildable(buildable);
         Game newState = game.build(buildable);
-        return ResponseBuilder.getDungeonResponse(newState);
+        return respond(newState);
     }
 
     /**
@@ -106,7 +124,51 @@ public class DungeonManiaController {
      */
     public DungeonResponse interact(String entityId) throws IllegalArgumentException, InvalidActionException {
         Game newState = game.interact(entityId);
-        return ResponseBuilder.getDungeonResponse(newState);
+        return respond(newState);
+    }
+
+    static void checkBuildable(String buildable) throws IllegalArgumentException {
+        if (!BUILDABLES.contains(buildable)) {
+            throw new IllegalArgumentException("Only bow, shield, midnight_armour and sceptre can be built");
+        }
+    }
+
+    /**
+     * apply a single action
+     */
+    public DungeonResponse apply(GameAction action) throws IllegalArgumentException, InvalidActionException {
+        return respond(action.apply(game));
+    }
+
+    /**
+     * /game/batch
+     * applies the actions in order, stopping at the first one that fails.
+     * Responses are only built for the requested steps and for the last step applied.
+     */
+    public BatchResponse batch(List<GameAction> actions, Collection<Integer> steps) {
+        List<Integer> reported = new ArrayList<>();
+        List<DungeonResponse> responses = new ArrayList<>();
+        Game state = game;
+        Exception error = null;
+        int applied = 0;
+        for (GameAction action : actions) {
+            try {
+                state = action.apply(state);
+            } catch (IllegalArgumentException | InvalidActionException e) {
+                error = e;
+                break;
+            }
+            if (steps.contains(applied)) {
+                reported.add(applied);
+                responses.add(respond(state));
+            }
+            applied++;
+        }
+        if (applied > 0 && !steps.contains(applied - 1)) {
+            reported.add(applied - 1);
+            responses.add(respond(state));
+        }
+        return new BatchResponse(applied, reported, responses, error);
     }
 
     /**
@@ -1,12 +1,16 @@
 package dungeonmania;
 
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.UUID;
 
 import dungeonmania.battles.BattleFacade;
 import dungeonmania.entities.Entity;
 import dungeonmania.entities.EntityFactory;
+import dungeonmania.entities.EntityIdAllocator;
 import dungeonmania.entities.Interactable;
 import dungeonmania.entities.Player;
 import dungeonmania.entities.collectables.Bomb;
@@ -15,7 +19,10 @@ import dungeonmania.entities.enemies.Enemy;
 import dungeonmania.exceptions.InvalidActionException;
 import dungeonmania.goals.Goal;
 import dungeonmania.map.GameMap;
+import dungeonmania.metrics.Metrics;
+import dungeonmania.metrics.TickEvent;
 import dungeonmania.util.Direction;
+import dungeonmania.util.Trace;
 
 import java.io.*;
 
@@ -27,14 +34,18 @@ public class Game implements Serializable {
     private Player player;
     private BattleFacade battleFacade;
     private EntityFactory entityFactory;
+    private EntityIdAllocator idAllocator = new EntityIdAllocator();
     private boolean isInTick = false;
     public static final int PLAYER_MOVEMENT = 0;
     public static final int PLAYER_MOVEMENT_CALLBACK = 1;
     public static final int AI_MOVEMENT = 2;
     public static final int AI_MOVEMENT_CALLBACK = 3;
     public static final int ITEM_LONGEVITY_UPDATE = 4;
+    private static final String[] PHASES = {"player_movement", "player_movement_callback", "ai_movement",
+            "ai_movement_callback", "item_longevity_update"};
 
     private ComparableCallback currentAction = null;
+    private transient Set<Long> pendingUnsubscribes = null;
 
     private int tickCount = 0;
     private PriorityQueue<ComparableCallback> sub = new PriorityQueue<>();
@@ -61,7 +72,7 @@ public class Game implements Serializable {
     }
 
     public Game tick(String itemUsedId) throws InvalidActionException {
-        Entity item = player.getEntity(itemUsedId);
+        Entity item = player.getEntity(EntityIdAllocator.decode(itemUsedId));
         if (item == null)
             throw new InvalidActionException(String.format("Item with id %s doesn't exist", itemUsedId));
         if (!(item instanceof Bomb) && !(item instanceof Potion))
@@ -89,8 +100,8 @@ public class Game implements Serializable {
 
     public Game build(String buildable) throws InvalidActionException {
         List<String> buildables = player.getBuildables(map);
-        System.out.println("it is: " + buildable);
-        System.out.println("it is: " + buildables.contains(buildable));
+        if (Trace.ENABLED)
+            Trace.event("build", "%s requested, buildables %s", buildable, buildables);
         if (!buildables.contains(buildable)) {
             throw new InvalidActionException(String.format("%s cannot be built", buildable));
         }
@@ -114,56 +125,140 @@ public class Game implements Serializable {
         return this;
     }
 
-    public void register(Runnable r, int priority, String id) {
-        if (isInTick)
-            addingSub.add(new ComparableCallback(r, priority, id));
-        else
-            sub.add(new ComparableCallback(r, priority, id));
+    public void register(Runnable r, int priority, String name) {
+        schedule(new ComparableCallback(r, priority, name));
+    }
+
+    /**
+     * Register a callback of an entity, unsubscribed by the id of that entity
+     *
+     * @param category groups callbacks in the metrics, e.g. by entity type
+     */
+    public void register(Runnable r, int priority, long entityId, String category) {
+        schedule(new ComparableCallback(r, priority, entityId, category, false));
+    }
+
+    public void registerOnce(Runnable r, int priority, String name) {
+        schedule(new ComparableCallback(r, priority, name, true));
     }
 
-    public void registerOnce(Runnable r, int priority, String id) {
+    private void schedule(ComparableCallback c) {
         if (isInTick)
-            addingSub.add(new ComparableCallback(r, priority, id, true));
+            addingSub.add(c);
         else
-            sub.add(new ComparableCallback(r, priority, id, true));
+            sub.add(c);
+    }
+
+    public void unsubscribe(long id) {
+        if (pendingUnsubscribes != null) {
+            pendingUnsubscribes.add(id);
+            return;
+        }
+        unsubscribe(Set.of(id));
+    }
+
+    /**
+     * Run r with unsubscriptions deferred, then invalidate all the
+     * callbacks they refer to in a single pass over the scheduler
+     */
+    public void batchUnsubscribe(Runnable r) {
+        if (pendingUnsubscribes != null) {
+            r.run();
+            return;
+        }
+        pendingUnsubscribes = new HashSet<>();
+        try {
+            r.run();
+        } finally {
+            Set<Long> ids = pendingUnsubscribes;
+            pendingUnsubscribes = null;
+            if (!ids.isEmpty())
+                unsubscribe(ids);
+        }
     }
 
-    public void unsubscribe(String id) {
-        if (this.currentAction != null && id.equals(this.currentAction.getId())) {
+    private void unsubscribe(Set<Long> ids) {
+        long[] sorted = ids.stream().mapToLong(Long::longValue).sorted().toArray();
+        if (this.currentAction != null && unsubscribed(sorted, this.currentAction)) {
             this.currentAction.invalidate();
         }
 
         for (ComparableCallback c : sub) {
-            if (id.equals(c.getId())) {
+            if (unsubscribed(sorted, c)) {
                 c.invalidate();
             }
         }
         for (ComparableCallback c : addingSub) {
-            if (id.equals(c.getId())) {
+            if (unsubscribed(sorted, c)) {
                 c.invalidate();
             }
         }
     }
 
+    private static boolean unsubscribed(long[] sorted, ComparableCallback c) {
+        long id = c.getEntityId();
+        return id != EntityIdAllocator.UNASSIGNED && Arrays.binarySearch(sorted, id) >= 0;
+    }
+
     public int tick() {
+        long tickStart = System.nanoTime();
+        TickEvent event = new TickEvent();
+        event.begin();
+        int callbacks = 0;
         PriorityQueue<ComparableCallback> nextTickSub = new PriorityQueue<>();
         isInTick = true;
+        int phase = -1;
+        long phaseStart = tickStart;
         while (!sub.isEmpty()) {
             currentAction = sub.poll();
+            if (currentAction.getPriority() != phase) {
+                long now = System.nanoTime();
+                if (phase >= 0)
+                    Metrics.TICK_PHASE.get(phaseName(phase)).record(now - phaseStart);
+                if (phase == AI_MOVEMENT)
+                    map.clearPlans();
+                phase = currentAction.getPriority();
+                phaseStart = now;
+                if (phase == AI_MOVEMENT)
+                    map.planMoves();
+            }
+            boolean ran = currentAction.isValid();
+            long start = System.nanoTime();
             currentAction.run();
+            if (ran) {
+                Metrics.CALLBACK.recordSince(currentAction.getCategory(), start);
+                callbacks++;
+            }
             if (currentAction.isValid()) {
                 nextTickSub.add(currentAction);
             }
         }
+        if (phase >= 0)
+            Metrics.TICK_PHASE.recordSince(phaseName(phase), phaseStart);
+        map.clearPlans();
         isInTick = false;
         nextTickSub.addAll(addingSub);
         addingSub = new PriorityQueue<>();
         sub = nextTickSub;
         tickCount++;
+        Metrics.TICKS.increment();
+        Metrics.TICK.recordSince(tickStart);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setGame(id);
+            event.setTick(tickCount);
+            event.setEntities(map.countEntities(Entity.class));
+            event.setCallbacks(callbacks);
+            event.commit();
+        }
 
         return tickCount;
     }
 
+    private static String phaseName(int priority) {
+        return (priority >= 0 && priority < PHASES.length) ? PHASES[priority] : Integer.toString(priority);
+    }
+
     public int getTick() {
         return tickCount;
     }
@@ -192,6 +287,10 @@ public class Game implements Serializable {
         this.map = map;
     }
 
+    public EntityIdAllocator getIdAllocator() {
+        return idAllocator;
+    }
+
     public EntityFactory getEntityFactory() {
         return entityFactory;
     }
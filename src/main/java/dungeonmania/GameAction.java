@@ -0,0 +1,30 @@
+package dungeonmania;
+
+import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.util.Direction;
+
+/**
+ * A single player action, applied to a game without building a response
+ */
+public interface GameAction {
+    Game apply(Game game) throws IllegalArgumentException, InvalidActionException;
+
+    static GameAction move(Direction movementDirection) {
+        return game -> game.tick(movementDirection);
+    }
+
+    static GameAction use(String itemUsedId) {
+        return game -> game.tick(itemUsedId);
+    }
+
+    static GameAction build(String buildable) {
+        return game -> {
+            DungeonManiaController.checkBuildable(buildable);
+            return game.build(buildable);
+        };
+    }
+
+    static GameAction interact(String entityId) {
+        return game -> game.interact(entityId);
+    }
+}
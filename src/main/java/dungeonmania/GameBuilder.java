@@ -2,6 +2,7 @@ package dungeonmania;
 
 import java.io.IOException;
 
+import org.json.JSONArray;
 import org.json.JSONObject;
 
 import dungeonmania.entities.Entity;
@@ -12,6 +13,7 @@ import dungeonmania.goals.GoalFactory;
 import dungeonmania.map.GameMap;
 import dungeonmania.map.GraphNode;
 import dungeonmania.map.GraphNodeFactory;
+import dungeonmania.map.StaticLayer;
 import dungeonmania.util.FileLoader;
 
 /**
@@ -44,7 +46,7 @@ public class GameBuilder {
         }
 
         Game game = new Game(dungeonName);
-        EntityFactory factory = new EntityFactory(config);
+        EntityFactory factory = new EntityFactory(config, game.getIdAllocator());
         game.setEntityFactory(factory);
         buildMap(game);
         buildGoals(game);
@@ -75,8 +77,15 @@ public class GameBuilder {
         GameMap map = new GameMap();
         map.setGame(game);
 
-        dungeon.getJSONArray("entities").forEach(e -> {
+        JSONArray jsonEntities = dungeon.getJSONArray("entities");
+        StaticLayer terrain = StaticLayer.of(dungeonName, jsonEntities, config);
+        game.getIdAllocator().reserve(terrain.getLastId());
+        map.setTerrain(terrain);
+
+        jsonEntities.forEach(e -> {
             JSONObject jsonEntity = (JSONObject) e;
+            if (StaticLayer.isStatic(jsonEntity))
+                return;
             GraphNode newNode = GraphNodeFactory.createEntity(jsonEntity, game.getEntityFactory());
             Entity entity = newNode.getEntities().get(0);
 
@@ -0,0 +1,58 @@
+package dungeonmania.battles;
+
+import java.io.Serializable;
+
+/**
+ * BattleBuff -- running total of the buffs given to the player by several sources
+ *
+ * The buffs of allies and battle items only add to health, attack and defence,
+ * so their sum is kept up to date as sources come and go, and applied in one
+ * step at every battle instead of folding every source in turn. Sources are
+ * never invincible nor disabled.
+ */
+public class BattleBuff implements Serializable {
+    private double health;
+    private double attack;
+    private double defence;
+    private int sources;
+
+    public void add(BattleStatistics buff) {
+        health += buff.getHealth();
+        attack += buff.getAttack();
+        defence += buff.getDefence();
+        sources++;
+    }
+
+    public void remove(BattleStatistics buff) {
+        if (sources == 0)
+            return;
+        if (--sources == 0) {
+            // start again from nothing, rather than from what rounding left over
+            health = 0;
+            attack = 0;
+            defence = 0;
+            return;
+        }
+        health -= buff.getHealth();
+        attack -= buff.getAttack();
+        defence -= buff.getDefence();
+    }
+
+    /**
+     * @return number of sources in the total
+     */
+    public int size() {
+        return sources;
+    }
+
+    /**
+     * @return origin buffed by every source, as folding them one by one with
+     *         BattleStatistics.applyBuff would, or origin itself if there is none
+     */
+    public BattleStatistics applyTo(BattleStatistics origin) {
+        if (sources == 0)
+            return origin;
+        return new BattleStatistics(origin.getHealth() + health, origin.getAttack() + attack,
+                origin.getDefence() + defence, origin.getMagnifier(), origin.getReducer(), false, true);
+    }
+}
@@ -12,16 +12,37 @@ import dungeonmania.entities.Entity;
 import dungeonmania.entities.Player;
 import dungeonmania.entities.collectables.potions.Potion;
 import dungeonmania.entities.enemies.Enemy;
-import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.entities.inventory.Inventory;
 import dungeonmania.entities.inventory.InventoryItem;
+import dungeonmania.metrics.BattleEvent;
+import dungeonmania.metrics.Metrics;
 import dungeonmania.response.models.BattleResponse;
 import dungeonmania.response.models.ResponseBuilder;
 import dungeonmania.util.NameConverter;
 
 public class BattleFacade implements Serializable {
     private List<BattleResponse> battleResponses = new ArrayList<>();
+    // total of the buffs given by the allied mercenaries
+    private BattleBuff allyBuff = new BattleBuff();
 
     public void battle(Game game, Player player, Enemy enemy) {
+        long start = System.nanoTime();
+        BattleEvent event = new BattleEvent();
+        event.begin();
+        int rounds = fight(game, player, enemy);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setEnemy(NameConverter.toSnakeCase(enemy));
+            event.setRounds(rounds);
+            event.commit();
+        }
+        Metrics.ENGINE.recordSince("battle", start);
+    }
+
+    /**
+     * @return number of rounds fought
+     */
+    private int fight(Game game, Player player, Enemy enemy) {
         // 0. init
         double initialPlayerHealth = player.getHealth();
         double initialEnemyHealth = enemy.getHealth();
@@ -29,26 +50,21 @@ public class BattleFacade implements Serializable {
 
 
         // 1. apply buff provided by the game and player's inventory
-        // getting buffing amount
-        List<BattleItem> battleItems = new ArrayList<>();
+        // getting buffing amount, kept up to date as allies and battle items come and go
+        List<BattleItem> battleItems;
         BattleStatistics playerBuff = new BattleStatistics(0, 0, 0, 1, 1);
 
         Potion effectivePotion = player.getEffectivePotion();
         if (effectivePotion != null) {
             playerBuff = player.applyBuff(playerBuff);
+            battleItems = List.of();
         } else {
-            for (BattleItem item : player.getBattleItems()) {
-                if (item instanceof Potion) continue;
-                playerBuff = item.applyBuff(playerBuff);
-                battleItems.add(item);
-            }
-        }
-
-        List<Mercenary> mercs = game.getEntities(Mercenary.class);
-        for (Mercenary merc : mercs) {
-            if (!merc.isAllied()) continue;
-            playerBuff = BattleStatistics.applyBuff(playerBuff, merc.getBattleStatistics());
+            Inventory inventory = player.getInventory();
+            playerBuff = inventory.getEquipmentBuff().applyTo(playerBuff);
+            // items may be used up below
+            battleItems = new ArrayList<>(inventory.getEquipment());
         }
+        playerBuff = allyBuff.applyTo(playerBuff);
 
         // 2. Battle the two stats
         BattleStatistics playerBaseStatistics = player.getBattleStatistics();
@@ -56,7 +72,7 @@ public class BattleFacade implements Serializable {
         BattleStatistics playerBattleStatistics = BattleStatistics.applyBuff(playerBaseStatistics, playerBuff);
         BattleStatistics enemyBattleStatistics = enemyBaseStatistics;
         if (!playerBattleStatistics.isEnabled() || !enemyBaseStatistics.isEnabled())
-            return;
+            return 0;
         List<BattleRound> rounds = BattleStatistics.battle(playerBattleStatistics, enemyBattleStatistics);
 
         // 3. update health to the actual statistics
@@ -81,6 +97,11 @@ public class BattleFacade implements Serializable {
                         .collect(Collectors.toList()),
                 initialPlayerHealth,
                 initialEnemyHealth));
+        return rounds.size();
+    }
+
+    public BattleBuff getAllyBuff() {
+        return allyBuff;
     }
 
     public List<BattleResponse> getBattleResponses() {
@@ -61,8 +61,9 @@ public class BattleStatistics {
     }
 
     public static BattleStatistics applyBuff(BattleStatistics origin, BattleStatistics buff) {
-        return new BattleStatistics(origin.health + buff.health, origin.attack + buff.attack,
-                origin.defence + buff.defence, origin.magnifier, origin.reducer, buff.isInvincible(), buff.isEnabled());
+        return new BattleStatistics(origin.getHealth() + buff.getHealth(), origin.getAttack() + buff.getAttack(),
+                origin.getDefence() + buff.getDefence(), origin.getMagnifier(), origin.getReducer(),
+                buff.isInvincible(), buff.isEnabled());
     }
 
     public double getHealth() {
@@ -7,6 +7,7 @@ import dungeonmania.entities.collectables.SunStone;
 import dungeonmania.entities.enemies.Spider;
 import dungeonmania.entities.inventory.Inventory;
 import dungeonmania.util.Position;
+import dungeonmania.util.Trace;
 
 public class Door extends Entity implements OverlapBehaviour {
     private boolean open = false;
@@ -19,6 +20,8 @@ public class Door extends Entity implements OverlapBehaviour {
 
     @Override
     public boolean canMoveOnto(GameMap map, Entity entity) {
+        if (Trace.ENABLED)
+            Trace.event("door", "door %s probed by %s", getId(), entity.getClass().getSimpleName());
         if (open || entity instanceof Spider) {
             return true;
         }
@@ -30,22 +33,24 @@ public class Door extends Entity implements OverlapBehaviour {
 
         if (!(entity instanceof Player))
             return;
-        System.out.println("lai lai open");
+        if (Trace.ENABLED)
+            Trace.event("door", "door %s entered by the player", getId());
 
         Player player = (Player) entity;
         Inventory inventory = player.getInventory();
         Key key = inventory.getFirst(Key.class);
-        System.out.println("if player has key");
         if (hasSunStone(player)) {
             open();
         } else if (hasKey(player)) {
             inventory.remove(key);
             open();
+        } else {
+            return;
         }
+        map.invalidatePassability(getPosition());
     }
 
     private boolean hasKey(Player player) {
-        System.out.println("does the player has key");
         Inventory inventory = player.getInventory();
         Key key = inventory.getFirst(Key.class);
 
@@ -53,7 +58,6 @@ public class Door extends Entity implements OverlapBehaviour {
     }
 
     private boolean hasSunStone(Player player) {
-        System.out.println("does the player has sunstone");
         Inventory inventory = player.getInventory();
         SunStone sunStone = inventory.getFirst(SunStone.class);
 
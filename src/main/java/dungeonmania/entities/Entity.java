@@ -5,7 +5,6 @@ import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
 
 import java.io.Serializable;
-import java.util.UUID;
 
 public abstract class Entity implements Serializable {
     public static final int FLOOR_LAYER = 0;
@@ -17,14 +16,13 @@ public abstract class Entity implements Serializable {
     private Position previousPosition;
     private Position previousDistinctPosition;
     private Direction facing;
-    private String entityId;
+    private long entityId = EntityIdAllocator.UNASSIGNED;
 
     // constructor
     public Entity(Position position) {
         this.position = position;
         this.previousPosition = position;
         this.previousDistinctPosition = null;
-        this.entityId = UUID.randomUUID().toString();
         this.facing = null;
     }
 
@@ -61,9 +59,43 @@ public abstract class Entity implements Serializable {
     }
 
     public String getId() {
+        return EntityIdAllocator.encode(getEntityId());
+    }
+
+    public long getEntityId() {
+        if (entityId == EntityIdAllocator.UNASSIGNED)
+            entityId = EntityIdAllocator.allocateUnowned();
         return entityId;
     }
 
+    /**
+     * Give the entity an id from the allocator of its game, if it has none yet
+     */
+    public void assignId(EntityIdAllocator ids) {
+        if (entityId == EntityIdAllocator.UNASSIGNED)
+            entityId = ids.allocate();
+    }
+
+    /**
+     * Give the entity an id reserved for it, if it has none yet
+     */
+    public void assignId(long id) {
+        if (entityId == EntityIdAllocator.UNASSIGNED)
+            entityId = id;
+    }
+
+    /**
+     * Put a recycled entity back as a new one at the position, under a new id
+     * from the allocator of its game, so nothing of its past life shows
+     */
+    protected void reset(Position position, EntityIdAllocator ids) {
+        this.position = position;
+        this.previousPosition = position;
+        this.previousDistinctPosition = null;
+        this.facing = null;
+        this.entityId = ids.allocate();
+    }
+
     public void setPosition(Position position) {
         previousPosition = this.position;
         this.position = position;
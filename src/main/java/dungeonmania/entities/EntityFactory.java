@@ -11,6 +11,7 @@ import dungeonmania.map.GameMap;
 import dungeonmania.entities.collectables.potions.InvincibilityPotion;
 import dungeonmania.entities.collectables.potions.InvisibilityPotion;
 import dungeonmania.util.Position;
+import dungeonmania.util.Trace;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -22,13 +23,25 @@ import org.json.JSONObject;
 public class EntityFactory {
     private JSONObject config;
     private Random ranGen = new Random();
+    private EntityIdAllocator ids;
+    // destroyed enemies kept to be spawned again, and a spider to probe spawn positions with
+    private final EnemyPool<Spider> spiderPool = new EnemyPool<>();
+    private final EnemyPool<ZombieToast> zombiePool = new EnemyPool<>();
+    private Spider probe;
 
-    public EntityFactory(JSONObject config) {
+    public EntityFactory(JSONObject config, EntityIdAllocator ids) {
         this.config = config;
+        this.ids = ids;
     }
 
     public Entity createEntity(JSONObject jsonEntity) {
-        return constructEntity(jsonEntity, config);
+        Entity entity = constructEntity(jsonEntity, config);
+        return (entity != null) ? withId(entity) : null;
+    }
+
+    private <T extends Entity> T withId(T entity) {
+        entity.assignId(ids);
+        return entity;
     }
 
     public void spawnSpider(Game game) {
@@ -40,7 +53,8 @@ public class EntityFactory {
         int radius = 20;
         Position player = map.getPlayer().getPosition();
 
-        Spider dummySpider = buildSpider(new Position(0, 0)); // for checking possible positions
+        if (probe == null)
+            probe = new Spider(new Position(0, 0), 0, 0); // for checking possible positions
 
         List<Position> availablePos = new ArrayList<>();
         for (int i = player.getX() - radius; i < player.getX() + radius; i++) {
@@ -48,7 +62,7 @@ public class EntityFactory {
                 if (Position.calculatePositionBetween(player, new Position(i, j)).magnitude() > radius)
                     continue;
                 Position np = new Position(i, j);
-                if (!map.canMoveTo(dummySpider, np) || np.equals(player))
+                if (!map.canMoveTo(probe, np) || np.equals(player))
                     continue;
                 if (map.getEntities(np).stream().anyMatch(e -> e instanceof Enemy))
                     continue;
@@ -56,15 +70,16 @@ public class EntityFactory {
             }
         }
         Position initPosition = availablePos.get(ranGen.nextInt(availablePos.size()));
-        Spider spider = buildSpider(initPosition);
+        Spider spider = spiderPool.acquire(initPosition, spiderHealth(), spiderAttack(), ids);
+        if (spider == null)
+            spider = buildSpider(initPosition);
         map.addEntity(spider);
-        game.register(() -> spider.move(game), Game.AI_MOVEMENT, spider.getId());
+        game.register(spider.getMover(game), Game.AI_MOVEMENT, spider.getEntityId(), "spider");
     }
 
     public void spawnZombie(Game game, ZombieToastSpawner spawner) {
         GameMap map = game.getMap();
         int tick = game.getTick();
-        Random randGen = new Random();
         int spawnInterval = config.optInt("zombie_spawn_interval", ZombieToastSpawner.DEFAULT_SPAWN_INTERVAL);
         if (spawnInterval == 0 || (tick + 1) % spawnInterval != 0)
             return;
@@ -74,32 +89,57 @@ public class EntityFactory {
                 .collect(Collectors.toList());
         if (pos.size() == 0)
             return;
-        ZombieToast zt = buildZombieToast(pos.get(randGen.nextInt(pos.size())));
+        Position initPosition = pos.get(ranGen.nextInt(pos.size()));
+        ZombieToast zt = zombiePool.acquire(initPosition, zombieHealth(), zombieAttack(), ids);
+        if (zt == null)
+            zt = buildZombieToast(initPosition);
         map.addEntity(zt);
-        game.register(() -> zt.move(game), Game.AI_MOVEMENT, zt.getId());
+        game.register(zt.getMover(game), Game.AI_MOVEMENT, zt.getEntityId(), "zombie_toast");
+    }
+
+    /**
+     * Keep a destroyed spider or zombie toast to be spawned again
+     */
+    public void recycle(Enemy enemy) {
+        if (enemy instanceof Spider)
+            spiderPool.recycle((Spider) enemy);
+        else if (enemy instanceof ZombieToast)
+            zombiePool.recycle((ZombieToast) enemy);
+    }
+
+    private double spiderHealth() {
+        return config.optDouble("spider_health", Spider.DEFAULT_HEALTH);
+    }
+
+    private double spiderAttack() {
+        return config.optDouble("spider_attack", Spider.DEFAULT_ATTACK);
+    }
+
+    private double zombieHealth() {
+        return config.optDouble("zombie_health", ZombieToast.DEFAULT_HEALTH);
+    }
+
+    private double zombieAttack() {
+        return config.optDouble("zombie_attack", ZombieToast.DEFAULT_ATTACK);
     }
 
     public Spider buildSpider(Position pos) {
-        double spiderHealth = config.optDouble("spider_health", Spider.DEFAULT_HEALTH);
-        double spiderAttack = config.optDouble("spider_attack", Spider.DEFAULT_ATTACK);
-        return new Spider(pos, spiderHealth, spiderAttack);
+        return withId(new Spider(pos, spiderHealth(), spiderAttack()));
     }
 
     public Player buildPlayer(Position pos) {
         double playerHealth = config.optDouble("player_health", Player.DEFAULT_HEALTH);
         double playerAttack = config.optDouble("player_attack", Player.DEFAULT_ATTACK);
-        return new Player(pos, playerHealth, playerAttack);
+        return withId(new Player(pos, playerHealth, playerAttack));
     }
 
     public ZombieToast buildZombieToast(Position pos) {
-        double zombieHealth = config.optDouble("zombie_health", ZombieToast.DEFAULT_HEALTH);
-        double zombieAttack = config.optDouble("zombie_attack", ZombieToast.DEFAULT_ATTACK);
-        return new ZombieToast(pos, zombieHealth, zombieAttack);
+        return withId(new ZombieToast(pos, zombieHealth(), zombieAttack()));
     }
 
     public ZombieToastSpawner buildZombieToastSpawner(Position pos) {
         int zombieSpawnRate = config.optInt("zombie_spawn_interval", ZombieToastSpawner.DEFAULT_SPAWN_INTERVAL);
-        return new ZombieToastSpawner(pos, zombieSpawnRate);
+        return withId(new ZombieToastSpawner(pos, zombieSpawnRate));
     }
 
     public Mercenary buildMercenary(Position pos) {
@@ -109,32 +149,33 @@ public class EntityFactory {
         double allyDefence = config.optDouble("ally_defence", Mercenary.DEFAULT_ATTACK);
         int mercenaryBribeAmount = config.optInt("bribe_amount", Mercenary.DEFAULT_BRIBE_AMOUNT);
         int mercenaryBribeRadius = config.optInt("bribe_radius", Mercenary.DEFAULT_BRIBE_RADIUS);
-        return new Mercenary(pos, mercenaryHealth, mercenaryAttack, mercenaryBribeAmount, mercenaryBribeRadius,
-                allyAttack, allyDefence);
+        return withId(new Mercenary(pos, mercenaryHealth, mercenaryAttack, mercenaryBribeAmount,
+                mercenaryBribeRadius, allyAttack, allyDefence));
     }
 
     public Bow buildBow() {
         int bowDurability = config.optInt("bow_durability");
-        return new Bow(bowDurability);
+        return withId(new Bow(bowDurability));
     }
 
     public Shield buildShield() {
         int shieldDurability = config.optInt("shield_durability");
         double shieldDefence = config.optInt("shield_defence");
-        return new Shield(shieldDurability, shieldDefence);
+        return withId(new Shield(shieldDurability, shieldDefence));
     }
 
     public Sceptre buildSceptre() {
         int mindControlDuration = config.optInt("mind_control_duration");
-        System.out.println("spectre is being build");
-        return new Sceptre(mindControlDuration);
+        if (Trace.ENABLED)
+            Trace.event("build", "sceptre built, mind control lasts %d ticks", mindControlDuration);
+        return withId(new Sceptre(mindControlDuration));
     }
 
     public MidnightArmour buildMidnightArmour() {
         int duration = Integer.MAX_VALUE;
         int attackBuff = config.optInt("midnight_armour_attack");
         int defenceBuff = config.optInt("midnight_armour_defence");
-        return new MidnightArmour(duration, attackBuff, defenceBuff);
+        return withId(new MidnightArmour(duration, attackBuff, defenceBuff));
     }
 
     private Entity constructEntity(JSONObject jsonEntity, JSONObject config) {
@@ -0,0 +1,61 @@
+package dungeonmania.entities;
+
+import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * EntityIdAllocator -- hands out entity ids for a game
+ *
+ * Ids are sequential longs, unique within the game that owns the allocator.
+ * The allocator is part of the game state, so a saved or rewound game keeps
+ * counting from where it was. Ids are only turned into strings at the API
+ * boundary, in a compact base 36 form.
+ *
+ * Entities created outside a game (e.g. directly in tests) are given negative
+ * ids from a shared counter, which can never clash with the ids of a game.
+ */
+public class EntityIdAllocator implements Serializable {
+    public static final long UNASSIGNED = 0;
+    private static final int RADIX = Character.MAX_RADIX;
+    private static final AtomicLong UNOWNED = new AtomicLong();
+
+    private long next = 1;
+
+    public long allocate() {
+        return next++;
+    }
+
+    /**
+     * @return the last id handed out, or UNASSIGNED if there is none
+     */
+    public long getLast() {
+        return next - 1;
+    }
+
+    /**
+     * Skip every id up to and including last, which are already in use
+     * (e.g. by the shared terrain of the dungeon)
+     */
+    public void reserve(long last) {
+        next = Math.max(next, last + 1);
+    }
+
+    public static long allocateUnowned() {
+        return UNOWNED.decrementAndGet();
+    }
+
+    public static String encode(long id) {
+        return Long.toString(id, RADIX);
+    }
+
+    /**
+     * @return the id, or UNASSIGNED if the string is not an encoded id
+     */
+    public static long decode(String id) {
+        try {
+            return Long.parseLong(id, RADIX);
+        } catch (NumberFormatException e) {
+            return UNASSIGNED;
+        }
+    }
+}
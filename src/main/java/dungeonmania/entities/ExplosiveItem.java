@@ -6,4 +6,11 @@ public interface ExplosiveItem {
     public void notify(GameMap map);
 
     public void explode(GameMap map);
+
+    public int getRadius();
+
+    /**
+     * @return whether the bomb detonates when caught in another blast
+     */
+    public boolean isArmed();
 }
@@ -9,12 +9,10 @@ import dungeonmania.entities.logic.logicType.LogicTypeFactory;
 import dungeonmania.map.GameMap;
 import dungeonmania.entities.logic.logicType.LogicType;
 
-public class LogicalEntity extends Entity implements LogicalOperator, Subscribable {
+public class LogicalEntity extends Entity implements LogicalOperator, Subscribable, DestroyedBehaviour {
     private LogicType type;
     private boolean isActivated = false;
     private List<Subscribable> subs = new ArrayList<>();
-    private List<Position> initSrcPowerList = new ArrayList<>();
-    private List<Position> srcPowerList = new ArrayList<>();
 
     public LogicalEntity(Position position, String type) {
         super(position);
@@ -41,38 +39,20 @@ public class LogicalEntity extends Entity implements LogicalOperator, Subscribab
         return isActivated;
     }
 
-    private void addPowerSource(Position pos) {
-        srcPowerList.add(pos);
+    public LogicType getLogicType() {
+        return type;
     }
 
-    private void removePowerSource(Position pos) {
-        srcPowerList.remove(pos);
+    /**
+     * Called by the circuit engine when the inputs of this entity changed
+     */
+    public void updateActivationStatus(GameMap map, boolean activated) {
+        isActivated = activated;
     }
 
-    public void activate(Position pos, GameMap map, List<LogicalEntity> list) {
-        addPowerSource(pos);
-        if (!list.contains(this)) list.add(this);
-    }
-
-    public void deactivate(Position pos, List<LogicalEntity> list) {
-        removePowerSource(pos);
-        if (list.contains(this)) list.remove(this);
-    }
-
-    public void updateActivationStatus(GameMap map) {
-        isActivated = type.checkCondition(srcPowerList, subs.size(), initSrcPowerList.size());
-        initSrcPowerList = srcPowerList;
-    }
-
-    public List<Position> getSrcPowerList() {
-        return srcPowerList;
-    }
-
-    public List<Position> getInitSrcPowerList() {
-        return initSrcPowerList;
-    }
-
-    public void updateInitSrcList() {
-        initSrcPowerList = srcPowerList;
+    @Override
+    public void onDestroy(GameMap map) {
+        subs.forEach(s -> s.unsubscribe(this));
+        map.getCircuit().invalidate();
     }
 }
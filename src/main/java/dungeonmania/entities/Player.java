@@ -106,18 +106,20 @@ public class Player extends Entity implements Battleable, OverlapBehaviour {
         return true;
     }
 
-    public Entity getEntity(String itemUsedId) {
+    public Entity getEntity(long itemUsedId) {
         return inventory.getEntity(itemUsedId);
     }
 
     public boolean pickUp(Entity item) {
+        if (!inventory.add((InventoryItem) item))
+            return false;
         if (item instanceof Treasure) {
             collectedTreasureCount++;
         }
         if (item instanceof SunStone) {
             collectedSunStoneCount++;
         }
-        return inventory.add((InventoryItem) item);
+        return true;
     }
 
     public Inventory getInventory() {
@@ -1,11 +1,12 @@
 package dungeonmania.entities;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import dungeonmania.entities.enemies.Mercenary;
 import dungeonmania.entities.enemies.ZombieToast;
 import dungeonmania.map.GameMap;
+import dungeonmania.map.PositionTable;
 import dungeonmania.util.Position;
 
 public class Portal extends Entity implements OverlapBehaviour {
@@ -31,8 +32,11 @@ public class Portal extends Entity implements OverlapBehaviour {
     }
 
     public boolean canTeleportTo(GameMap map, Entity entity) {
-        List<Position> neighbours = getPosition().getCardinallyAdjacentPositions();
-        return neighbours.stream().allMatch(n -> map.canMoveTo(entity, n));
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            if (!map.canMoveTo(entity, map.getPositions().cardinal(getPosition(), i)))
+                return false;
+        }
+        return true;
     }
 
     @Override
@@ -44,14 +48,12 @@ public class Portal extends Entity implements OverlapBehaviour {
     }
 
     private void doTeleport(GameMap map, Entity entity) {
-        Position destination = pair.getPosition()
-                .getCardinallyAdjacentPositions()
-                .stream()
-                .filter(dest -> map.canMoveTo(entity, dest))
-                .findAny()
-                .orElse(null);
-        if (destination != null) {
-            map.moveTo(entity, destination);
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            Position destination = map.getPositions().cardinal(pair.getPosition(), i);
+            if (map.canMoveTo(entity, destination)) {
+                map.moveTo(entity, destination);
+                return;
+            }
         }
     }
 
@@ -64,12 +66,15 @@ public class Portal extends Entity implements OverlapBehaviour {
     }
 
     public List<Position> getDestPositions(GameMap map, Entity entity) {
-        return pair == null
-                ? null
-                : pair.getPosition().getAdjacentPositions()
-                    .stream()
-                    .filter(p -> map.canMoveTo(entity, p))
-                    .collect(Collectors.toList());
+        if (pair == null)
+            return null;
+        List<Position> destinations = new ArrayList<>(PositionTable.ADJACENT);
+        for (int i = 0; i < PositionTable.ADJACENT; i++) {
+            Position p = map.getPositions().adjacent(pair.getPosition(), i);
+            if (map.canMoveTo(entity, p))
+                destinations.add(p);
+        }
+        return destinations;
     }
     public void bind(Portal portal) {
         if (this.pair == portal)
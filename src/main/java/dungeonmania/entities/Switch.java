@@ -1,7 +1,6 @@
 package dungeonmania.entities;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -11,10 +10,9 @@ import dungeonmania.map.GameMap;
 import dungeonmania.util.Position;
 
 public class Switch extends Entity implements Subscribable, LogicalOperator,
-OverlapBehaviour, MovedAwayBehaviour, LogicalActivator {
+OverlapBehaviour, MovedAwayBehaviour, DestroyedBehaviour, LogicalActivator {
     private boolean activated;
     private List<Subscribable> subs = new ArrayList<>();
-    private List<LogicalEntity> logicTargetList = new ArrayList<>();
 
     public Switch(Position position) {
         super(position.asLayer(Entity.ITEM_LAYER));
@@ -54,7 +52,7 @@ OverlapBehaviour, MovedAwayBehaviour, LogicalActivator {
         if (entity instanceof Boulder) {
             activated = true;
             getBombsFromSubs().forEach(b -> b.notify(map));
-            this.activate(getPosition(), map, logicTargetList);
+            map.getCircuit().updateSwitch(this);
         }
     }
 
@@ -62,41 +60,23 @@ OverlapBehaviour, MovedAwayBehaviour, LogicalActivator {
     public void onMovedAway(GameMap map, Entity entity) {
         if (entity instanceof Boulder) {
             activated = false;
-            this.deactivate(getPosition(), logicTargetList);
+            map.getCircuit().updateSwitch(this);
         }
     }
 
-    private List<ExplosiveItem> getBombsFromSubs() {
-        return subs.stream().filter(ExplosiveItem.class::isInstance)
-        .map(ExplosiveItem.class::cast)
-        .collect(Collectors.toList());
+    @Override
+    public void onDestroy(GameMap map) {
+        subs.forEach(s -> s.unsubscribe(this));
+        map.getCircuit().invalidate();
     }
 
-    private List<LogicalOperator> getLogicOperatorsFromSubs() {
-        return subs.stream().filter(LogicalOperator.class::isInstance)
-        .map(LogicalOperator.class::cast)
+    // logical bombs are driven by the circuit instead
+    private List<ExplosiveItem> getBombsFromSubs() {
+        return subs.stream().filter(s -> s instanceof ExplosiveItem && !(s instanceof LogicalOperator))
+        .map(ExplosiveItem.class::cast)
         .collect(Collectors.toList());
     }
 
-    public void activate(Position position, GameMap map, List<LogicalEntity> list) {
-        if (!activated)
-            return;
-        // Connect power to all connected logic operators
-        Iterator<LogicalOperator> it = getLogicOperatorsFromSubs().iterator();
-        while (it.hasNext()) {
-            it.next().activate(position, map, list);
-        }
-        // Activate connected logic entities
-        Iterator<LogicalEntity> it2 = logicTargetList.iterator();
-        while (it2.hasNext()) {
-            it2.next().updateActivationStatus(map);
-        }
-    }
-
-    public void deactivate(Position position, List<LogicalEntity> list) {
-        getLogicOperatorsFromSubs().forEach(e -> e.deactivate(position, list));
-    }
-
     public boolean isActivated() {
         return activated;
     }
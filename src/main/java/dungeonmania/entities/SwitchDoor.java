@@ -13,4 +13,10 @@ public class SwitchDoor extends LogicalEntity {
     public boolean canMoveOnto(GameMap map, Entity entity) {
         return (getActivationStatus() || entity instanceof Spider);
     }
+
+    @Override
+    public void updateActivationStatus(GameMap map, boolean activated) {
+        super.updateActivationStatus(map, activated);
+        map.invalidatePassability(getPosition());
+    }
 }
@@ -1,8 +1,6 @@
 package dungeonmania.entities;
 
-import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import java.util.ArrayList;
 
@@ -13,8 +11,6 @@ import dungeonmania.entities.logic.LogicalOperator;
 
 public class Wire extends Entity implements LogicalOperator, Subscribable, DestroyedBehaviour, LogicalActivator {
     private List<Subscribable> subs = new ArrayList<>();
-    private List<Position> srcPowerList = new ArrayList<>();
-    private boolean isActivated = false;
 
     public Wire(Position position) {
         super(position);
@@ -37,41 +33,13 @@ public class Wire extends Entity implements LogicalOperator, Subscribable, Destr
         subs = new ArrayList<>();
     }
 
-    public void activate(Position position, GameMap map, List<LogicalEntity> list) {
-        if (isActivated) return;
-        isActivated = true;
-        srcPowerList.add(position);
-        Iterator<LogicalOperator> iterator = toLogicalEntity().iterator();
-        while (iterator.hasNext()) {
-            iterator.next().activate(getPosition(), map, list);
-        }
-    }
-
-    public void deactivate(Position position, List<LogicalEntity> list) {
-        if (!isActivated) return;
-        srcPowerList.remove(position);
-        if (srcPowerList.isEmpty()) {
-            isActivated = false;
-            subs.stream().map(LogicalOperator.class::cast).forEach(s -> s.deactivate(getPosition(), list));
-        }
-    }
-
     public void onDestroy(GameMap map) {
-        subs.forEach(s -> {
-            s.unsubscribe(this);
-            if (!srcPowerList.contains(s.getPosition())) {
-                LogicalOperator e = (LogicalOperator) s;
-                e.deactivate(getPosition(), new ArrayList<>());
-            }
-        });
+        subs.forEach(s -> s.unsubscribe(this));
+        map.getCircuit().invalidate();
     }
 
     @Override
     public boolean canMoveOnto(GameMap map, Entity entity) {
         return true;
     }
-
-    private List<LogicalOperator> toLogicalEntity() {
-        return subs.stream().map(LogicalOperator.class::cast).collect(Collectors.toList());
-    }
 }
@@ -7,10 +7,10 @@ import java.util.ArrayList;
 import java.util.stream.Collectors;
 
 import dungeonmania.entities.Entity;
-import dungeonmania.entities.Player;
 import dungeonmania.entities.Switch;
 import dungeonmania.entities.Subscribable;
 import dungeonmania.entities.inventory.InventoryItem;
+import dungeonmania.map.BlastResolver;
 import dungeonmania.map.GameMap;
 
 import dungeonmania.entities.ExplosiveItem;
@@ -52,16 +52,15 @@ public class Bomb extends Entity implements InventoryItem, Subscribable, Explosi
     }
 
     public void explode(GameMap map) {
-        int x = getPosition().getX();
-        int y = getPosition().getY();
-        for (int i = x - radius; i <= x + radius; i++) {
-            for (int j = y - radius; j <= y + radius; j++) {
-                List<Entity> entities = map.getEntities(new Position(i, j));
-                entities = entities.stream().filter(e -> !(e instanceof Player)).collect(Collectors.toList());
-                for (Entity e : entities)
-                    map.destroyEntity(e);
-            }
-        }
+        BlastResolver.explode(map, this);
+    }
+
+    public int getRadius() {
+        return radius;
+    }
+
+    public boolean isArmed() {
+        return state == State.PLACED;
     }
 
     public State getState() {
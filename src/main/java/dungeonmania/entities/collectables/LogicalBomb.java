@@ -2,17 +2,14 @@ package dungeonmania.entities.collectables;
 
 import dungeonmania.util.Position;
 
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import dungeonmania.entities.Entity;
-import dungeonmania.entities.Switch;
-import dungeonmania.entities.Player;
+import dungeonmania.entities.Subscribable;
 import dungeonmania.entities.inventory.InventoryItem;
 import dungeonmania.entities.logic.LogicalActivator;
-import dungeonmania.entities.logic.logicType.LogicTypeFactory;
-import dungeonmania.entities.logic.logicType.LogicType;
+import dungeonmania.map.BlastResolver;
 import dungeonmania.map.GameMap;
 
 import dungeonmania.entities.ExplosiveItem;
@@ -25,15 +22,12 @@ public class LogicalBomb extends LogicalEntity implements InventoryItem, Explosi
 
     public static final int DEFAULT_RADIUS = 1;
     private int radius;
-    private LogicType type;
     private State state;
-    private List<Position> srcPowerList = new ArrayList<>();
 
     public LogicalBomb(Position position, int radius, String type) {
         super(position, type);
         this.radius = radius;
         setState(State.SPAWNED);
-        this.type = LogicTypeFactory.create(type);
     }
 
     @Override
@@ -47,11 +41,14 @@ public class LogicalBomb extends LogicalEntity implements InventoryItem, Explosi
         setState(State.PLACED);
         List<Position> adjPosList = getPosition().getCardinallyAdjacentPositions();
         adjPosList.stream().forEach(node -> {
-            List<Entity> entities = map.getEntities(node).stream().filter(e -> (e instanceof LogicalActivator))
+            List<Subscribable> activators = map.getEntities(node).stream()
+                    .filter(e -> (e instanceof LogicalActivator))
+                    .map(Subscribable.class::cast)
                     .collect(Collectors.toList());
-            entities.stream().map(Switch.class::cast).forEach(s -> s.subscribe(this, map));
-            entities.stream().map(Switch.class::cast).forEach(s -> this.subscribe(s));
+            activators.forEach(s -> s.subscribe(this));
+            activators.forEach(s -> this.subscribe(s));
         });
+        map.getCircuit().invalidate();
     }
 
     public void notify(GameMap map) {
@@ -59,32 +56,23 @@ public class LogicalBomb extends LogicalEntity implements InventoryItem, Explosi
     }
 
     public void explode(GameMap map) {
-        int x = getPosition().getX();
-        int y = getPosition().getY();
-        for (int i = x - radius; i <= x + radius; i++) {
-            for (int j = y - radius; j <= y + radius; j++) {
-                List<Entity> entities = map.getEntities(new Position(i, j));
-                entities = entities.stream().filter(e -> !(e instanceof Player)).collect(Collectors.toList());
-                for (Entity e : entities)
-                    map.destroyEntity(e);
-            }
-        }
+        BlastResolver.explode(map, this);
     }
 
-    public void activate(Position pos, GameMap map) {
-        srcPowerList.add(pos);
+    public int getRadius() {
+        return radius;
     }
 
-    public void deactivate(Position pos) {
-        srcPowerList.remove(pos);
+    public boolean isArmed() {
+        return state == State.PLACED;
     }
 
     @Override
-    public void updateActivationStatus(GameMap map) {
-        if (type.checkCondition(getSrcPowerList(), getSubs().size(), getInitSrcPowerList().size())) {
+    public void updateActivationStatus(GameMap map, boolean activated) {
+        super.updateActivationStatus(map, activated);
+        if (activated) {
             this.notify(map);
         }
-        updateInitSrcList();
     }
 
     public State getState() {
@@ -95,4 +83,3 @@ public class LogicalBomb extends LogicalEntity implements InventoryItem, Explosi
         state = newState;
     }
 }
-
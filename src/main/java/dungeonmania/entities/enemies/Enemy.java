@@ -5,18 +5,68 @@ import dungeonmania.battles.BattleStatistics;
 import dungeonmania.battles.Battleable;
 import dungeonmania.entities.DestroyedBehaviour;
 import dungeonmania.entities.Entity;
+import dungeonmania.entities.EntityIdAllocator;
 import dungeonmania.entities.OverlapBehaviour;
 import dungeonmania.entities.Player;
 import dungeonmania.map.GameMap;
 import dungeonmania.util.Position;
 
 public abstract class Enemy extends Entity implements Battleable, OverlapBehaviour, DestroyedBehaviour {
-    private BattleStatistics battleStatistics;
+    // slot of the enemy's state, in the store of its map or in its own one (home)
+    private final EnemyStore home;
+    private EnemyStore store;
+    private int slot;
+    private transient BattleStatistics battleStatistics;
+    // callback moving the enemy each tick, kept when the enemy is recycled
+    private transient Runnable mover;
+    private transient Game moverGame;
+    private boolean pooled = false;
 
-    public Enemy(Position position, double health, double attack) {
+    Enemy(Position position, double health, double attack, byte kind) {
         super(position.asLayer(Entity.CHARACTER_LAYER));
-        battleStatistics = new BattleStatistics(health, attack, 0, BattleStatistics.DEFAULT_DAMAGE_MAGNIFIER,
-                BattleStatistics.DEFAULT_ENEMY_DAMAGE_REDUCER);
+        home = new EnemyStore(1);
+        store = home;
+        slot = store.add(this, kind, getPosition(), health, attack);
+    }
+
+    /**
+     * Bring a destroyed enemy back as a new one, under a new id
+     */
+    void respawn(Position position, double health, double attack, EntityIdAllocator ids) {
+        reset(position.asLayer(Entity.CHARACTER_LAYER), ids);
+        store.respawn(slot, getPosition(), health, attack);
+        pooled = false;
+    }
+
+    boolean isPooled() {
+        return pooled;
+    }
+
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    public EnemyStore getStore() {
+        return store;
+    }
+
+    public int getSlot() {
+        return slot;
+    }
+
+    EnemyStore getHome() {
+        return home;
+    }
+
+    void bind(EnemyStore newStore, int newSlot) {
+        this.store = newStore;
+        this.slot = newSlot;
+    }
+
+    @Override
+    public void setPosition(Position position) {
+        super.setPosition(position);
+        store.setPosition(slot, position);
     }
 
     @Override
@@ -26,15 +76,17 @@ public abstract class Enemy extends Entity implements Battleable, OverlapBehavio
 
     @Override
     public BattleStatistics getBattleStatistics() {
+        if (battleStatistics == null)
+            battleStatistics = new StoredStatistics(this);
         return battleStatistics;
     }
 
     public double getHealth() {
-        return battleStatistics.getHealth();
+        return store.getHealth(slot);
     }
 
     public void setHealth(double health) {
-        battleStatistics.setHealth(health);
+        store.setHealth(slot, health);
     }
 
     @Override
@@ -50,8 +102,53 @@ public abstract class Enemy extends Entity implements Battleable, OverlapBehavio
         Game g = map.getGame();
         Player player = g.getPlayer();
         player.killCountIncrease();
-        g.unsubscribe(getId());
+        g.unsubscribe(getEntityId());
+        if (g.getEntityFactory() != null)
+            g.getEntityFactory().recycle(this);
     }
 
     public abstract void move(Game game);
+
+    /**
+     * @return callback registered to move the enemy in the game, made once
+     */
+    public Runnable getMover(Game game) {
+        if (mover == null || moverGame != game) {
+            mover = () -> move(game);
+            moverGame = game;
+        }
+        return mover;
+    }
+
+    /**
+     * Battle statistics of an enemy, with its health and attack read from the store
+     */
+    private static final class StoredStatistics extends BattleStatistics {
+        private final Enemy enemy;
+
+        StoredStatistics(Enemy enemy) {
+            super(0, 0, 0, BattleStatistics.DEFAULT_DAMAGE_MAGNIFIER, BattleStatistics.DEFAULT_ENEMY_DAMAGE_REDUCER);
+            this.enemy = enemy;
+        }
+
+        @Override
+        public double getHealth() {
+            return enemy.store.getHealth(enemy.slot);
+        }
+
+        @Override
+        public void setHealth(double health) {
+            enemy.store.setHealth(enemy.slot, health);
+        }
+
+        @Override
+        public double getAttack() {
+            return enemy.store.getAttack(enemy.slot);
+        }
+
+        @Override
+        public void setAttack(double attack) {
+            enemy.store.setAttack(enemy.slot, attack);
+        }
+    }
 }
@@ -0,0 +1,46 @@
+package dungeonmania.entities.enemies;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import dungeonmania.entities.EntityIdAllocator;
+import dungeonmania.util.Position;
+
+/**
+ * EnemyPool -- destroyed enemies of one kind, kept for a game to spawn again
+ *
+ * A recycled enemy comes back with everything attached to it: its state in
+ * its home store, its battle statistics, its movement strategy and the
+ * callback moving it. Only its state is reset, and it gets a new id from the
+ * game, so the old id is never seen again.
+ */
+public class EnemyPool<T extends Enemy> {
+    // enough for a burst of deaths, without holding on to a whole wave
+    private static final int CAPACITY = 64;
+
+    private final Deque<T> enemies = new ArrayDeque<>();
+
+    /**
+     * Keep an enemy destroyed by the game, if there is room
+     */
+    public void recycle(T enemy) {
+        if (enemy.isPooled() || enemies.size() >= CAPACITY)
+            return;
+        enemy.setPooled(true);
+        enemies.push(enemy);
+    }
+
+    /**
+     * @return a recycled enemy as a new one at the position, or null if there is none
+     */
+    public T acquire(Position position, double health, double attack, EntityIdAllocator ids) {
+        T enemy = enemies.poll();
+        if (enemy != null)
+            enemy.respawn(position, health, attack, ids);
+        return enemy;
+    }
+
+    public int size() {
+        return enemies.size();
+    }
+}
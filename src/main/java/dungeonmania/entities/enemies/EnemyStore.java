@@ -0,0 +1,426 @@
+package dungeonmania.entities.enemies;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.collectables.potions.InvincibilityPotion;
+import dungeonmania.map.GameMap;
+import dungeonmania.map.PositionTable;
+import dungeonmania.util.Position;
+
+/**
+ * EnemyStore -- the state of the enemies of a map, one column per field
+ *
+ * Spider, ZombieToast and Mercenary objects are views over a slot of the store:
+ * their position, health, attack, kind and movement state live in primitive
+ * arrays, so going over the enemies walks a few arrays instead of following
+ * each enemy's objects around the heap.
+ *
+ * Zombies and spiders move in two steps over the columns. planMove works out
+ * the move and only reads the map, so planMoves can do it for every enemy of
+ * the store at once, in parallel. commitMove makes the move, one enemy at a
+ * time. A plan holds while none of the positions it looked at changed.
+ *
+ * An enemy not on a map has a store of its own, its home. GameMap moves the
+ * enemy into the store of the map when adding it, and back home when
+ * destroying it.
+ */
+public final class EnemyStore implements Serializable {
+    static final byte FREE = 0;
+    static final byte ZOMBIE = 1;
+    static final byte SPIDER = 2;
+    static final byte MERCENARY = 3;
+
+    // flags
+    static final byte FORWARD = 1; // spider circling clockwise
+    static final byte ALLIED = 2; // mercenary fighting for the player
+    static final byte ADJACENT = 4; // allied mercenary next to the player
+
+    // plans: open cardinal moves of a wandering zombie in the low bits, or the
+    // cardinal move (STAY for none) of a fleeing zombie, or the trajectory
+    // element a spider goes to, after turning round or not
+    private static final int NO_PLAN = -1;
+    private static final int OPEN_MOVES = 0xF;
+    private static final int FLEE = 1 << 4;
+    private static final int STAY = PositionTable.CARDINAL;
+    private static final int TURN = 1 << 8;
+    private static final int MOVES = 1 << 9;
+    private static final int MOVE_SHIFT = 10;
+    private static final int MOVE_MASK = 0x7;
+
+    private static final int[] CARDINAL_DX = {0, 1, 0, -1};
+    private static final int[] CARDINAL_DY = {-1, 0, 1, 0};
+    // a spider's trajectory, in the order of Position.getAdjacentPositions
+    private static final int TRAJECTORY = 8;
+    private static final int[] AROUND_DX = {-1, 0, 1, 1, 1, 0, -1, -1};
+    private static final int[] AROUND_DY = {-1, -1, -1, 0, 1, 1, 1, 0};
+
+    // as in java.util.Random
+    private static final long MULTIPLIER = 0x5DEECE66DL;
+    private static final long ADDEND = 0xBL;
+    private static final long SEED_MASK = (1L << 48) - 1;
+
+    private int size = 0;
+    private int[] free = new int[0];
+    private int freeCount = 0;
+
+    private byte[] type;
+    private Enemy[] owner;
+    private int[] x;
+    private int[] y;
+    private double[] health;
+    private double[] attack;
+    private byte[] flags;
+    // zombies: state of the random generator
+    private long[] seed;
+    // spiders: position circled around, and the next element of the trajectory
+    private int[] originX;
+    private int[] originY;
+    private byte[] step;
+    // mercenaries: ticks of mind control left
+    private int[] controlled;
+    // planned moves, and where they were planned from
+    private int[] plan;
+    private int[] planX;
+    private int[] planY;
+
+    public EnemyStore() {
+        this(16);
+    }
+
+    EnemyStore(int capacity) {
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        type = Arrays.copyOf((type == null) ? new byte[0] : type, capacity);
+        owner = Arrays.copyOf((owner == null) ? new Enemy[0] : owner, capacity);
+        x = Arrays.copyOf((x == null) ? new int[0] : x, capacity);
+        y = Arrays.copyOf((y == null) ? new int[0] : y, capacity);
+        health = Arrays.copyOf((health == null) ? new double[0] : health, capacity);
+        attack = Arrays.copyOf((attack == null) ? new double[0] : attack, capacity);
+        flags = Arrays.copyOf((flags == null) ? new byte[0] : flags, capacity);
+        seed = Arrays.copyOf((seed == null) ? new long[0] : seed, capacity);
+        originX = Arrays.copyOf((originX == null) ? new int[0] : originX, capacity);
+        originY = Arrays.copyOf((originY == null) ? new int[0] : originY, capacity);
+        step = Arrays.copyOf((step == null) ? new byte[0] : step, capacity);
+        controlled = Arrays.copyOf((controlled == null) ? new int[0] : controlled, capacity);
+        plan = Arrays.copyOf((plan == null) ? new int[0] : plan, capacity);
+        planX = Arrays.copyOf((planX == null) ? new int[0] : planX, capacity);
+        planY = Arrays.copyOf((planY == null) ? new int[0] : planY, capacity);
+    }
+
+    private int newSlot() {
+        if (freeCount > 0)
+            return free[--freeCount];
+        if (size == type.length)
+            allocate(Math.max(1, size * 2));
+        return size++;
+    }
+
+    /**
+     * @return slot of a new enemy
+     */
+    int add(Enemy enemy, byte kind, Position position, double hp, double atk) {
+        return add(enemy, kind, position, hp, atk, newSlot());
+    }
+
+    private int add(Enemy enemy, byte kind, Position position, double hp, double atk, int slot) {
+        type[slot] = kind;
+        owner[slot] = enemy;
+        x[slot] = position.getX();
+        y[slot] = position.getY();
+        health[slot] = hp;
+        attack[slot] = atk;
+        flags[slot] = 0;
+        seed[slot] = 0;
+        originX[slot] = position.getX();
+        originY[slot] = position.getY();
+        step[slot] = 0;
+        controlled[slot] = 0;
+        plan[slot] = NO_PLAN;
+        return slot;
+    }
+
+    private int copyFrom(EnemyStore other, int from) {
+        int slot = newSlot();
+        type[slot] = other.type[from];
+        owner[slot] = other.owner[from];
+        x[slot] = other.x[from];
+        y[slot] = other.y[from];
+        health[slot] = other.health[from];
+        attack[slot] = other.attack[from];
+        flags[slot] = other.flags[from];
+        seed[slot] = other.seed[from];
+        originX[slot] = other.originX[from];
+        originY[slot] = other.originY[from];
+        step[slot] = other.step[from];
+        controlled[slot] = other.controlled[from];
+        plan[slot] = NO_PLAN;
+        return slot;
+    }
+
+    private void freeSlot(int slot) {
+        type[slot] = FREE;
+        owner[slot] = null;
+        if (freeCount == free.length)
+            free = Arrays.copyOf(free, Math.max(4, freeCount * 2));
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * Move the enemy's state into this store, if it is not there yet
+     */
+    public void adopt(Enemy enemy) {
+        EnemyStore from = enemy.getStore();
+        if (from == this)
+            return;
+        int slot = copyFrom(from, enemy.getSlot());
+        from.freeSlot(enemy.getSlot());
+        enemy.bind(this, slot);
+    }
+
+    /**
+     * Move the enemy's state out of this store, into one of its own
+     */
+    public void release(Enemy enemy) {
+        if (enemy.getStore() != this)
+            return;
+        EnemyStore home = enemy.getHome();
+        int slot = home.copyFrom(this, enemy.getSlot());
+        freeSlot(enemy.getSlot());
+        enemy.bind(home, slot);
+    }
+
+    /**
+     * Put the state of a recycled enemy back as it is for a new enemy of its kind
+     */
+    void respawn(int slot, Position position, double hp, double atk) {
+        add(owner[slot], type[slot], position, hp, atk, slot);
+    }
+
+    void setPosition(int slot, Position p) {
+        x[slot] = p.getX();
+        y[slot] = p.getY();
+    }
+
+    double getHealth(int slot) {
+        return health[slot];
+    }
+
+    void setHealth(int slot, double hp) {
+        health[slot] = hp;
+    }
+
+    double getAttack(int slot) {
+        return attack[slot];
+    }
+
+    void setAttack(int slot, double atk) {
+        attack[slot] = atk;
+    }
+
+    boolean hasFlag(int slot, byte flag) {
+        return (flags[slot] & flag) != 0;
+    }
+
+    void setFlag(int slot, byte flag, boolean on) {
+        flags[slot] = (byte) (on ? flags[slot] | flag : flags[slot] & ~flag);
+    }
+
+    int getControlled(int slot) {
+        return controlled[slot];
+    }
+
+    void setControlled(int slot, int ticks) {
+        controlled[slot] = ticks;
+    }
+
+    int getStep(int slot) {
+        return step[slot];
+    }
+
+    /**
+     * Move a spider on to the next element of its trajectory, in the direction it circles
+     */
+    void advance(int slot) {
+        step[slot] = (byte) Math.floorMod(step[slot] + (hasFlag(slot, FORWARD) ? 1 : -1), TRAJECTORY);
+    }
+
+    Position origin(int slot) {
+        return new Position(originX[slot], originY[slot]);
+    }
+
+    private Position trajectory(int slot, int element, PositionTable positions) {
+        return positions.get(originX[slot] + AROUND_DX[element], originY[slot] + AROUND_DY[element]);
+    }
+
+    private Position cardinal(int slot, int i, PositionTable positions) {
+        return positions.get(x[slot] + CARDINAL_DX[i], y[slot] + CARDINAL_DY[i]);
+    }
+
+    void setSeed(int slot, long s) {
+        seed[slot] = (s ^ MULTIPLIER) & SEED_MASK;
+    }
+
+    /**
+     * @return the next bits of a zombie's generator, as java.util.Random.next
+     */
+    int next(int slot, int bits) {
+        seed[slot] = (seed[slot] * MULTIPLIER + ADDEND) & SEED_MASK;
+        return (int) (seed[slot] >>> (48 - bits));
+    }
+
+    /**
+     * @return as java.util.Random.nextInt(bound) on a zombie's generator
+     */
+    private int nextInt(int slot, int bound) {
+        int r = next(slot, 31);
+        int m = bound - 1;
+        if ((bound & m) == 0)
+            return (int) ((bound * (long) r) >> 31);
+        for (int u = r; u - (r = u % bound) + m < 0; u = next(slot, 31))
+            continue;
+        return r;
+    }
+
+    /**
+     * Plan the moves of every zombie and spider at once, in parallel
+     */
+    public void planMoves(GameMap map) {
+        IntStream.range(0, size).parallel().forEach(slot -> {
+            if (type[slot] == ZOMBIE || type[slot] == SPIDER)
+                planMove(slot, map);
+        });
+    }
+
+    /**
+     * Work out the move of a zombie or spider, only reading the map
+     */
+    public void planMove(int slot, GameMap map) {
+        planX[slot] = x[slot];
+        planY[slot] = y[slot];
+        if (type[slot] == ZOMBIE)
+            plan[slot] = planZombie(slot, map);
+        else if (type[slot] == SPIDER)
+            plan[slot] = planSpider(slot, map);
+        else
+            plan[slot] = NO_PLAN;
+    }
+
+    private int planZombie(int slot, GameMap map) {
+        Enemy zombie = owner[slot];
+        PositionTable positions = map.getPositions();
+        if (map.getPlayer().getEffectivePotion() instanceof InvincibilityPotion) {
+            Position away = ((ZombieToast) zombie).runAway(map);
+            for (int i = 0; i < PositionTable.CARDINAL; i++) {
+                if (cardinal(slot, i, positions).equals(away))
+                    return FLEE | i;
+            }
+            return FLEE | STAY;
+        }
+        int open = 0;
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            if (map.canMoveTo(zombie, cardinal(slot, i, positions)))
+                open |= 1 << i;
+        }
+        return open;
+    }
+
+    private int planSpider(int slot, GameMap map) {
+        Enemy spider = owner[slot];
+        PositionTable positions = map.getPositions();
+        int element = step[slot];
+        int res = 0;
+        if (hasBoulder(map.getEntities(trajectory(slot, element, positions)))) {
+            // turning round, then stepping back twice
+            int back = hasFlag(slot, FORWARD) ? -1 : 1;
+            element = Math.floorMod(element + 2 * back, TRAJECTORY);
+            res |= TURN;
+        }
+        List<Entity> entities = map.getEntities(trajectory(slot, element, positions));
+        boolean moves = true;
+        for (Entity e : entities) {
+            if (!e.canMoveOnto(map, spider)) {
+                moves = false;
+                break;
+            }
+        }
+        return res | (moves ? MOVES : 0) | (element << MOVE_SHIFT);
+    }
+
+    private static boolean hasBoulder(List<Entity> entities) {
+        for (Entity e : entities) {
+            if (e instanceof Boulder)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * @param changed positions whose contents changed since the moves were planned
+     * @return whether the enemy has a plan still holding, dropping it either way
+     */
+    public boolean takePlan(int slot, Set<Position> changed, PositionTable positions) {
+        int p = plan[slot];
+        plan[slot] = NO_PLAN;
+        if (p == NO_PLAN || x[slot] != planX[slot] || y[slot] != planY[slot])
+            return false;
+        if (type[slot] == ZOMBIE) {
+            for (int i = 0; i < PositionTable.CARDINAL; i++) {
+                if (changed.contains(cardinal(slot, i, positions)))
+                    return false;
+            }
+            plan[slot] = p;
+            return true;
+        }
+        if (changed.contains(trajectory(slot, step[slot], positions)))
+            return false;
+        if ((p & TURN) != 0 && changed.contains(trajectory(slot, (p >> MOVE_SHIFT) & MOVE_MASK, positions)))
+            return false;
+        plan[slot] = p;
+        return true;
+    }
+
+    /**
+     * Make the planned move of a zombie or spider
+     */
+    public void commitMove(int slot, GameMap map) {
+        int p = plan[slot];
+        plan[slot] = NO_PLAN;
+        Enemy enemy = owner[slot];
+        PositionTable positions = map.getPositions();
+        if (type[slot] == ZOMBIE) {
+            int move;
+            if ((p & FLEE) != 0) {
+                move = p & ~FLEE;
+            } else {
+                // the random pick is made now, so the generator is drawn in turn
+                int count = Integer.bitCount(p & OPEN_MOVES);
+                move = STAY;
+                if (count > 0) {
+                    int n = nextInt(slot, count);
+                    for (move = 0; (p & (1 << move)) == 0 || n-- > 0; move++)
+                        continue;
+                }
+            }
+            map.moveTo(enemy, (move == STAY) ? enemy.getPosition() : cardinal(slot, move, positions));
+            return;
+        }
+        if ((p & TURN) != 0) {
+            setFlag(slot, FORWARD, !hasFlag(slot, FORWARD));
+            advance(slot);
+            advance(slot);
+        }
+        if ((p & MOVES) != 0) {
+            map.moveTo(enemy, trajectory(slot, step[slot], positions));
+            // the spider may have died on the way, and gone back home
+            enemy.getStore().advance(enemy.getSlot());
+        }
+    }
+}
@@ -10,6 +10,7 @@ import dungeonmania.entities.buildables.*;
 
 import dungeonmania.entities.enemies.MovementStrategy.Movement;
 import dungeonmania.map.GameMap;
+import dungeonmania.map.PathStrategy;
 import dungeonmania.util.Position;
 
 import dungeonmania.entities.enemies.MovementStrategy.MercenaryMovement;
@@ -23,18 +24,14 @@ public class Mercenary extends Enemy implements Interactable {
     private int bribeAmount = Mercenary.DEFAULT_BRIBE_AMOUNT;
     private int bribeRadius = Mercenary.DEFAULT_BRIBE_RADIUS;
 
-    private int mindBeingControlledDuration = 0;
-
     private double allyAttack;
     private double allyDefence;
-    private boolean allied = false;
-    private boolean isAdjacentToPlayer = false;
 
     private Movement movement = new MercenaryMovement();
 
     public Mercenary(Position position, double health, double attack, int bribeAmount, int bribeRadius,
             double allyAttack, double allyDefence) {
-        super(position, health, attack);
+        super(position, health, attack, EnemyStore.MERCENARY);
         this.bribeAmount = bribeAmount;
         this.bribeRadius = bribeRadius;
         this.allyAttack = allyAttack;
@@ -42,24 +39,57 @@ public class Mercenary extends Enemy implements Interactable {
     }
 
     public boolean isAllied() {
-        return allied;
+        return getStore().hasFlag(getSlot(), EnemyStore.ALLIED);
+    }
+
+    /**
+     * Change sides, adding or taking the ally buff of the mercenary from the total of the game
+     */
+    private void setAllied(boolean allied, Game game) {
+        if (allied == isAllied())
+            return;
+        getStore().setFlag(getSlot(), EnemyStore.ALLIED, allied);
+        if (allied)
+            game.getBattleFacade().getAllyBuff().add(getAllyBuff());
+        else
+            game.getBattleFacade().getAllyBuff().remove(getAllyBuff());
+    }
+
+    private BattleStatistics getAllyBuff() {
+        return new BattleStatistics(0, allyAttack, allyDefence, 1, 1);
     }
 
     public boolean isAdjacentToPlayer() {
-        return isAdjacentToPlayer;
+        return getStore().hasFlag(getSlot(), EnemyStore.ADJACENT);
     }
 
     public void setIsAdjacentToPlayer(boolean status) {
-        this.isAdjacentToPlayer = status;
+        getStore().setFlag(getSlot(), EnemyStore.ADJACENT, status);
+    }
+
+    /**
+     * Choose the search used to follow the player. Once allied, the mercenary keeps
+     * repairing one search from tick to tick, and only searches with this strategy
+     * where that search cannot be kept, on maps with portals or searched through clusters.
+     */
+    public void setPathStrategy(PathStrategy pathStrategy) {
+        this.movement = new MercenaryMovement(pathStrategy);
     }
 
     @Override
     public void onOverlap(GameMap map, Entity entity) {
-        if (allied)
+        if (isAllied())
             return;
         super.onOverlap(map, entity);
     }
 
+    @Override
+    public void onDestroy(GameMap map) {
+        if (isAllied())
+            setAllied(false, map.getGame());
+        super.onDestroy(map);
+    }
+
     /**
      * check whether the current merc can be bribed
      * @param player
@@ -85,13 +115,13 @@ public class Mercenary extends Enemy implements Interactable {
     @Override
     public void interact(Player player, Game game) {
         if (canBeMindControlled(player)) {
-            allied = true;
-            mindBeingControlledDuration = 2;
+            setAllied(true, game);
+            getStore().setControlled(getSlot(), 2);
         } else {
-            allied = true;
+            setAllied(true, game);
             bribe(player);
-            if (!isAdjacentToPlayer && Position.isAdjacent(player.getPosition(), getPosition()))
-            isAdjacentToPlayer = true;
+            if (!isAdjacentToPlayer() && Position.isAdjacent(player.getPosition(), getPosition()))
+            setIsAdjacentToPlayer(true);
     }
 
 }
@@ -100,21 +130,25 @@ public class Mercenary extends Enemy implements Interactable {
     public void move(Game game) {
         movement.move(game.getMap(), this);
         // every time the mercenary moves (meanign 1 tick is consumed)
+        int mindBeingControlledDuration = getStore().getControlled(getSlot());
         if (mindBeingControlledDuration > 0) {
-            mindBeingControlledDuration--;
-            if (mindBeingControlledDuration == 0) allied = false;
+            getStore().setControlled(getSlot(), --mindBeingControlledDuration);
+            if (mindBeingControlledDuration == 0) {
+                setAllied(false, game);
+                game.getMap().stopFollowing(this);
+            }
         }
     }
     // change is interactab
     @Override
     public boolean isInteractable(Player player) {
-        return (!allied && canBeBribed(player) || canBeMindControlled(player));
+        return (!isAllied() && canBeBribed(player) || canBeMindControlled(player));
     }
 
     @Override
     public BattleStatistics getBattleStatistics() {
-        if (!allied)
+        if (!isAllied())
             return super.getBattleStatistics();
-        return new BattleStatistics(0, allyAttack, allyDefence, 1, 1);
+        return getAllyBuff();
     }
 }
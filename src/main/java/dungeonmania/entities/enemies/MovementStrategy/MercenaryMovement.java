@@ -1,19 +1,31 @@
 package dungeonmania.entities.enemies.MovementStrategy;
 
-import java.util.List;
 import java.util.Random;
-import java.util.stream.Collectors;
 
 import dungeonmania.entities.Entity;
 import dungeonmania.entities.Player;
 import dungeonmania.entities.collectables.potions.InvincibilityPotion;
 import dungeonmania.entities.collectables.potions.InvisibilityPotion;
 import dungeonmania.map.GameMap;
+import dungeonmania.map.PathStrategy;
 import dungeonmania.util.Position;
 
 import dungeonmania.entities.enemies.Mercenary;
 
 public class MercenaryMovement implements Movement {
+    private final PathStrategy pathStrategy;
+
+    public MercenaryMovement() {
+        this(PathStrategy.JUMP_POINT);
+    }
+
+    public MercenaryMovement(PathStrategy pathStrategy) {
+        this.pathStrategy = pathStrategy;
+    }
+
+    public PathStrategy getPathStrategy() {
+        return pathStrategy;
+    }
 
     public void move(GameMap map, Entity entity) {
         Mercenary ent = (Mercenary) entity;
@@ -21,26 +33,25 @@ public class MercenaryMovement implements Movement {
         Position nextPos;
         if (ent.isAllied()) {
             nextPos = ent.isAdjacentToPlayer() ? player.getPreviousDistinctPosition()
-                    : map.dijkstraPathFind(ent.getPosition(), player.getPosition(), ent);
+                    : map.followPath(ent.getPosition(), player.getPosition(), ent, pathStrategy);
             if (!ent.isAdjacentToPlayer() && Position.isAdjacent(player.getPosition(), nextPos))
                 ent.setIsAdjacentToPlayer(true);
         } else if (map.getPlayer().getEffectivePotion() instanceof InvisibilityPotion) {
             // Move random
             Random randGen = new Random();
-            List<Position> pos = ent.getPosition().getCardinallyAdjacentPositions();
-            pos = pos.stream().filter(p -> map.canMoveTo(ent, p)).collect(Collectors.toList());
-            if (pos.size() == 0) {
+            int count = countMoves(map, ent);
+            if (count == 0) {
                 nextPos = ent.getPosition();
                 map.moveTo(ent, nextPos);
             } else {
-                nextPos = pos.get(randGen.nextInt(pos.size()));
+                nextPos = nthMove(map, ent, randGen.nextInt(count));
                 map.moveTo(ent, nextPos);
             }
         } else if (map.getPlayer().getEffectivePotion() instanceof InvincibilityPotion) {
             nextPos = runAway(map, ent);
         } else {
             // Follow hostile
-            nextPos = map.dijkstraPathFind(ent.getPosition(), player.getPosition(), ent);
+            nextPos = map.findPath(ent.getPosition(), player.getPosition(), ent, pathStrategy);
         }
         map.moveTo(ent, nextPos);
     }
@@ -1,6 +1,7 @@
 package dungeonmania.entities.enemies.MovementStrategy;
 
 import dungeonmania.map.GameMap;
+import dungeonmania.map.PositionTable;
 import dungeonmania.util.Position;
 import dungeonmania.entities.Entity;
 import dungeonmania.util.Direction;
@@ -8,17 +9,42 @@ import dungeonmania.util.Direction;
 public interface Movement {
     public void move(GameMap map, Entity entity);
 
+    /**
+     * @return number of cardinally adjacent positions the entity can move to
+     */
+    public default int countMoves(GameMap map, Entity entity) {
+        int count = 0;
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            if (map.canMoveTo(entity, map.getPositions().cardinal(entity.getPosition(), i)))
+                count++;
+        }
+        return count;
+    }
+
+    /**
+     * @return the nth cardinally adjacent position the entity can move to
+     */
+    public default Position nthMove(GameMap map, Entity entity, int n) {
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            Position p = map.getPositions().cardinal(entity.getPosition(), i);
+            if (map.canMoveTo(entity, p) && n-- == 0)
+                return p;
+        }
+        return entity.getPosition();
+    }
+
     // enemies run away from INVINCIBLE player (Mercenary, ZombieToast)
     public default Position runAway(GameMap map, Entity entity) {
 
         Position position = entity.getPosition();
 
         Position plrDiff = Position.calculatePositionBetween(map.getPlayer().getPosition(), position);
+        PositionTable positions = map.getPositions();
 
-        Position moveX = (plrDiff.getX() >= 0) ? Position.translateBy(position, Direction.RIGHT)
-                : Position.translateBy(position, Direction.LEFT);
-        Position moveY = (plrDiff.getY() >= 0) ? Position.translateBy(position, Direction.UP)
-                : Position.translateBy(position, Direction.DOWN);
+        Position moveX = (plrDiff.getX() >= 0) ? positions.translate(position, Direction.RIGHT)
+                : positions.translate(position, Direction.LEFT);
+        Position moveY = (plrDiff.getY() >= 0) ? positions.translate(position, Direction.UP)
+                : positions.translate(position, Direction.DOWN);
         Position offset = position;
         if (plrDiff.getY() == 0 && map.canMoveTo(entity, moveX))
             offset = moveX;
@@ -4,15 +4,13 @@ import java.util.List;
 
 import dungeonmania.Game;
 import dungeonmania.entities.Entity;
+import dungeonmania.entities.EntityIdAllocator;
 import dungeonmania.entities.enemies.MovementStrategy.SpiderMovement;
 import dungeonmania.entities.enemies.MovementStrategy.Movement;
+import dungeonmania.map.GameMap;
 import dungeonmania.util.Position;
 
 public class Spider extends Enemy {
-    private List<Position> movementTrajectory;
-    private int nextPositionElement;
-    private boolean forward;
-
     public static final int DEFAULT_SPAWN_RATE = 0;
     public static final double DEFAULT_ATTACK = 5;
     public static final double DEFAULT_HEALTH = 10;
@@ -20,46 +18,54 @@ public class Spider extends Enemy {
     private Movement movement = new SpiderMovement();
 
     public Spider(Position position, double health, double attack) {
-        super(position.asLayer(Entity.DOOR_LAYER + 1), health, attack);
+        super(position.asLayer(Entity.DOOR_LAYER + 1), health, attack, EnemyStore.SPIDER);
         /**
          * Establish spider movement trajectory Spider moves as follows:
          *  8 1 2       10/12  1/9  2/8
          *  7 S 3       11     S    3/7
          *  6 5 4       B      5    4/6
+         * the trajectory is kept in the store as the position circled around
          */
-        movementTrajectory = position.getAdjacentPositions();
-        nextPositionElement = 1;
-        forward = true;
+        startTrajectory();
     };
 
+    private void startTrajectory() {
+        getStore().setFlag(getSlot(), EnemyStore.FORWARD, true);
+        getStore().advance(getSlot());
+    }
+
+    @Override
+    void respawn(Position position, double health, double attack, EntityIdAllocator ids) {
+        super.respawn(position, health, attack, ids);
+        startTrajectory();
+    }
+
     public List<Position> getMovementTrajectory() {
-        return movementTrajectory;
+        return getStore().origin(getSlot()).getAdjacentPositions();
     }
 
     public int getNextPositionElement() {
-        return nextPositionElement;
+        return getStore().getStep(getSlot());
+    }
+
+    public boolean isForward() {
+        return getStore().hasFlag(getSlot(), EnemyStore.FORWARD);
     }
 
     public void setForward() {
-        forward = !forward;
+        getStore().setFlag(getSlot(), EnemyStore.FORWARD, !isForward());
     }
 
     public void updateNextPosition() {
-        if (forward) {
-            nextPositionElement++;
-            if (nextPositionElement == 8) {
-                nextPositionElement = 0;
-            }
-        } else {
-            nextPositionElement--;
-            if (nextPositionElement == -1) {
-                nextPositionElement = 7;
-            }
-        }
+        getStore().advance(getSlot());
     }
 
     @Override
     public void move(Game game) {
-        movement.move(game.getMap(), this);
+        GameMap map = game.getMap();
+        if (map.takePlan(this))
+            getStore().commitMove(getSlot(), map);
+        else
+            movement.move(map, this);
     }
 }
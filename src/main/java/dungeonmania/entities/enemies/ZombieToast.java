@@ -1,9 +1,12 @@
 package dungeonmania.entities.enemies;
 
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import dungeonmania.Game;
+import dungeonmania.entities.EntityIdAllocator;
 
+import dungeonmania.map.GameMap;
 import dungeonmania.util.Position;
 
 import dungeonmania.entities.enemies.MovementStrategy.ZombieToastMovement;
@@ -12,20 +15,60 @@ import dungeonmania.entities.enemies.MovementStrategy.Movement;
 public class ZombieToast extends Enemy {
     public static final double DEFAULT_HEALTH = 5.0;
     public static final double DEFAULT_ATTACK = 6.0;
-    private Random randGen = new Random();
+    private transient Random randGen;
     private Movement movement = new ZombieToastMovement();
 
     public ZombieToast(Position position, double health, double attack) {
-        super(position, health, attack);
+        super(position, health, attack, EnemyStore.ZOMBIE);
+        getStore().setSeed(getSlot(), ThreadLocalRandom.current().nextLong());
     }
 
-    // getter for randGen
+    @Override
+    void respawn(Position position, double health, double attack, EntityIdAllocator ids) {
+        super.respawn(position, health, attack, ids);
+        getStore().setSeed(getSlot(), ThreadLocalRandom.current().nextLong());
+    }
+
+    // getter for randGen, a view of the generator kept in the store
     public Random getRandGen() {
+        if (randGen == null)
+            randGen = new StoredRandom(this);
         return this.randGen;
     }
 
+    Position runAway(GameMap map) {
+        return movement.runAway(map, this);
+    }
+
     @Override
     public void move(Game game) {
-        movement.move(game.getMap(), this);
+        GameMap map = game.getMap();
+        if (map.takePlan(this))
+            getStore().commitMove(getSlot(), map);
+        else
+            movement.move(map, this);
+    }
+
+    /**
+     * java.util.Random drawing from the zombie's generator in the store
+     */
+    private static final class StoredRandom extends Random {
+        private final ZombieToast zombie;
+
+        StoredRandom(ZombieToast zombie) {
+            this.zombie = zombie;
+        }
+
+        @Override
+        public synchronized void setSeed(long seed) {
+            // also called by the Random constructor, before the zombie is set
+            if (zombie != null)
+                zombie.getStore().setSeed(zombie.getSlot(), seed);
+        }
+
+        @Override
+        protected int next(int bits) {
+            return zombie.getStore().next(zombie.getSlot(), bits);
+        }
     }
 }
@@ -22,7 +22,7 @@ public class ZombieToastSpawner extends Entity implements Interactable, Destroye
     @Override
     public void onDestroy(GameMap map) {
         Game g = map.getGame();
-        g.unsubscribe(getId());
+        g.unsubscribe(getEntityId());
     }
 
     @Override
@@ -1,38 +1,25 @@
 package dungeonmania.entities.inventory;
 
-import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import dungeonmania.entities.EntityFactory;
-import dungeonmania.entities.inventory.recipe.*;;
+import dungeonmania.entities.inventory.recipe.*;
 
 public class Craft {
-    private Recipe recipe;
-    private List<String> recipeList = Arrays.asList("bow", "shield", "sceptre", "midnight_armour");
+    private Map<String, Recipe> recipes = new LinkedHashMap<>();
+    private List<String> recipeList;
 
-    public boolean validInventory(List<InventoryItem> items, String item) {
-        switch (item) {
-        case "bow":
-            recipe = new BowRecipe();
-            break;
-        case "sceptre":
-            recipe = new SceptreRecipe();
-            break;
-        case "midnight_armour":
-            recipe = new MidnightArmourRecipe();
-            break;
-        default:
-            recipe = new ShieldRecipe();
-        }
-        return recipe.checkIngredients(items);
+    public Craft() {
+        recipes.put("bow", new BowRecipe());
+        recipes.put("shield", new ShieldRecipe());
+        recipes.put("sceptre", new SceptreRecipe());
+        recipes.put("midnight_armour", new MidnightArmourRecipe());
+        recipeList = List.copyOf(recipes.keySet());
     }
 
-    public List<InventoryItem> removeIngredients(List<InventoryItem> items) {
-        return recipe.removeIngredients(items);
-    }
-
-    public InventoryItem craftItem(EntityFactory factory) {
-        return recipe.craftItem(factory);
+    public Recipe getRecipe(String item) {
+        return recipes.get(item);
     }
 
     public List<String> getRecipeList() {
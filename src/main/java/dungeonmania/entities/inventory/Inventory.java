@@ -1,59 +1,157 @@
 package dungeonmania.entities.inventory;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
+import dungeonmania.battles.BattleBuff;
+import dungeonmania.battles.BattleStatistics;
 import dungeonmania.entities.BattleItem;
 import dungeonmania.entities.Entity;
 import dungeonmania.entities.EntityFactory;
 import dungeonmania.entities.Player;
 import dungeonmania.entities.buildables.Bow;
 import dungeonmania.entities.collectables.Sword;
-
+import dungeonmania.entities.collectables.potions.Potion;
 import dungeonmania.entities.enemies.ZombieToast;
-
+import dungeonmania.entities.inventory.recipe.Ingredients;
+import dungeonmania.entities.inventory.recipe.Recipe;
 import dungeonmania.map.GameMap;
 
+/**
+ * Inventory -- items held by the player
+ *
+ * Items are indexed by id, and bucketed by their class so counting items of a
+ * type does not depend on the size of the inventory. Buildables are cached and
+ * only recomputed once the contents or the presence of zombies change. The
+ * battle items other than potions are kept apart with the total of their buffs.
+ */
 public class Inventory {
     private Craft crafter = new Craft();
-    private List<InventoryItem> items = new ArrayList<>();
+    private Map<Long, InventoryItem> items = new LinkedHashMap<>();
+    private Map<Class<?>, List<InventoryItem>> buckets = new LinkedHashMap<>();
+    // buckets holding items of each type queried, dropped whenever a bucket comes or goes
+    private Map<Class<?>, List<List<InventoryItem>>> matching = new HashMap<>();
+
+    private List<String> buildables = null;
+    private boolean zombiesPresent = false;
 
+    private List<BattleItem> equipment = new ArrayList<>();
+    private BattleBuff equipmentBuff = new BattleBuff();
+
+    /**
+     * @return false if the item is already held
+     */
     public boolean add(InventoryItem item) {
-        items.add(item);
+        if (items.putIfAbsent(((Entity) item).getEntityId(), item) != null)
+            return false;
+        List<InventoryItem> bucket = buckets.get(item.getClass());
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            buckets.put(item.getClass(), bucket);
+            matching.clear();
+        }
+        bucket.add(item);
+        buildables = null;
+        if (item instanceof BattleItem && !(item instanceof Potion)) {
+            equipment.add((BattleItem) item);
+            equipmentBuff.add(buffOf((BattleItem) item));
+        }
         return true;
     }
 
     public void remove(InventoryItem item) {
-        items.remove(item);
+        if (items.remove(((Entity) item).getEntityId()) == null)
+            return;
+        List<InventoryItem> bucket = buckets.get(item.getClass());
+        bucket.remove(item);
+        if (bucket.isEmpty()) {
+            buckets.remove(item.getClass());
+            matching.clear();
+        }
+        buildables = null;
+        if (equipment.remove(item))
+            equipmentBuff.remove(buffOf((BattleItem) item));
+    }
+
+    private static BattleStatistics buffOf(BattleItem item) {
+        return item.applyBuff(new BattleStatistics(0, 0, 0, 1, 1));
+    }
+
+    /**
+     * @return battle items used in battles when no potion is in effect, in the order they were added
+     */
+    public List<BattleItem> getEquipment() {
+        return equipment;
+    }
+
+    /**
+     * @return total of the buffs of the equipment
+     */
+    public BattleBuff getEquipmentBuff() {
+        return equipmentBuff;
     }
 
     public List<String> getBuildables(GameMap map) {
+        boolean zombies = map.countEntities(ZombieToast.class) > 0;
+        if (buildables == null || zombies != zombiesPresent) {
+            buildables = computeBuildables(zombies);
+            zombiesPresent = zombies;
+        }
+        return buildables;
+    }
 
+    private List<String> computeBuildables(boolean zombies) {
         List<String> result = new ArrayList<>();
-        for (String item: crafter.getRecipeList()) {
-            if (crafter.validInventory(items, item)) {
+        for (String item : crafter.getRecipeList()) {
+            if (crafter.getRecipe(item).findIngredients(this) != null)
                 result.add(item);
-            }
-        }
-
-        if (map.getEntities(ZombieToast.class).size() > 0) {
-            if (result.contains("midnight_armour"))
-                result.remove("midnight_armour");
         }
-        return result;
+        if (zombies)
+            result.remove("midnight_armour");
+        return List.copyOf(result);
     }
 
     public InventoryItem checkBuildCriteria(Player p, String item, EntityFactory factory) {
-        if (crafter.validInventory(items, item)) {
-            items = crafter.removeIngredients(items);
-            return crafter.craftItem(factory);
+        Recipe recipe = crafter.getRecipe(item);
+        Ingredients ingredients = (recipe == null) ? null : recipe.findIngredients(this);
+        if (ingredients == null)
+            return null;
+        ingredients.getConsumed().forEach((type, n) -> {
+            for (int i = 0; i < n; i++)
+                remove(getFirst(type));
+        });
+        return recipe.craftItem(factory);
+    }
+
+    /**
+     * @return buckets holding items of the given type
+     */
+    private List<List<InventoryItem>> bucketsOf(Class<?> itemType) {
+        List<List<InventoryItem>> found = matching.get(itemType);
+        if (found == null) {
+            found = new ArrayList<>();
+            for (Map.Entry<Class<?>, List<InventoryItem>> e : buckets.entrySet()) {
+                if (itemType.isAssignableFrom(e.getKey()))
+                    found.add(e.getValue());
+            }
+            matching.put(itemType, found);
         }
-        return null;
+        return found;
     }
 
     public <T extends InventoryItem> T getFirst(Class<T> itemType) {
-        for (InventoryItem item : items)
+        List<List<InventoryItem>> matching = bucketsOf(itemType);
+        if (matching.isEmpty())
+            return null;
+        if (matching.size() == 1)
+            return itemType.cast(matching.get(0).get(0));
+        // items of several classes, the earliest picked up comes first
+        for (InventoryItem item : items.values())
             if (itemType.isInstance(item))
                 return itemType.cast(item);
         return null;
@@ -61,25 +159,23 @@ public class Inventory {
 
     public <T extends InventoryItem> int count(Class<T> itemType) {
         int count = 0;
-        for (InventoryItem item : items)
-            if (itemType.isInstance(item))
-                count++;
+        for (List<InventoryItem> bucket : bucketsOf(itemType))
+            count += bucket.size();
         return count;
     }
 
-    public Entity getEntity(String itemUsedId) {
-        for (InventoryItem item : items)
-            if (((Entity) item).getId().equals(itemUsedId))
-                return (Entity) item;
-        return null;
+    public Entity getEntity(long itemUsedId) {
+        return (Entity) items.get(itemUsedId);
     }
 
     public List<Entity> getEntities() {
-        return items.stream().map(Entity.class::cast).collect(Collectors.toList());
+        return items.values().stream().map(Entity.class::cast).collect(Collectors.toList());
     }
 
     public <T> List<T> getEntities(Class<T> clz) {
-        return items.stream().filter(clz::isInstance).map(clz::cast).collect(Collectors.toList());
+        List<List<InventoryItem>> matching = bucketsOf(clz);
+        Collection<InventoryItem> source = (matching.size() == 1) ? matching.get(0) : items.values();
+        return source.stream().filter(clz::isInstance).map(clz::cast).collect(Collectors.toList());
     }
 
     public boolean hasWeapon() {
@@ -0,0 +1,41 @@
+package dungeonmania.entities.inventory.recipe;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dungeonmania.entities.inventory.Inventory;
+import dungeonmania.entities.inventory.InventoryItem;
+
+/**
+ * Ingredients -- a multiset of items a recipe needs
+ *
+ * Consumed items are removed from the inventory when building, while retained
+ * items only have to be held.
+ */
+public class Ingredients {
+    private Map<Class<? extends InventoryItem>, Integer> required = new LinkedHashMap<>();
+    private Map<Class<? extends InventoryItem>, Integer> consumed = new LinkedHashMap<>();
+
+    public Ingredients consume(Class<? extends InventoryItem> type, int count) {
+        required.merge(type, count, Integer::sum);
+        consumed.merge(type, count, Integer::sum);
+        return this;
+    }
+
+    public Ingredients retain(Class<? extends InventoryItem> type, int count) {
+        required.merge(type, count, Integer::sum);
+        return this;
+    }
+
+    public boolean isSatisfiedBy(Inventory inventory) {
+        for (Map.Entry<Class<? extends InventoryItem>, Integer> e : required.entrySet()) {
+            if (inventory.count(e.getKey()) < e.getValue())
+                return false;
+        }
+        return true;
+    }
+
+    public Map<Class<? extends InventoryItem>, Integer> getConsumed() {
+        return consumed;
+    }
+}
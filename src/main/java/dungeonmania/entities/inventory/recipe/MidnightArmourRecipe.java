@@ -7,21 +7,11 @@ import dungeonmania.entities.collectables.SunStone;
 import dungeonmania.entities.EntityFactory;
 
 public class MidnightArmourRecipe implements Recipe {
-    public boolean checkIngredients(List<InventoryItem> items) {
-        if (getItemsInInventory(SunStone.class, items).size() >= 1
-                && getItemsInInventory(Sword.class, items).size() >= 1) {
-            System.out.println("true ture nehimomo");
-            return true;
-        }
-        return false;
-    }
+    private final List<Ingredients> options = List.of(
+            new Ingredients().consume(Sword.class, 1).consume(SunStone.class, 1));
 
-    public List<InventoryItem> removeIngredients(List<InventoryItem> items) {
-        List<Sword> sword = getItemsInInventory(Sword.class, items);
-        List<SunStone> sunStone = getItemsInInventory(SunStone.class, items);
-        items.remove(sword.get(0));
-        items.remove(sunStone.get(0));
-        return items;
+    public List<Ingredients> getOptions() {
+        return options;
     }
 
     public InventoryItem craftItem(EntityFactory factory) {
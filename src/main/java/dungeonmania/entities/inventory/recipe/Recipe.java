@@ -1,19 +1,26 @@
 package dungeonmania.entities.inventory.recipe;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 import dungeonmania.entities.EntityFactory;
 import dungeonmania.entities.inventory.*;
 
 public interface Recipe {
-    public boolean checkIngredients(List<InventoryItem> items);
-
-    public List<InventoryItem> removeIngredients(List<InventoryItem> items);
+    /**
+     * @return the ingredients the item can be built from, in order of preference
+     */
+    public List<Ingredients> getOptions();
 
     public InventoryItem craftItem(EntityFactory factory);
 
-    public default <T> List<T> getItemsInInventory(Class<T> clz, List<InventoryItem> items) {
-        return items.stream().filter(clz::isInstance).map(clz::cast).collect(Collectors.toList());
+    /**
+     * @return the first option the inventory holds, or null if it cannot be built
+     */
+    public default Ingredients findIngredients(Inventory inventory) {
+        for (Ingredients option : getOptions()) {
+            if (option.isSatisfiedBy(inventory))
+                return option;
+        }
+        return null;
     }
 }
@@ -14,34 +14,14 @@ public class ShieldRecipe implements Recipe {
     private static final int KEY = 1;
     private static final int SUNSTONE = 1;
 
-    public boolean checkIngredients(List<InventoryItem> items) {
-        if (getItemsInInventory(Wood.class, items).size() >= WOOD
-                && (getItemsInInventory(Treasure.class, items).size() >= TREASURE
-                        || getItemsInInventory(Key.class, items).size() >= KEY
-                        || getItemsInInventory(SunStone.class, items).size() >= SUNSTONE)) {
-            return true;
-        }
-        return false;
-    }
-
-    public List<InventoryItem> removeIngredients(List<InventoryItem> items) {
-
-        List<Wood> woods = getItemsInInventory(Wood.class, items);
-        List<Treasure> treasure = getItemsInInventory(Treasure.class, items);
-        List<Key> key = getItemsInInventory(Key.class, items);
-        List<SunStone> sunstone = getItemsInInventory(SunStone.class, items);
-
-        items.remove(woods.get(0));
-        items.remove(woods.get(1));
-
-        if (sunstone.size() >= 1) {
-            return items;
-        } else if (treasure.size() >= 1) {
-            items.remove(treasure.get(0));
-        } else {
-            items.remove(key.get(0));
-        }
-        return items;
+    // a sun stone can stand in for the treasure or key, and is kept
+    private final List<Ingredients> options = List.of(
+            new Ingredients().consume(Wood.class, WOOD).retain(SunStone.class, SUNSTONE),
+            new Ingredients().consume(Wood.class, WOOD).consume(Treasure.class, TREASURE),
+            new Ingredients().consume(Wood.class, WOOD).consume(Key.class, KEY));
+
+    public List<Ingredients> getOptions() {
+        return options;
     }
 
     public InventoryItem craftItem(EntityFactory factory) {
@@ -0,0 +1,291 @@
+package dungeonmania.entities.logic;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import dungeonmania.entities.LogicalEntity;
+import dungeonmania.entities.Subscribable;
+import dungeonmania.entities.Switch;
+import dungeonmania.entities.Wire;
+import dungeonmania.map.GameMap;
+
+/**
+ * CircuitEngine -- evaluates the switch/wire/logical entity network of a map
+ *
+ * The wire graph (built from the subscriptions) is compiled into connected
+ * components with union-find. A component is powered while at least one
+ * activated switch touches it, so toggling a switch only updates a counter per
+ * component and per gate instead of walking every wire.
+ *
+ * Gates whose number of powered inputs changed are put on a worklist, which is
+ * drained once per tick by evaluate(). Any change in topology (an entity of the
+ * circuit destroyed or placed) marks the engine stale, and it is recompiled on
+ * the next evaluation.
+ */
+public class CircuitEngine implements Serializable {
+    private boolean stale = true;
+
+    // wires and switches
+    private Map<Wire, Integer> componentOf = new HashMap<>();
+    private Map<Switch, Integer> switchIndex = new HashMap<>();
+    private boolean[] switchOn = new boolean[0];
+    private int[][] switchComponents = new int[0][];
+    private int[][] switchGates = new int[0][];
+    private int[] poweredSources = new int[0];
+    private int[][] componentGates = new int[0][];
+
+    // gates
+    private List<LogicalEntity> gates = new ArrayList<>();
+    private int[] inputCount = new int[0];
+    private int[] activeInputs = new int[0];
+    private int[] previousInputs = new int[0];
+
+    // worklist of gates whose inputs changed since they were last evaluated
+    private boolean[] queued = new boolean[0];
+    private int[] worklist = new int[0];
+    private int head = 0;
+    private int size = 0;
+
+    /**
+     * Rebuild the circuit from the entities currently on the map.
+     * Activation counts seen by the gates at their last evaluation are kept,
+     * so a gate is only re-evaluated if its inputs actually changed.
+     */
+    public void compile(GameMap map) {
+        Map<LogicalEntity, Integer> previous = new HashMap<>();
+        for (int g = 0; g < gates.size(); g++) {
+            previous.put(gates.get(g), previousInputs[g]);
+        }
+
+        int components = compileWires(map.getEntities(Wire.class));
+        gates = map.getEntities(LogicalEntity.class);
+        List<Switch> switches = map.getEntities(Switch.class);
+        switchIndex = new HashMap<>();
+        for (int i = 0; i < switches.size(); i++) {
+            switchIndex.put(switches.get(i), i);
+        }
+
+        int gateCount = gates.size();
+        inputCount = new int[gateCount];
+        activeInputs = new int[gateCount];
+        previousInputs = new int[gateCount];
+        List<List<Integer>> gatesOfComponent = newBuckets(components);
+        List<List<Integer>> gatesOfSwitch = newBuckets(switches.size());
+        for (int g = 0; g < gateCount; g++) {
+            LogicalEntity gate = gates.get(g);
+            for (Subscribable s : gate.getSubs()) {
+                Integer c = componentOf.get(s);
+                Integer sw = switchIndex.get(s);
+                if (c != null) {
+                    gatesOfComponent.get(c).add(g);
+                    inputCount[g]++;
+                } else if (sw != null) {
+                    gatesOfSwitch.get(sw).add(g);
+                    inputCount[g]++;
+                }
+            }
+            previousInputs[g] = previous.getOrDefault(gate, 0);
+        }
+        componentGates = toArrays(gatesOfComponent);
+        switchGates = toArrays(gatesOfSwitch);
+
+        poweredSources = new int[components];
+        switchOn = new boolean[switches.size()];
+        switchComponents = new int[switches.size()][];
+        for (int i = 0; i < switches.size(); i++) {
+            Set<Integer> adjacent = new LinkedHashSet<>();
+            for (Subscribable s : switches.get(i).getSubs()) {
+                Integer c = componentOf.get(s);
+                if (c != null)
+                    adjacent.add(c);
+            }
+            switchComponents[i] = adjacent.stream().mapToInt(Integer::intValue).toArray();
+            switchOn[i] = switches.get(i).isActivated();
+            if (switchOn[i]) {
+                for (int c : switchComponents[i])
+                    poweredSources[c]++;
+                for (int g : switchGates[i])
+                    activeInputs[g]++;
+            }
+        }
+        for (int c = 0; c < components; c++) {
+            if (poweredSources[c] == 0)
+                continue;
+            for (int g : componentGates[c])
+                activeInputs[g]++;
+        }
+
+        queued = new boolean[gateCount];
+        worklist = new int[gateCount];
+        head = 0;
+        size = 0;
+        for (int g = 0; g < gateCount; g++) {
+            if (activeInputs[g] != previousInputs[g])
+                enqueue(g);
+        }
+        stale = false;
+    }
+
+    /**
+     * Label every wire with its connected component
+     * @return number of components
+     */
+    private int compileWires(List<Wire> wires) {
+        Map<Wire, Integer> wireIndex = new HashMap<>();
+        for (int i = 0; i < wires.size(); i++) {
+            wireIndex.put(wires.get(i), i);
+        }
+
+        int[] parent = new int[wires.size()];
+        for (int i = 0; i < parent.length; i++) {
+            parent[i] = i;
+        }
+        for (int i = 0; i < wires.size(); i++) {
+            for (Subscribable s : wires.get(i).getSubs()) {
+                Integer j = wireIndex.get(s);
+                if (j != null)
+                    union(parent, i, j);
+            }
+        }
+
+        int components = 0;
+        int[] label = new int[wires.size()];
+        componentOf = new HashMap<>();
+        for (int i = 0; i < wires.size(); i++) {
+            int root = find(parent, i);
+            if (root == i)
+                label[i] = components++;
+        }
+        for (int i = 0; i < wires.size(); i++) {
+            componentOf.put(wires.get(i), label[find(parent, i)]);
+        }
+        return components;
+    }
+
+    private static int find(int[] parent, int i) {
+        while (parent[i] != i) {
+            parent[i] = parent[parent[i]];
+            i = parent[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parent, int a, int b) {
+        int ra = find(parent, a);
+        int rb = find(parent, b);
+        if (ra == rb)
+            return;
+        // keep the smaller index as root so labels follow wire order
+        if (ra < rb)
+            parent[rb] = ra;
+        else
+            parent[ra] = rb;
+    }
+
+    private static List<List<Integer>> newBuckets(int n) {
+        List<List<Integer>> buckets = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        return buckets;
+    }
+
+    private static int[][] toArrays(List<List<Integer>> buckets) {
+        int[][] res = new int[buckets.size()][];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = buckets.get(i).stream().mapToInt(Integer::intValue).toArray();
+        }
+        return res;
+    }
+
+    /**
+     * Mark the circuit for recompilation, used when an entity of the
+     * circuit is added to or removed from the map
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Propagate the current state of a switch to the counters it feeds
+     */
+    public void updateSwitch(Switch s) {
+        if (stale)
+            return; // the next compile reads the switch state
+        Integer i = switchIndex.get(s);
+        if (i == null || switchOn[i] == s.isActivated())
+            return;
+        switchOn[i] = s.isActivated();
+        int delta = switchOn[i] ? 1 : -1;
+        for (int c : switchComponents[i]) {
+            boolean wasPowered = poweredSources[c] > 0;
+            poweredSources[c] += delta;
+            if (wasPowered != (poweredSources[c] > 0)) {
+                for (int g : componentGates[c])
+                    addInput(g, delta);
+            }
+        }
+        for (int g : switchGates[i])
+            addInput(g, delta);
+    }
+
+    private void addInput(int g, int delta) {
+        activeInputs[g] += delta;
+        enqueue(g);
+    }
+
+    private void enqueue(int g) {
+        if (queued[g])
+            return;
+        queued[g] = true;
+        worklist[(head + size) % worklist.length] = g;
+        size++;
+    }
+
+    private int poll() {
+        int g = worklist[head];
+        head = (head + 1) % worklist.length;
+        size--;
+        queued[g] = false;
+        return g;
+    }
+
+    /**
+     * Evaluate every gate whose inputs changed since its last evaluation.
+     * A gate may destroy part of the circuit (logical bombs), in which case
+     * the circuit is recompiled and the remaining changes are carried over.
+     */
+    public void evaluate(GameMap map) {
+        if (stale)
+            compile(map);
+        while (size > 0) {
+            int g = poll();
+            if (activeInputs[g] == previousInputs[g])
+                continue;
+            LogicalEntity gate = gates.get(g);
+            boolean activated = gate.getLogicType().checkCondition(activeInputs[g], inputCount[g],
+                    previousInputs[g]);
+            previousInputs[g] = activeInputs[g];
+            gate.updateActivationStatus(map, activated);
+            if (stale)
+                compile(map);
+        }
+    }
+
+    /**
+     * @return whether a wire is currently carrying power
+     */
+    public boolean isPowered(Wire wire) {
+        Integer c = componentOf.get(wire);
+        return c != null && poweredSources[c] > 0;
+    }
+
+    public int getComponentCount() {
+        return poweredSources.length;
+    }
+}
@@ -1,11 +1,8 @@
 package dungeonmania.entities.logic.logicType;
 
-import java.util.List;
-import dungeonmania.util.Position;
-
 public class LogicAND implements LogicType {
-    public boolean checkCondition(List<Position> pos, int srcCount, int initCount) {
-        if (pos.size() >= srcCount) {
+    public boolean checkCondition(int activeCount, int inputCount, int previousCount) {
+        if (activeCount >= inputCount) {
             return true;
         }
         return false;
@@ -1,11 +1,8 @@
 package dungeonmania.entities.logic.logicType;
 
-import java.util.List;
-import dungeonmania.util.Position;
-
 public class LogicCOAND implements LogicType {
-    public boolean checkCondition(List<Position> pos, int srcCount, int initCount) {
-        if (pos.size() >= srcCount && initCount == 0) {
+    public boolean checkCondition(int activeCount, int inputCount, int previousCount) {
+        if (activeCount >= inputCount && previousCount == 0) {
             return true;
         }
         return false;
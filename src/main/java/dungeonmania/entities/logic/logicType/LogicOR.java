@@ -1,11 +1,8 @@
 package dungeonmania.entities.logic.logicType;
 
-import java.util.List;
-import dungeonmania.util.Position;
-
 public class LogicOR implements LogicType {
-    public boolean checkCondition(List<Position> pos, int srcCount, int initCount) {
-        if (pos.size() >= 1) {
+    public boolean checkCondition(int activeCount, int inputCount, int previousCount) {
+        if (activeCount >= 1) {
             return true;
         }
         return false;
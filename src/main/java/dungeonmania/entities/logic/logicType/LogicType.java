@@ -1,8 +1,10 @@
 package dungeonmania.entities.logic.logicType;
 
-import java.util.List;
-import dungeonmania.util.Position;
-
 public interface LogicType {
-    public boolean checkCondition(List<Position> position, int subCount, int initCount);
+    /**
+     * @param activeCount number of adjacent inputs currently powered
+     * @param inputCount number of adjacent inputs (wires and switches)
+     * @param previousCount number of inputs powered at the previous evaluation
+     */
+    public boolean checkCondition(int activeCount, int inputCount, int previousCount);
 }
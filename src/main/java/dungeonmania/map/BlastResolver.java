@@ -0,0 +1,64 @@
+package dungeonmania.map;
+
+import java.util.ArrayDeque;
+import java.util.LinkedHashSet;
+import java.util.Queue;
+import java.util.Set;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.ExplosiveItem;
+import dungeonmania.entities.Player;
+import dungeonmania.util.Position;
+
+/**
+ * BlastResolver -- resolves an explosion and the chain it sets off
+ *
+ * Every entity caught in a blast is collected first. Armed bombs caught in a
+ * blast are queued and detonate as part of the same explosion. Once the chain
+ * is resolved, everything is destroyed in a single batch.
+ */
+public class BlastResolver {
+    private final GameMap map;
+    private final Set<Entity> destroyed = new LinkedHashSet<>();
+    private final Queue<ExplosiveItem> worklist = new ArrayDeque<>();
+
+    private BlastResolver(GameMap map) {
+        this.map = map;
+    }
+
+    public static void explode(GameMap map, ExplosiveItem bomb) {
+        Entity entity = (Entity) bomb;
+        // already gone, e.g. caught in the blast of a bomb triggered before it
+        if (!map.getEntities(entity.getPosition()).contains(entity))
+            return;
+        BlastResolver resolver = new BlastResolver(map);
+        resolver.destroyed.add(entity);
+        resolver.worklist.add(bomb);
+        resolver.resolve();
+    }
+
+    private void resolve() {
+        while (!worklist.isEmpty()) {
+            ExplosiveItem bomb = worklist.poll();
+            Position centre = ((Entity) bomb).getPosition();
+            int radius = bomb.getRadius();
+            // shared positions of the map, only tiles off its area are made on the fly
+            PositionTable positions = map.getPositions();
+            for (int i = centre.getX() - radius; i <= centre.getX() + radius; i++) {
+                for (int j = centre.getY() - radius; j <= centre.getY() + radius; j++) {
+                    collect(positions.get(i, j));
+                }
+            }
+        }
+        map.destroyEntities(destroyed);
+    }
+
+    private void collect(Position p) {
+        for (Entity e : map.getEntities(p)) {
+            if (e instanceof Player || !destroyed.add(e))
+                continue;
+            if (e instanceof ExplosiveItem && ((ExplosiveItem) e).isArmed())
+                worklist.add((ExplosiveItem) e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package dungeonmania.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.util.Position;
+
+/**
+ * DStarLiteSearch -- incremental path search for one entity following a target
+ *
+ * Keeps a search tree rooted at the target between calls (D* Lite). Each cell
+ * has its distance to the target (g) and a one step lookahead of it (rhs), and
+ * only cells where the two disagree are queued. Between two ticks:
+ *  - the follower moving only shifts the heuristic, through the key offset km
+ *  - the target moving is a change of the cost of reaching it, at its old and
+ *    new cell
+ *  - a cell whose passability changed (GameMap reports every entity added to
+ *    or removed from a cell) is a change of the edges into that cell
+ * and only the cells whose distance those changes affect are expanded again.
+ * A grown table keeps the tree, the cells it adds next to the old ones are
+ * updated as cells whose edges changed.
+ *
+ * Portals are not handled, GameMap falls back to a full search while the map
+ * has any. Like DijkstraSearch, positions outside the table are never expanded
+ * and targets further than MAX_DISTANCE are not followed.
+ */
+class DStarLiteSearch {
+    private static final int NONE = -1;
+    private static final int INF = Integer.MAX_VALUE / 4;
+    private static final byte UNKNOWN = 0;
+    private static final byte OPEN = 1;
+    private static final byte BLOCKED = 2;
+
+    private final GameMap map;
+    private PositionTable positions;
+    private final Entity entity;
+    private final Landmarks landmarks;
+    private int width;
+    private int height;
+    private int[] g;
+    private int[] rhs;
+    private byte[] passable;
+    // key each cell is queued with, queue entries with another key are stale
+    private long[] queuedKey1;
+    private long[] queuedKey2;
+    private boolean[] queued;
+    private final PriorityQueue<long[]> queue = new PriorityQueue<>(
+            (a, b) -> (a[0] != b[0]) ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+    private final List<Integer> changed = new ArrayList<>();
+    private int start = NONE;
+    private int goal = NONE;
+    private long km = 0;
+    private int expanded = 0;
+
+    DStarLiteSearch(GameMap map, PositionTable positions, Entity entity) {
+        this.map = map;
+        this.positions = positions;
+        this.entity = entity;
+        this.landmarks = map.getLandmarks(entity);
+        this.width = positions.getWidth();
+        this.height = positions.getHeight();
+        this.g = new int[positions.size()];
+        this.rhs = new int[positions.size()];
+        this.passable = new byte[positions.size()];
+        this.queuedKey1 = new long[positions.size()];
+        this.queuedKey2 = new long[positions.size()];
+        this.queued = new boolean[positions.size()];
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+    }
+
+    PositionTable getPositions() {
+        return positions;
+    }
+
+    /**
+     * Carry the search tree over to a table grown from the current one
+     */
+    void grow(PositionTable grown) {
+        PositionTable old = positions;
+        int[] oldG = g;
+        int[] oldRhs = rhs;
+        byte[] oldPassable = passable;
+        long[] oldKey1 = queuedKey1;
+        long[] oldKey2 = queuedKey2;
+        boolean[] oldQueued = queued;
+        positions = grown;
+        width = grown.getWidth();
+        height = grown.getHeight();
+        g = new int[grown.size()];
+        rhs = new int[grown.size()];
+        passable = new byte[grown.size()];
+        queuedKey1 = new long[grown.size()];
+        queuedKey2 = new long[grown.size()];
+        queued = new boolean[grown.size()];
+        Arrays.fill(g, INF);
+        Arrays.fill(rhs, INF);
+        for (int cell = 0; cell < oldG.length; cell++) {
+            int moved = grown.indexFrom(old, cell);
+            g[moved] = oldG[cell];
+            rhs[moved] = oldRhs[cell];
+            passable[moved] = oldPassable[cell];
+            queuedKey1[moved] = oldKey1[cell];
+            queuedKey2[moved] = oldKey2[cell];
+            queued[moved] = oldQueued[cell];
+        }
+        List<long[]> entries = new ArrayList<>(queue);
+        queue.clear();
+        for (long[] entry : entries) {
+            entry[2] = grown.indexFrom(old, (int) entry[2]);
+            queue.add(entry);
+        }
+        changed.replaceAll(cell -> grown.indexFrom(old, cell));
+        if (goal == NONE)
+            return;
+        start = grown.indexFrom(old, start);
+        goal = grown.indexFrom(old, goal);
+
+        // cells just outside the old table may now be reached through its border
+        int left = grown.indexFrom(old, 0) % width;
+        int top = grown.indexFrom(old, 0) / width;
+        for (int cell = 0; cell < oldG.length; cell++) {
+            int x = cell % old.getWidth();
+            int y = cell / old.getWidth();
+            if (x > 0 && y > 0 && x < old.getWidth() - 1 && y < old.getHeight() - 1)
+                continue;
+            int moved = grown.indexFrom(old, cell);
+            for (int i = 0; i < PositionTable.CARDINAL; i++) {
+                int n = neighbour(moved, i);
+                if (n == NONE)
+                    continue;
+                int nx = n % width - left;
+                int ny = n / width - top;
+                if (nx < 0 || ny < 0 || nx >= old.getWidth() || ny >= old.getHeight())
+                    updateVertex(n);
+            }
+        }
+    }
+
+    /**
+     * @return landmarks the heuristic was built on, the search must be dropped if they change
+     */
+    Landmarks getLandmarks() {
+        return landmarks;
+    }
+
+    /**
+     * @return number of cells expanded by the last search, the first one included
+     */
+    int getExpanded() {
+        return expanded;
+    }
+
+    /**
+     * Record that what can be passed at the position may have changed
+     */
+    void invalidate(Position p) {
+        int cell = positions.indexOf(p);
+        if (cell != NONE && passable[cell] != UNKNOWN)
+            changed.add(cell);
+    }
+
+    private boolean open(int cell) {
+        if (passable[cell] == UNKNOWN)
+            passable[cell] = map.canMoveTo(entity, positions.positionAt(cell)) ? OPEN : BLOCKED;
+        return passable[cell] == OPEN;
+    }
+
+    /**
+     * @param i 0 to PositionTable.CARDINAL - 1, in the order of PositionTable.cardinal
+     * @return the neighbouring cell, or NONE outside the table
+     */
+    private int neighbour(int cell, int i) {
+        int x = cell % width;
+        int y = cell / width;
+        switch (i) {
+        case 0:
+            return (y > 0) ? cell - width : NONE;
+        case 1:
+            return (x < width - 1) ? cell + 1 : NONE;
+        case 2:
+            return (y < height - 1) ? cell + width : NONE;
+        default:
+            return (x > 0) ? cell - 1 : NONE;
+        }
+    }
+
+    private int cost(int to) {
+        return open(to) ? map.getWeight(positions.positionAt(to)) : INF;
+    }
+
+    private int heuristic(int a, int b) {
+        if (landmarks != null)
+            return landmarks.estimate(positions.positionAt(a), positions.positionAt(b));
+        return Math.abs(a % width - b % width) + Math.abs(a / width - b / width);
+    }
+
+    private long key1(int cell) {
+        return (long) Math.min(g[cell], rhs[cell]) + heuristic(start, cell) + km;
+    }
+
+    private long key2(int cell) {
+        return Math.min(g[cell], rhs[cell]);
+    }
+
+    private boolean less(long a1, long a2, long b1, long b2) {
+        return a1 < b1 || (a1 == b1 && a2 < b2);
+    }
+
+    private void enqueue(int cell) {
+        queued[cell] = true;
+        queuedKey1[cell] = key1(cell);
+        queuedKey2[cell] = key2(cell);
+        queue.add(new long[] {queuedKey1[cell], queuedKey2[cell], cell});
+    }
+
+    /**
+     * @return the top of the queue, dropping the stale entries above it
+     */
+    private long[] top() {
+        while (!queue.isEmpty()) {
+            long[] top = queue.peek();
+            int cell = (int) top[2];
+            if (queued[cell] && queuedKey1[cell] == top[0] && queuedKey2[cell] == top[1])
+                return top;
+            queue.poll();
+        }
+        return null;
+    }
+
+    private void updateVertex(int cell) {
+        if (cell != goal) {
+            int best = INF;
+            for (int i = 0; i < PositionTable.CARDINAL; i++) {
+                int n = neighbour(cell, i);
+                if (n != NONE && g[n] < INF)
+                    best = Math.min(best, cost(n) + g[n]);
+            }
+            rhs[cell] = Math.min(best, INF);
+        }
+        queued[cell] = false;
+        if (g[cell] != rhs[cell])
+            enqueue(cell);
+    }
+
+    private void updateNeighbours(int cell) {
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            int n = neighbour(cell, i);
+            if (n != NONE)
+                updateVertex(n);
+        }
+    }
+
+    private void computeShortestPath() {
+        long[] top = top();
+        while (top != null && (less(top[0], top[1], key1(start), key2(start)) || rhs[start] != g[start])) {
+            int cell = (int) top[2];
+            expanded++;
+            if (less(top[0], top[1], key1(cell), key2(cell))) {
+                queue.poll();
+                enqueue(cell);
+            } else if (g[cell] > rhs[cell]) {
+                g[cell] = rhs[cell];
+                queue.poll();
+                queued[cell] = false;
+                updateNeighbours(cell);
+            } else {
+                g[cell] = INF;
+                updateVertex(cell);
+                updateNeighbours(cell);
+            }
+            top = top();
+        }
+    }
+
+    /**
+     * @return next position from src towards dest, or src if dest cannot be reached
+     */
+    Position find(Position src, Position dest) {
+        expanded = 0;
+        int s = positions.indexOf(src);
+        int d = positions.indexOf(dest);
+        if (s == d)
+            return src;
+
+        if (goal == NONE) {
+            start = s;
+            goal = d;
+            rhs[goal] = 0;
+            enqueue(goal);
+        } else {
+            km += heuristic(start, s);
+            start = s;
+            if (goal != d) {
+                int previous = goal;
+                goal = d;
+                rhs[goal] = 0;
+                updateVertex(goal);
+                updateVertex(previous);
+            }
+        }
+        for (int cell : changed) {
+            byte before = passable[cell];
+            passable[cell] = UNKNOWN;
+            if (before != UNKNOWN && open(cell) == (before == OPEN))
+                continue;
+            updateVertex(cell);
+            updateNeighbours(cell);
+        }
+        changed.clear();
+
+        computeShortestPath();
+        if (rhs[start] >= INF || rhs[start] > DijkstraSearch.MAX_DISTANCE)
+            return src;
+        int next = NONE;
+        int best = INF;
+        for (int i = 0; i < PositionTable.CARDINAL; i++) {
+            int n = neighbour(start, i);
+            if (n == NONE || g[n] >= INF || !open(n))
+                continue;
+            if (cost(n) + g[n] < best) {
+                best = cost(n) + g[n];
+                next = n;
+            }
+        }
+        return (next == NONE) ? src : positions.positionAt(next);
+    }
+}
@@ -0,0 +1,166 @@
+package dungeonmania.map;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Portal;
+import dungeonmania.util.Position;
+
+/**
+ * DijkstraSearch -- shortest path search over the positions of a PositionTable
+ *
+ * Distances and predecessors are kept in arrays indexed like the table, and
+ * reused between searches. An entry is only valid if its stamp matches the
+ * current search, so nothing has to be cleared in between. The queue holds
+ * cells, an entry is stale once its cell was reached by a shorter path.
+ *
+ * Positions outside the table are never expanded. The table covers the map
+ * with a margin, and any path leaving it can be pulled back onto the margin
+ * without getting longer, so this does not change the distances found.
+ */
+class DijkstraSearch {
+    static final int MAX_DISTANCE = 200;
+    private static final int NONE = -1;
+
+    private final GameMap map;
+    private PositionTable positions;
+    private int width;
+    private int height;
+    private int[] dist;
+    private int[] prev;
+    private int[] reached;
+    private int[] visited;
+    private int stamp = 0;
+    private int expanded = 0;
+
+    DijkstraSearch(GameMap map, PositionTable positions) {
+        this.map = map;
+        grow(positions);
+    }
+
+    PositionTable getPositions() {
+        return positions;
+    }
+
+    /**
+     * Search over a table grown from the current one, the scratch arrays start
+     * out empty as they would between two searches
+     */
+    void grow(PositionTable grown) {
+        this.positions = grown;
+        this.width = grown.getWidth();
+        this.height = grown.getHeight();
+        this.dist = new int[grown.size()];
+        this.prev = new int[grown.size()];
+        this.reached = new int[grown.size()];
+        this.visited = new int[grown.size()];
+    }
+
+    /**
+     * @return number of positions expanded by the last search
+     */
+    int getExpanded() {
+        return expanded;
+    }
+
+    private int distOf(int i) {
+        return (reached[i] == stamp) ? dist[i] : Integer.MAX_VALUE;
+    }
+
+    private int prevOf(int i) {
+        return (reached[i] == stamp) ? prev[i] : NONE;
+    }
+
+    private void reach(int i, int d, int p) {
+        reached[i] = stamp;
+        dist[i] = d;
+        prev[i] = p;
+    }
+
+    Position find(Position src, Position dest, Entity entity) {
+        stamp++;
+        expanded = 0;
+        int s = positions.indexOf(src);
+        int d = positions.indexOf(dest);
+        reach(s, 0, NONE);
+
+        // entries are {distance, cell}
+        PriorityQueue<int[]> q = new PriorityQueue<>((x, y) -> Integer.compare(x[0], y[0]));
+        q.add(new int[] {0, s});
+
+        while (!q.isEmpty()) {
+            int[] top = q.poll();
+            int c = top[1];
+            if (top[0] != dist[c] || visited[c] == stamp)
+                continue;
+            if (c == d || dist[c] > MAX_DISTANCE)
+                break;
+            // check portal
+            Portal portal = portalAt(positions.positionAt(c));
+            if (portal != null) {
+                List<Position> teleportDest = portal.getDestPositions(map, entity);
+                for (Position p : teleportDest) {
+                    int t = positions.indexOf(p);
+                    if (t == NONE || visited[t] == stamp)
+                        continue;
+                    reach(t, dist[c], prev[c]);
+                    q.add(new int[] {dist[c], t});
+                }
+                continue;
+            }
+            visited[c] = stamp;
+            expanded++;
+            for (int i = 0; i < PositionTable.CARDINAL; i++) {
+                int ni = neighbour(c, i);
+                if (ni == NONE || visited[ni] == stamp)
+                    continue;
+                Position n = positions.positionAt(ni);
+                if (!map.canMoveTo(entity, n))
+                    continue;
+                int newDist = dist[c] + map.getWeight(n);
+                if (newDist < distOf(ni)) {
+                    reach(ni, newDist, c);
+                    q.add(new int[] {newDist, ni});
+                }
+            }
+        }
+
+        if (prevOf(d) == NONE || d == s)
+            return src;
+        int ret = d;
+        while (prev[ret] != s) {
+            if (prev[ret] == NONE)
+                return src;
+            ret = prev[ret];
+        }
+        return positions.positionAt(ret);
+    }
+
+    /**
+     * @param i 0 to PositionTable.CARDINAL - 1, in the order of PositionTable.cardinal
+     * @return the neighbouring cell, or NONE outside the table
+     */
+    private int neighbour(int cell, int i) {
+        int x = cell % width;
+        int y = cell / width;
+        switch (i) {
+        case 0:
+            return (y > 0) ? cell - width : NONE;
+        case 1:
+            return (x < width - 1) ? cell + 1 : NONE;
+        case 2:
+            return (y < height - 1) ? cell + width : NONE;
+        default:
+            return (x > 0) ? cell - 1 : NONE;
+        }
+    }
+
+    private Portal portalAt(Position p) {
+        for (Entity e : map.getEntities(p)) {
+            if (e instanceof Portal)
+                return (Portal) e;
+        }
+        return null;
+    }
+}
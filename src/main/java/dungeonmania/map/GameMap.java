@@ -2,15 +2,19 @@ package dungeonmania.map;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import dungeonmania.Game;
 import dungeonmania.entities.DestroyedBehaviour;
 import dungeonmania.entities.Entity;
+import dungeonmania.entities.EntityIdAllocator;
 import dungeonmania.entities.MovedAwayBehaviour;
 import dungeonmania.entities.OverlapBehaviour;
 import dungeonmania.entities.Player;
@@ -23,8 +27,14 @@ import dungeonmania.entities.collectables.Bomb;
 import dungeonmania.entities.collectables.LogicalBomb;
 import dungeonmania.entities.enemies.Enemy;
 import dungeonmania.entities.enemies.ZombieToastSpawner;
+import dungeonmania.entities.enemies.EnemyStore;
+import dungeonmania.entities.logic.CircuitEngine;
+import dungeonmania.metrics.Metrics;
+import dungeonmania.metrics.PathfindEvent;
 import dungeonmania.util.Direction;
 import dungeonmania.util.Position;
+import dungeonmania.util.NameConverter;
+import dungeonmania.util.Trace;
 import dungeonmania.entities.inventory.InventoryItem;
 import dungeonmania.entities.ExplosiveItem;
 import dungeonmania.entities.LightBulb;
@@ -32,15 +42,123 @@ import dungeonmania.entities.LightBulb;
 
 public class GameMap implements Serializable {
     private Game game;
+    // terrain shared with the other games of the dungeon, and what this game destroyed of it
+    private StaticLayer terrain = StaticLayer.EMPTY;
+    private Set<Entity> destroyedTerrain = new HashSet<>();
+    // every other entity
     private Map<Position, GraphNode> nodes = new HashMap<>();
+    // entities of the nodes by id, for the lookups of the controller
+    private Map<Long, Entity> entitiesById = new HashMap<>();
     private Player player;
+    private CircuitEngine circuit = new CircuitEngine();
+    // shared positions for the map area, and scratch space for path finding
+    private static final int POSITION_MARGIN = 4;
+    private transient PositionTable positions;
+    private transient DijkstraSearch search;
+    private transient JumpPointSearch jumpSearch;
+    // maps larger than this are searched through clusters, with one search per class of mover
+    private static final int HIERARCHICAL_AREA = 256 * 256;
+    private transient Map<Class<?>, HierarchicalSearch> hierarchies;
+    // connected components of the passable positions, by class of mover
+    private transient Map<Class<?>, ReachabilityIndex> reachability;
+    // searches kept from tick to tick by the entities following the player
+    private transient Map<Entity, DStarLiteSearch> followers;
+    // state of the enemies on the map, by column
+    private EnemyStore enemyStore = new EnemyStore();
+    // enemies worth planning their moves in parallel, and the positions whose
+    // contents changed since the moves of the current tick were planned
+    private static final int PARALLEL_PLANS = 64;
+    private boolean planMoves = true;
+    private transient Set<Position> changedSincePlan;
+    // number of entities on the map, by class
+    private Map<Class<?>, Integer> entityCounts = new HashMap<>();
+    // what the entities of each class do when another moves onto or away from them
+    private static final int OVERLAP = 1;
+    private static final int MOVED_AWAY = 2;
+    private static final int EXPLOSIVE = 4;
+    private static final int COLLECTABLE = 8;
+    private static final ClassValue<Integer> HANDLERS = new ClassValue<>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            int handlers = 0;
+            if (OverlapBehaviour.class.isAssignableFrom(type))
+                handlers |= OVERLAP;
+            if (MovedAwayBehaviour.class.isAssignableFrom(type))
+                handlers |= MOVED_AWAY;
+            if (ExplosiveItem.class.isAssignableFrom(type))
+                handlers |= EXPLOSIVE;
+            if (InventoryItem.class.isAssignableFrom(type))
+                handlers |= COLLECTABLE;
+            return handlers;
+        }
+    };
+    // empty nodes left by moves, reused by the next ones
+    private static final int FREE_NODES = 16;
+    private transient GraphNode[] freeNodes;
+    private transient int freeNodeCount;
+    // callbacks of the moves being dispatched, as a stack: a callback moving an
+    // entity again collects and runs its own above the ones of the outer move
+    private static final int PENDING_CAPACITY = 16;
+    private static final byte RUN_MOVED_AWAY = 0;
+    private static final byte RUN_DESTROY = 1;
+    private static final byte RUN_OVERLAP = 2;
+    private transient Entity[] pending;
+    private transient byte[] pendingActions;
+    private transient int pendingTop;
 
+    /**
+     * @return nodes of the entities owned by this map, without the shared terrain
+     */
     public Map<Position, GraphNode> getGraphNode() {
         return this.nodes;
     }
 
+    /**
+     * Share the terrain of the dungeon, which is not added to the nodes
+     */
+    public void setTerrain(StaticLayer terrain) {
+        this.terrain.getCounts().forEach((type, n) -> entityCounts.merge(type, -n, Integer::sum));
+        this.terrain = terrain;
+        this.destroyedTerrain = new HashSet<>();
+        terrain.getCounts().forEach((type, n) -> entityCounts.merge(type, n, Integer::sum));
+        positions = null;
+    }
+
+    public StaticLayer getTerrain() {
+        return terrain;
+    }
+
+    private List<Position> occupiedPositions() {
+        List<Position> occupied = new ArrayList<>(nodes.keySet());
+        occupied.addAll(terrain.getExtent());
+        return occupied;
+    }
+
+    private boolean isOccupied(Position p) {
+        return nodes.containsKey(p) || !getTerrain(p).isEmpty();
+    }
+
+    /**
+     * @return the terrain at the position that was not destroyed in this game
+     */
+    private List<Entity> getTerrain(Position p) {
+        List<Entity> fixed = terrain.getEntities(p);
+        if (destroyedTerrain.isEmpty() || fixed.isEmpty())
+            return fixed;
+        List<Entity> remaining = new ArrayList<>(fixed);
+        remaining.removeAll(destroyedTerrain);
+        return remaining;
+    }
+
     public void setMapNode(Map<Position, GraphNode> mapNode) {
         this.nodes = mapNode;
+        entitiesById = new HashMap<>();
+        mapNode.values().forEach(n -> n.getEntities().forEach(e -> entitiesById.put(e.getEntityId(), e)));
+        hierarchies = null;
+        reachability = null;
+        followers = null;
+        entityCounts = new HashMap<>();
+        getEntities().forEach(e -> entityCounts.merge(e.getClass(), 1, Integer::sum));
     }
 
     /**
@@ -49,13 +167,16 @@ public class GameMap implements Serializable {
      * 2. register all movables
      * 3. register all spawners
      * 4. register bombs and switches
-     * 5. more...
+     * 5. compile the circuits
+     * 6. more...
      */
     public void init() {
+        positions = PositionTable.around(occupiedPositions(), POSITION_MARGIN);
         initPairPortals();
         initRegisterMovables();
         initRegisterSpawners();
         initAllSubscribables();
+        initCircuit();
     }
 
     private void initAllSubscribables() {
@@ -79,13 +200,21 @@ public class GameMap implements Serializable {
         initSubscribables(Wire.class, Wire.class);
     }
 
+    /**
+     * Subscribe every entity of type1 to the entities of type2 on its four
+     * cardinally adjacent tiles (and the other way round)
+     */
     private <S1 extends Entity, S2 extends Entity> void initSubscribables(Class<S1> type1, Class<S2> type2) {
-        List<Subscribable> subs1 = getEntities(type1, Subscribable.class);
-        List<Subscribable> subs2 = getEntities(type2, Subscribable.class);
-        for (Subscribable s1 : subs1) {
-            for (Subscribable s2 : subs2) {
-                if (Position.isAdjacent(s1.getPosition(), s2.getPosition())
-                && !s1.getPosition().equals(s2.getPosition())) {
+        for (S1 e1 : getEntities(type1)) {
+            Subscribable s1 = (Subscribable) e1;
+            for (int i = 0; i < PositionTable.CARDINAL; i++) {
+                GraphNode node = nodes.get(getPositions().cardinal(e1.getPosition(), i));
+                if (node == null)
+                    continue;
+                for (Entity e2 : node.getEntities()) {
+                    if (!type2.isInstance(e2))
+                        continue;
+                    Subscribable s2 = (Subscribable) e2;
                     s1.subscribe(s2);
                     s2.subscribe(s1);
                 }
@@ -93,6 +222,11 @@ public class GameMap implements Serializable {
         }
     }
 
+    private void initCircuit() {
+        circuit.compile(this);
+        game.register(() -> circuit.evaluate(this), Game.PLAYER_MOVEMENT_CALLBACK, "circuitEvaluation");
+    }
+
     // Pair up portals if there's any
     private void initPairPortals() {
         Map<String, Portal> portalsMap = new HashMap<>();
@@ -111,14 +245,14 @@ public class GameMap implements Serializable {
     private void initRegisterMovables() {
         List<Enemy> enemies = getEntities(Enemy.class);
         enemies.forEach(e -> {
-            game.register(() -> e.move(game), Game.AI_MOVEMENT, e.getId());
+            game.register(e.getMover(game), Game.AI_MOVEMENT, e.getEntityId(), NameConverter.toSnakeCase(e));
         });
     }
 
     private void initRegisterSpawners() {
         List<ZombieToastSpawner> zts = getEntities(ZombieToastSpawner.class);
         zts.forEach(e -> {
-            game.register(() -> e.spawn(game), Game.AI_MOVEMENT, e.getId());
+            game.register(() -> e.spawn(game), Game.AI_MOVEMENT, e.getEntityId(), NameConverter.toSnakeCase(e));
         });
         game.register(() -> game.getEntityFactory().spawnSpider(game), Game.AI_MOVEMENT, "spawnSpiders");
     }
@@ -128,153 +262,457 @@ public class GameMap implements Serializable {
             return;
         }
 
+        long start = System.nanoTime();
         triggerMovingAwayEvent(entity);
-        removeNode(entity);
-        entity.setPosition(position);
-        addEntity(entity);
+        relocate(entity, position);
         triggerOverlapEvent(entity);
+        Metrics.ENGINE.recordSince("move_dispatch", start);
     }
 
     public void moveTo(Entity entity, Direction direction) {
-        if (!canMoveTo(entity, Position.translateBy(entity.getPosition(), direction)))
+        // positions of the table are on layer 0, the mover stays on its own layer
+        Position next = getPositions().translate(entity.getPosition(), direction);
+        int layer = entity.getPosition().getLayer();
+        moveTo(entity, (next.getLayer() == layer) ? next : next.asLayer(layer));
+    }
+
+    /**
+     * Move an entity between the nodes of the map. A node left empty is removed as
+     * removeNode does, and kept for the next position an entity steps onto alone,
+     * and the entity counts are left as they are.
+     */
+    private void relocate(Entity entity, Position position) {
+        Position from = entity.getPosition();
+        GraphNode node = nodes.get(from);
+        if (node == null || !node.removeEntity(entity)) {
+            // not in a node of this map
+            removeNode(entity);
+            entity.setPosition(position);
+            addEntity(entity);
             return;
-        triggerMovingAwayEvent(entity);
-        removeNode(entity);
-        entity.translate(direction);
-        addEntity(entity);
-        triggerOverlapEvent(entity);
+        }
+        invalidatePassability(entity, from);
+        if (node.size() == 0) {
+            nodes.remove(from);
+            if (freeNodes == null)
+                freeNodes = new GraphNode[FREE_NODES];
+            if (freeNodeCount < FREE_NODES)
+                freeNodes[freeNodeCount++] = node;
+        }
+        entity.setPosition(position);
+        Position to = entity.getPosition();
+        GraphNode target = nodes.get(to);
+        if (target == null && freeNodeCount > 0)
+            nodes.put(to, freeNodes[--freeNodeCount].reuse(entity));
+        else if (target == null)
+            nodes.put(to, new GraphNode(entity));
+        else
+            target.addEntity(entity);
+        invalidatePassability(entity, to);
     }
 
-    private void triggerMovingAwayEvent(Entity entity) {
-        List<Runnable> callbacks = new ArrayList<>();
-        getEntities(entity.getPosition()).forEach(e -> {
-            if (e != entity && e instanceof MovedAwayBehaviour) {
-                MovedAwayBehaviour ent = (MovedAwayBehaviour) e;
-                callbacks.add(() -> ent.onMovedAway(this, entity));
-            }
-        });
-        callbacks.forEach(callback -> {
-            callback.run();
-        });
+    private static int handlers(Entity entity) {
+        return HANDLERS.get(entity.getClass());
     }
 
-    private void triggerOverlapEvent(Entity entity) {
-        List<Runnable> overlapCallbacks = new ArrayList<>();
-        getEntities(entity.getPosition()).forEach(e -> {
-            System.out.println("woi");
-
-            if (e != entity) {
-                // only Player can collect collectables
-                if (entity instanceof Player) {
-                    handleOverlap(overlapCallbacks, entity, e);
-                }
-                // Player, Zombie, etc can interact with non-collectables
-                if (e instanceof OverlapBehaviour) {
-                    System.out.println("this of type " + e.getClass());
-                    OverlapBehaviour ent = (OverlapBehaviour) e;
-                    overlapCallbacks.add(() -> ent.onOverlap(this, entity));
+    /**
+     * Push a callback for the dispatch under way, growing the buffers if needed
+     */
+    private void pushPending(Entity entity, byte action) {
+        if (pending == null) {
+            pending = new Entity[PENDING_CAPACITY];
+            pendingActions = new byte[PENDING_CAPACITY];
+        } else if (pendingTop == pending.length) {
+            pending = Arrays.copyOf(pending, pendingTop * 2);
+            pendingActions = Arrays.copyOf(pendingActions, pendingTop * 2);
+        }
+        pending[pendingTop] = entity;
+        pendingActions[pendingTop++] = action;
+    }
+
+    /**
+     * Run the callbacks pushed since base, in order. A callback moving an entity
+     * again pushes its own above them and pops them before returning.
+     */
+    private void runPending(int base, Entity mover) {
+        int top = pendingTop;
+        if (top == base)
+            return;
+        try {
+            for (int i = base; i < top; i++) {
+                Entity e = pending[i];
+                switch (pendingActions[i]) {
+                case RUN_MOVED_AWAY:
+                    ((MovedAwayBehaviour) e).onMovedAway(this, mover);
+                    break;
+                case RUN_DESTROY:
+                    destroyEntity(e);
+                    break;
+                default:
+                    ((OverlapBehaviour) e).onOverlap(this, mover);
                 }
             }
-        });
-        overlapCallbacks.forEach(callback -> {
-            callback.run();
-        });
+        } finally {
+            Arrays.fill(pending, base, top, null);
+            pendingTop = base;
+        }
     }
 
-    public void handleOverlap(List<Runnable> overlapCallbacks, Entity mover, Entity item) {
-        if (item instanceof ExplosiveItem) {
-            handleOverlapExplosive(overlapCallbacks, mover, item);
-        } else if (item instanceof InventoryItem) {
-            handleOverlapInventory(overlapCallbacks, mover, item);
+    private void triggerMovingAwayEvent(Entity entity) {
+        int base = pendingTop;
+        Position p = entity.getPosition();
+        collectMovedAway(terrain.getEntities(p), entity);
+        GraphNode node = nodes.get(p);
+        if (node != null)
+            collectMovedAway(node.getEntities(), entity);
+        runPending(base, entity);
+    }
+
+    private void collectMovedAway(List<Entity> entities, Entity mover) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity e = entities.get(i);
+            if (e != mover && (handlers(e) & MOVED_AWAY) != 0 && !isDestroyedTerrain(e))
+                pushPending(e, RUN_MOVED_AWAY);
+        }
+    }
+
+    private void triggerOverlapEvent(Entity entity) {
+        int base = pendingTop;
+        Position p = entity.getPosition();
+        collectOverlap(terrain.getEntities(p), entity);
+        GraphNode node = nodes.get(p);
+        if (node != null)
+            collectOverlap(node.getEntities(), entity);
+        runPending(base, entity);
+    }
+
+    private void collectOverlap(List<Entity> entities, Entity mover) {
+        for (int i = 0; i < entities.size(); i++) {
+            Entity e = entities.get(i);
+            if (e == mover || isDestroyedTerrain(e))
+                continue;
+            int handlers = handlers(e);
+            // only Player can collect collectables
+            if (mover instanceof Player) {
+                if ((handlers & EXPLOSIVE) != 0)
+                    collectExplosive((Player) mover, e);
+                else if ((handlers & COLLECTABLE) != 0)
+                    collectItem((Player) mover, e);
+            }
+            // Player, Zombie, etc can interact with non-collectables
+            if ((handlers & OVERLAP) != 0) {
+                if (Trace.ENABLED)
+                    Trace.event("overlap", "%s overlaps %s", mover.getClass().getSimpleName(),
+                            e.getClass().getSimpleName());
+                pushPending(e, RUN_OVERLAP);
+            }
         }
     }
 
-    public void handleOverlapExplosive(List<Runnable> overlapCallbacks, Entity mover, Entity item) {
+    private boolean isDestroyedTerrain(Entity entity) {
+        return !destroyedTerrain.isEmpty() && destroyedTerrain.contains(entity);
+    }
+
+    private void collectExplosive(Player player, Entity item) {
         Bomb b = (Bomb) item;
         if (b.getState() != Bomb.State.SPAWNED) {
             return;
         }
 
-        Player p = (Player) mover;
-        if (p.pickUp(b)) {
+        if (player.pickUp(b)) {
             b.getSubs().stream().forEach(s -> s.unsubscribe(b));
             b.unsubscribeAll();
-            overlapCallbacks.add(() -> this.destroyEntity(b));
+            pushPending(b, RUN_DESTROY);
         }
     }
 
-    public void handleOverlapInventory(List<Runnable> overlapCallbacks, Entity mover, Entity item) {
-        Player p = (Player) mover;
-        if (p.pickUp(item)) {
-            overlapCallbacks.add(() -> this.destroyEntity(item));
+    private void collectItem(Player player, Entity item) {
+        if (player.pickUp(item)) {
+            pushPending(item, RUN_DESTROY);
         }
     }
 
     public boolean canMoveTo(Entity entity, Position position) {
-        return !nodes.containsKey(position) || nodes.get(position).canMoveOnto(this, entity);
+        if (!terrain.canMoveOnto(this, position, entity, destroyedTerrain))
+            return false;
+        GraphNode node = nodes.get(position);
+        return node == null || node.canMoveOnto(this, entity);
+    }
+
+    /**
+     * @return whether the entity could move onto the position, if no enemy or player stood on it
+     */
+    public boolean canPassThrough(Entity entity, Position position) {
+        if (!terrain.canMoveOnto(this, position, entity, destroyedTerrain))
+            return false;
+        GraphNode node = nodes.get(position);
+        if (node == null)
+            return true;
+        for (Entity e : node.getEntities()) {
+            if (!(e instanceof Enemy) && !(e instanceof Player) && !e.canMoveOnto(this, entity))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Tell the path finding that what can be passed at the position may have changed,
+     * used when a door opens or closes
+     */
+    public void invalidatePassability(Position position) {
+        if (changedSincePlan != null)
+            changedSincePlan.add(position);
+        if (hierarchies != null)
+            hierarchies.values().forEach(h -> h.invalidate(position));
+        if (reachability != null)
+            reachability.values().forEach(r -> r.invalidate(position));
+        if (followers != null)
+            followers.values().forEach(f -> f.invalidate(position));
+    }
+
+    private void invalidatePassability(Entity entity, Position position) {
+        if (changedSincePlan != null)
+            changedSincePlan.add(position);
+        if (entity instanceof Player)
+            return;
+        if (!(entity instanceof Enemy)) {
+            invalidatePassability(position);
+        } else if (followers != null) {
+            for (DStarLiteSearch follower : followers.values())
+                follower.invalidate(position);
+        }
+    }
+
+    /**
+     * Choose whether the moves of many enemies are planned in parallel, on by default
+     */
+    public void setPlanMoves(boolean planMoves) {
+        this.planMoves = planMoves;
+    }
+
+    /**
+     * Plan the moves of the enemies ahead of the AI movement phase, over the columns
+     * of the enemy store on the common ForkJoinPool. Planning only reads the map, the
+     * moves are still made one at a time in the order of the callbacks, through
+     * takePlan. A plan that looked at a position changed by an earlier move is dropped
+     * and the move worked out again, so every enemy ends where moving them one after
+     * the other would have taken it.
+     */
+    public void planMoves() {
+        clearPlans();
+        if (!planMoves || countEntities(Enemy.class) < PARALLEL_PLANS)
+            return;
+        long start = System.nanoTime();
+        // built on first use, so not while planning
+        getPositions();
+        enemyStore.planMoves(this);
+        changedSincePlan = new HashSet<>();
+        Metrics.ENGINE.recordSince("plan_moves", start);
+    }
+
+    /**
+     * @return whether the enemy has a move planned that still holds, to be made by the store
+     */
+    public boolean takePlan(Enemy enemy) {
+        if (changedSincePlan == null || enemy.getStore() != enemyStore)
+            return false;
+        return enemyStore.takePlan(enemy.getSlot(), changedSincePlan, getPositions());
+    }
+
+    public void clearPlans() {
+        changedSincePlan = null;
+    }
+
+    /**
+     * @return cost of stepping onto the position
+     */
+    public int getWeight(Position position) {
+        GraphNode node = nodes.get(position);
+        return (node != null) ? node.getWeight() : 1;
     }
 
     public Position dijkstraPathFind(Position src, Position dest, Entity entity) {
+        return findPath(src, dest, entity, PathStrategy.DIJKSTRA);
+    }
+
+    /**
+     * @return next position on a shortest path from src to dest, or src if there is none
+     */
+    public Position findPath(Position src, Position dest, Entity entity, PathStrategy strategy) {
         // if inputs are invalid, don't move
-        if (!nodes.containsKey(src) || !nodes.containsKey(dest))
+        if (!isOccupied(src) || !isOccupied(dest))
             return src;
-
-        Map<Position, Integer> dist = new HashMap<>();
-        Map<Position, Position> prev = new HashMap<>();
-        Map<Position, Boolean> visited = new HashMap<>();
-
-        prev.put(src, null);
-        dist.put(src, 0);
-
-        PriorityQueue<Position> q = new PriorityQueue<>((x, y) -> Integer
-                .compare(dist.getOrDefault(x, Integer.MAX_VALUE), dist.getOrDefault(y, Integer.MAX_VALUE)));
-        q.add(src);
-
-        while (!q.isEmpty()) {
-            Position curr = q.poll();
-            if (curr.equals(dest) || dist.get(curr) > 200)
-                break;
-            // check portal
-            if (nodes.containsKey(curr) && nodes.get(curr).getEntities().stream().anyMatch(Portal.class::isInstance)) {
-                Portal portal = nodes.get(curr).getEntities().stream().filter(Portal.class::isInstance)
-                        .map(Portal.class::cast).collect(Collectors.toList()).get(0);
-                List<Position> teleportDest = portal.getDestPositions(this, entity);
-                teleportDest.stream().filter(p -> !visited.containsKey(p)).forEach(p -> {
-                    dist.put(p, dist.get(curr));
-                    prev.put(p, prev.get(curr));
-                    q.add(p);
-                });
-                continue;
-            }
-            visited.put(curr, true);
-            List<Position> neighbours = curr.getCardinallyAdjacentPositions().stream()
-                    .filter(p -> !visited.containsKey(p))
-                    .filter(p -> !nodes.containsKey(p) || nodes.get(p).canMoveOnto(this, entity))
-                    .collect(Collectors.toList());
-
-            neighbours.forEach(n -> {
-                int newDist = dist.get(curr) + (nodes.containsKey(n) ? nodes.get(n).getWeight() : 1);
-                if (newDist < dist.getOrDefault(n, Integer.MAX_VALUE)) {
-                    q.remove(n);
-                    dist.put(n, newDist);
-                    prev.put(n, curr);
-                    q.add(n);
-                }
-            });
+        cover(src, dest);
+        if (!isReachable(src, dest, entity))
+            return src;
+        long start = System.nanoTime();
+        PathfindEvent event = new PathfindEvent();
+        event.begin();
+        Position next = null;
+        int expanded = 0;
+        if (positions.size() > HIERARCHICAL_AREA) {
+            HierarchicalSearch hierarchy = getHierarchy(entity);
+            next = hierarchy.find(src, dest);
+            expanded = hierarchy.getExpanded();
+        } else if (strategy == PathStrategy.JUMP_POINT && countEntities(Portal.class) == 0) {
+            if (jumpSearch == null || jumpSearch.getPositions() != positions)
+                jumpSearch = new JumpPointSearch(this, positions);
+            next = jumpSearch.find(src, dest, entity);
+            expanded = jumpSearch.getExpanded();
         }
-        Position ret = dest;
-        if (prev.get(ret) == null || ret.equals(src))
+        if (next == null) {
+            if (search == null || search.getPositions() != positions)
+                search = new DijkstraSearch(this, positions);
+            next = search.find(src, dest, entity);
+            expanded = search.getExpanded();
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.setEntity(NameConverter.toSnakeCase(entity));
+            event.setExpanded(expanded);
+            event.commit();
+        }
+        Metrics.ENGINE.recordSince("pathfind", start);
+        return next;
+    }
+
+    /**
+     * Next step for an entity following dest from tick to tick. The search of the
+     * previous call is repaired where the map or dest changed, instead of being
+     * run again, as long as the map has no portals.
+     * @return next position on a shortest path from src to dest, or src if there is none
+     */
+    public Position followPath(Position src, Position dest, Entity entity) {
+        return followPath(src, dest, entity, PathStrategy.DIJKSTRA);
+    }
+
+    /**
+     * As followPath, searching with the given strategy where the search cannot be
+     * repaired, on maps with portals or searched through clusters
+     */
+    public Position followPath(Position src, Position dest, Entity entity, PathStrategy strategy) {
+        if (!isOccupied(src) || !isOccupied(dest))
+            return src;
+        cover(src, dest);
+        if (positions.size() > HIERARCHICAL_AREA || countEntities(Portal.class) > 0)
+            return findPath(src, dest, entity, strategy);
+        if (!isReachable(src, dest, entity))
             return src;
-        while (!prev.get(ret).equals(src)) {
-            ret = prev.get(ret);
+
+        if (followers == null)
+            followers = new HashMap<>();
+        DStarLiteSearch follower = followers.get(entity);
+        if (follower == null || follower.getPositions() != positions
+                || follower.getLandmarks() != getLandmarks(entity)) {
+            follower = new DStarLiteSearch(this, positions, entity);
+            followers.put(entity, follower);
+        }
+        long start = System.nanoTime();
+        PathfindEvent event = new PathfindEvent();
+        event.begin();
+        Position next = follower.find(src, dest);
+        event.end();
+        if (event.shouldCommit()) {
+            event.setEntity(NameConverter.toSnakeCase(entity));
+            event.setExpanded(follower.getExpanded());
+            event.commit();
         }
-        return ret;
+        Metrics.REPLANS.increment();
+        Metrics.REPLAN_EXPANDED.add(follower.getExpanded());
+        Metrics.ENGINE.recordSince("replan", start);
+        return next;
+    }
+
+    /**
+     * Drop the search kept for an entity that stopped following
+     */
+    public void stopFollowing(Entity entity) {
+        if (followers != null)
+            followers.remove(entity);
+    }
+
+    /**
+     * @return false if no path can take the entity from src to dest, true if one may,
+     *         answered from components kept up to date with the map
+     */
+    public boolean isReachable(Position src, Position dest, Entity entity) {
+        if (reachability == null)
+            reachability = new HashMap<>();
+        ReachabilityIndex index = reachability.get(entity.getClass());
+        if (index == null || index.getPositions() != getPositions()) {
+            index = new ReachabilityIndex(this, getPositions(), entity);
+            reachability.put(entity.getClass(), index);
+        }
+        return index.connected(src, dest);
+    }
+
+    /**
+     * @return landmarks bounding the distances the entity walks in this game, or null
+     *         if they do not hold, as walls do not stop it or some were destroyed
+     */
+    Landmarks getLandmarks(Entity entity) {
+        Landmarks landmarks = terrain.getLandmarks();
+        if (landmarks == null || !destroyedTerrain.isEmpty() || !terrain.isBlockedByWalls(this, entity))
+            return null;
+        return landmarks;
+    }
+
+    private HierarchicalSearch getHierarchy(Entity entity) {
+        if (hierarchies == null)
+            hierarchies = new HashMap<>();
+        HierarchicalSearch hierarchy = hierarchies.get(entity.getClass());
+        if (hierarchy == null || hierarchy.getPositions() != positions) {
+            hierarchy = new HierarchicalSearch(this, positions, entity);
+            hierarchies.put(entity.getClass(), hierarchy);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * Grow the shared positions to cover the map again once src or dest is off
+     * them, carrying the searches built on them over to the grown table
+     */
+    private void cover(Position src, Position dest) {
+        PositionTable table = getPositions();
+        if (table.contains(src) && table.contains(dest))
+            return;
+        PositionTable grown = table.grow(occupiedPositions(), POSITION_MARGIN);
+        positions = grown;
+        if (search != null && search.getPositions() == table)
+            search.grow(grown);
+        if (jumpSearch != null && jumpSearch.getPositions() == table)
+            jumpSearch.grow(grown);
+        if (reachability != null)
+            reachability.values().stream().filter(i -> i.getPositions() == table).forEach(i -> i.grow(grown));
+        if (hierarchies != null)
+            hierarchies.values().stream().filter(h -> h.getPositions() == table).forEach(h -> h.grow(grown));
+        if (followers != null)
+            followers.values().stream().filter(f -> f.getPositions() == table).forEach(f -> f.grow(grown));
+    }
+
+    /**
+     * @return shared positions for the area of the map, built on first use
+     */
+    public PositionTable getPositions() {
+        if (positions == null)
+            positions = PositionTable.around(occupiedPositions(), POSITION_MARGIN);
+        return positions;
     }
 
     public void removeNode(Entity entity) {
         Position p = entity.getPosition();
+        if (terrain.contains(entity)) {
+            if (destroyedTerrain.add(entity))
+                entityCounts.merge(entity.getClass(), -1, Integer::sum);
+            invalidatePassability(p);
+            return;
+        }
         if (nodes.containsKey(p)) {
-            nodes.get(p).removeEntity(entity);
+            if (nodes.get(p).removeEntity(entity)) {
+                entityCounts.merge(entity.getClass(), -1, Integer::sum);
+                entitiesById.remove(entity.getEntityId(), entity);
+                invalidatePassability(entity, p);
+            }
             if (nodes.get(p).size() == 0) {
                 nodes.remove(p);
             }
@@ -283,54 +721,110 @@ public class GameMap implements Serializable {
 
     public void destroyEntity(Entity entity) {
         removeNode(entity);
+        stopFollowing(entity);
+        if (entity instanceof Enemy)
+            enemyStore.release((Enemy) entity);
         if (entity instanceof DestroyedBehaviour) {
             DestroyedBehaviour ent = (DestroyedBehaviour) entity;
             ent.onDestroy(this);
         }
     }
 
+    /**
+     * Destroy a batch of entities, removing all of them from the map before
+     * any onDestroy runs. Callbacks dropped by the destroyed entities are
+     * cleaned out of the scheduler in a single pass.
+     */
+    public void destroyEntities(Collection<Entity> entities) {
+        entities.forEach(this::removeNode);
+        entities.forEach(this::stopFollowing);
+        entities.stream().filter(e -> e instanceof Enemy).forEach(e -> enemyStore.release((Enemy) e));
+        Runnable onDestroy = () -> entities.stream().filter(e -> e instanceof DestroyedBehaviour)
+                .map(DestroyedBehaviour.class::cast).forEach(e -> e.onDestroy(this));
+        if (game == null)
+            onDestroy.run();
+        else
+            game.batchUnsubscribe(onDestroy);
+    }
+
     public void addEntity(Entity entity) {
         addNode(new GraphNode(entity));
     }
 
     public void addNode(GraphNode node) {
         Position p = node.getPosition();
+        node.getEntities().forEach(e -> {
+            entitiesById.put(e.getEntityId(), e);
+            invalidatePassability(e, p);
+            if (e instanceof Enemy)
+                enemyStore.adopt((Enemy) e);
+        });
 
-        if (!nodes.containsKey(p))
+        GraphNode curr = nodes.get(p);
+        if (curr == null) {
+            node.getEntities().forEach(e -> entityCounts.merge(e.getClass(), 1, Integer::sum));
             nodes.put(p, node);
-        else {
-            GraphNode curr = nodes.get(p);
+        } else {
+            node.getEntities().stream().filter(e -> !curr.getEntities().contains(e))
+                    .forEach(e -> entityCounts.merge(e.getClass(), 1, Integer::sum));
             curr.mergeNode(node);
             nodes.put(p, curr);
         }
     }
 
     public Entity getEntity(String id) {
-        Entity res = null;
-        for (Map.Entry<Position, GraphNode> entry : nodes.entrySet()) {
-            List<Entity> es = entry.getValue().getEntities().stream().filter(e -> e.getId().equals(id))
-                    .collect(Collectors.toList());
-            if (es != null && es.size() > 0) {
-                res = es.get(0);
-                break;
-            }
-        }
-        return res;
+        return getEntity(EntityIdAllocator.decode(id));
+    }
+
+    public Entity getEntity(long entityId) {
+        if (entityId == EntityIdAllocator.UNASSIGNED)
+            return null;
+        Entity fixed = terrain.getEntity(entityId);
+        if (fixed != null)
+            return destroyedTerrain.contains(fixed) ? null : fixed;
+        return entitiesById.get(entityId);
     }
 
     public List<Entity> getEntities(Position p) {
         GraphNode node = nodes.get(p);
-        return (node != null) ? node.getEntities() : new ArrayList<>();
+        List<Entity> fixed = getTerrain(p);
+        if (fixed.isEmpty())
+            return (node != null) ? node.getEntities() : new ArrayList<>();
+        List<Entity> entities = new ArrayList<>(fixed);
+        if (node != null)
+            entities.addAll(node.getEntities());
+        return entities;
     }
 
     public List<Entity> getEntities() {
-        List<Entity> entities = new ArrayList<>();
+        List<Entity> entities = terrain.getEntities();
+        if (!destroyedTerrain.isEmpty())
+            entities.removeAll(destroyedTerrain);
         nodes.forEach((k, v) -> entities.addAll(v.getEntities()));
         return entities;
     }
 
     public <T extends Entity> List<T> getEntities(Class<T> type) {
-        return getEntities().stream().filter(type::isInstance).map(type::cast).collect(Collectors.toList());
+        List<T> entities = new ArrayList<>();
+        for (Entity e : terrain.getEntities(type)) {
+            if (!destroyedTerrain.contains(e))
+                entities.add(type.cast(e));
+        }
+        nodes.forEach((k, v) -> v.getEntities().stream().filter(type::isInstance).map(type::cast)
+                .forEach(entities::add));
+        return entities;
+    }
+
+    /**
+     * @return number of entities of the given type on the map, without scanning it
+     */
+    public int countEntities(Class<?> type) {
+        int count = 0;
+        for (Map.Entry<Class<?>, Integer> e : entityCounts.entrySet()) {
+            if (type.isAssignableFrom(e.getKey()))
+                count += e.getValue();
+        }
+        return count;
     }
 
     public <T extends Entity, U> List<U> getEntities(Class<T> type, Class<U> type2) {
@@ -345,6 +839,10 @@ public class GameMap implements Serializable {
         this.player = player;
     }
 
+    public CircuitEngine getCircuit() {
+        return circuit;
+    }
+
     public Game getGame() {
         return game;
     }
@@ -26,8 +26,22 @@ public class GraphNode {
         this.weight = weight;
     }
 
+    /**
+     * Make an empty node the node of the entity alone, at its position
+     */
+    GraphNode reuse(Entity entity) {
+        this.position = entity.getPosition();
+        this.entities.add(entity);
+        this.weight = 1;
+        return this;
+    }
+
     public boolean canMoveOnto(GameMap map, Entity entity) {
-        return entities.size() == 0 || entities.stream().allMatch(e -> e.canMoveOnto(map, entity));
+        for (int i = 0; i < entities.size(); i++) {
+            if (!entities.get(i).canMoveOnto(map, entity))
+                return false;
+        }
+        return true;
     }
 
     public int getWeight() {
@@ -39,8 +53,8 @@ public class GraphNode {
             this.entities.add(entity);
     }
 
-    public void removeEntity(Entity entity) {
-        entities.remove(entity);
+    public boolean removeEntity(Entity entity) {
+        return entities.remove(entity);
     }
 
     public int size() {
@@ -0,0 +1,474 @@
+package dungeonmania.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.util.Position;
+
+/**
+ * HierarchicalSearch -- path finding over clusters of a PositionTable, for maps
+ * too large to search cell by cell
+ *
+ * The table is cut into square clusters. Where two neighbouring clusters share
+ * a run of open border cells, an entrance links a cell on each side. Entrance
+ * cells are the nodes of an abstract graph, joined across the border with the
+ * cost of stepping onto the far cell and, inside a cluster, by their distance
+ * walking in the cluster. Walks are breadth first, or Dijkstra in clusters
+ * holding weighted tiles.
+ * A search runs A* over the abstract graph with no distance limit, and only the
+ * leg from the source to the first entrance is refined on the grid.
+ *
+ * Clusters are built the first time a search reaches them. A change of what can
+ * be passed at a position drops its cluster, and the borders it lies on, which
+ * are rebuilt on the next search reaching them. A grown table keeps the clusters
+ * away from its old edges, as tables grow by whole clusters.
+ *
+ * Enemies and the player move every tick, so they are not obstacles here. Portals
+ * are walked over rather than used to teleport.
+ */
+class HierarchicalSearch {
+    static final int CLUSTER = 16;
+    // a run of open border cells this long gets an entrance at each end
+    private static final int LONG_ENTRANCE = 6;
+    private static final int NONE = -1;
+    private static final int START = -2;
+    private static final int[] DX = {0, 1, 0, -1};
+    private static final int[] DY = {-1, 0, 1, 0};
+    private static final int[] NO_ENTRANCES = new int[0];
+
+    private static final class Cluster {
+        private final boolean[] open;
+        // cost of stepping onto each local cell, null if every step costs one
+        private final int[] weight;
+        // entrance cells on this side of the borders, and the cells they lead to
+        private final int[] nodes;
+        private final int[][] across;
+        private final Map<Integer, Integer> indexOf = new HashMap<>();
+        // cost[a][b] of walking from nodes[a] to nodes[b] inside the cluster
+        private final int[][] cost;
+
+        private Cluster(boolean[] open, int[] weight, int[] nodes, int[][] across, int[][] cost) {
+            this.open = open;
+            this.weight = weight;
+            this.nodes = nodes;
+            this.across = across;
+            this.cost = cost;
+            for (int a = 0; a < nodes.length; a++)
+                indexOf.put(nodes[a], a);
+        }
+    }
+
+    private final GameMap map;
+    private PositionTable positions;
+    private final Entity entity;
+    private int width;
+    private int height;
+    private int columns;
+    private int rows;
+    private Cluster[] clusters;
+    // entrances on the right and bottom border of each cluster, as pairs of cells
+    private int[][] right;
+    private int[][] down;
+    private int expanded = 0;
+    private Landmarks landmarks;
+
+    HierarchicalSearch(GameMap map, PositionTable positions, Entity entity) {
+        this.map = map;
+        this.entity = entity;
+        cut(positions);
+    }
+
+    private void cut(PositionTable table) {
+        this.positions = table;
+        this.width = table.getWidth();
+        this.height = table.getHeight();
+        this.columns = (width + CLUSTER - 1) / CLUSTER;
+        this.rows = (height + CLUSTER - 1) / CLUSTER;
+        this.clusters = new Cluster[columns * rows];
+        this.right = new int[columns * rows][];
+        this.down = new int[columns * rows][];
+    }
+
+    PositionTable getPositions() {
+        return positions;
+    }
+
+    /**
+     * Carry the clusters over to a table grown from the current one. Clusters on
+     * the old edges, and their borders, are left to be built again.
+     */
+    void grow(PositionTable grown) {
+        PositionTable old = positions;
+        int oldColumns = columns;
+        int oldRows = rows;
+        Cluster[] oldClusters = clusters;
+        int[][] oldRight = right;
+        int[][] oldDown = down;
+        cut(grown);
+        int dc = (old.getMinX() - grown.getMinX()) / CLUSTER;
+        int dr = (old.getMinY() - grown.getMinY()) / CLUSTER;
+        for (int k = 0; k < oldClusters.length; k++) {
+            int c = k % oldColumns;
+            int r = k / oldColumns;
+            if (c == 0 || r == 0 || c == oldColumns - 1 || r == oldRows - 1)
+                continue;
+            int moved = (r + dr) * columns + c + dc;
+            Cluster cluster = oldClusters[k];
+            if (cluster != null) {
+                int[][] across = new int[cluster.across.length][];
+                for (int a = 0; a < across.length; a++)
+                    across[a] = moveCells(old, cluster.across[a]);
+                clusters[moved] = new Cluster(cluster.open, cluster.weight, moveCells(old, cluster.nodes), across,
+                        cluster.cost);
+            }
+            right[moved] = moveCells(old, oldRight[k]);
+            down[moved] = moveCells(old, oldDown[k]);
+        }
+    }
+
+    private int[] moveCells(PositionTable from, int[] cells) {
+        if (cells == null)
+            return null;
+        int[] moved = new int[cells.length];
+        for (int i = 0; i < cells.length; i++)
+            moved[i] = positions.indexFrom(from, cells[i]);
+        return moved;
+    }
+
+    /**
+     * @return number of entrances expanded by the last search
+     */
+    int getExpanded() {
+        return expanded;
+    }
+
+    private int clusterOf(int cell) {
+        return (cell / width / CLUSTER) * columns + (cell % width) / CLUSTER;
+    }
+
+    private int local(int cell) {
+        return ((cell / width) % CLUSTER) * CLUSTER + (cell % width) % CLUSTER;
+    }
+
+    private int cellOf(int k, int l) {
+        int x = (k % columns) * CLUSTER + l % CLUSTER;
+        int y = (k / columns) * CLUSTER + l / CLUSTER;
+        return y * width + x;
+    }
+
+    private int clusterWidth(int k) {
+        return Math.min(CLUSTER, width - (k % columns) * CLUSTER);
+    }
+
+    private int clusterHeight(int k) {
+        return Math.min(CLUSTER, height - (k / columns) * CLUSTER);
+    }
+
+    private boolean passable(int cell) {
+        return map.canPassThrough(entity, positions.positionAt(cell));
+    }
+
+    /**
+     * Mark the clusters and borders around a position to be rebuilt,
+     * used when what can be passed at the position changed
+     */
+    void invalidate(Position p) {
+        int cell = positions.indexOf(p);
+        if (cell == NONE)
+            return;
+        int k = clusterOf(cell);
+        int l = local(cell);
+        clusters[k] = null;
+        if (l % CLUSTER == 0 && k % columns > 0) {
+            right[k - 1] = null;
+            clusters[k - 1] = null;
+        }
+        if (l % CLUSTER == clusterWidth(k) - 1 && k % columns < columns - 1) {
+            right[k] = null;
+            clusters[k + 1] = null;
+        }
+        if (l / CLUSTER == 0 && k >= columns) {
+            down[k - columns] = null;
+            clusters[k - columns] = null;
+        }
+        if (l / CLUSTER == clusterHeight(k) - 1 && k + columns < clusters.length) {
+            down[k] = null;
+            clusters[k + columns] = null;
+        }
+    }
+
+    private int[] rightOf(int k) {
+        if (k % columns == columns - 1)
+            return NO_ENTRANCES;
+        if (right[k] == null)
+            right[k] = entrances(cellOf(k, clusterWidth(k) - 1), width, 1, clusterHeight(k));
+        return right[k];
+    }
+
+    private int[] downOf(int k) {
+        if (k + columns >= clusters.length)
+            return NO_ENTRANCES;
+        if (down[k] == null)
+            down[k] = entrances(cellOf(k, (clusterHeight(k) - 1) * CLUSTER), 1, width, clusterWidth(k));
+        return down[k];
+    }
+
+    /**
+     * @param first  first cell of the border, on the near side
+     * @param along  step between two cells of the border
+     * @param across step from a cell to the cell facing it on the far side
+     * @return pairs of cells (near, far), one or two for each run of open cells
+     */
+    private int[] entrances(int first, int along, int across, int length) {
+        List<Integer> pairs = new ArrayList<>();
+        int start = NONE;
+        for (int i = 0; i <= length; i++) {
+            int cell = first + i * along;
+            boolean open = i < length && passable(cell) && passable(cell + across);
+            if (open && start == NONE)
+                start = i;
+            if (open || start == NONE)
+                continue;
+            int end = i - 1;
+            if (end - start + 1 >= LONG_ENTRANCE) {
+                pairs.addAll(List.of(first + start * along, first + start * along + across));
+                pairs.addAll(List.of(first + end * along, first + end * along + across));
+            } else {
+                int mid = (start + end) / 2;
+                pairs.addAll(List.of(first + mid * along, first + mid * along + across));
+            }
+            start = NONE;
+        }
+        return pairs.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Cluster cluster(int k) {
+        if (clusters[k] == null)
+            clusters[k] = build(k);
+        return clusters[k];
+    }
+
+    private Cluster build(int k) {
+        int w = clusterWidth(k);
+        int h = clusterHeight(k);
+        boolean[] open = new boolean[CLUSTER * CLUSTER];
+        int[] weight = null;
+        for (int l = 0; l < CLUSTER * CLUSTER; l++) {
+            open[l] = l % CLUSTER < w && l / CLUSTER < h && passable(cellOf(k, l));
+            int cost = open[l] ? weight(cellOf(k, l)) : 1;
+            if (cost != 1 && weight == null) {
+                weight = new int[CLUSTER * CLUSTER];
+                Arrays.fill(weight, 1);
+            }
+            if (weight != null)
+                weight[l] = cost;
+        }
+
+        Map<Integer, List<Integer>> across = new LinkedHashMap<>();
+        addEntrances(across, rightOf(k), 0);
+        addEntrances(across, downOf(k), 0);
+        if (k % columns > 0)
+            addEntrances(across, rightOf(k - 1), 1);
+        if (k >= columns)
+            addEntrances(across, downOf(k - columns), 1);
+
+        int[] nodes = across.keySet().stream().mapToInt(Integer::intValue).toArray();
+        int[][] links = new int[nodes.length][];
+        int[][] cost = new int[nodes.length][nodes.length];
+        for (int a = 0; a < nodes.length; a++) {
+            links[a] = across.get(nodes[a]).stream().mapToInt(Integer::intValue).toArray();
+            int[] dist = walk(k, open, weight, nodes[a], null, false);
+            for (int b = 0; b < nodes.length; b++)
+                cost[a][b] = dist[local(nodes[b])];
+        }
+        return new Cluster(open, weight, nodes, links, cost);
+    }
+
+    private static void addEntrances(Map<Integer, List<Integer>> across, int[] pairs, int side) {
+        for (int i = 0; i < pairs.length; i += 2)
+            across.computeIfAbsent(pairs[i + side], c -> new ArrayList<>()).add(pairs[i + 1 - side]);
+    }
+
+    private int weight(int cell) {
+        return map.getWeight(positions.positionAt(cell));
+    }
+
+    /**
+     * Search inside a cluster, breadth first unless it holds weighted tiles
+     * @param weight  cost of stepping onto each local cell, null if every step costs one
+     * @param prev    filled with the predecessor of each local cell reached, if not null
+     * @param toStart whether to give the distances from each cell to start instead
+     * @return distance to each local cell, NONE where it cannot be reached
+     */
+    private int[] walk(int k, boolean[] open, int[] weight, int start, int[] prev, boolean toStart) {
+        int[] dist = new int[CLUSTER * CLUSTER];
+        Arrays.fill(dist, NONE);
+        int s = local(start);
+        dist[s] = 0;
+        if (prev != null)
+            prev[s] = NONE;
+        if (weight != null)
+            return walkWeighted(k, open, weight, s, dist, prev, toStart);
+        int w = clusterWidth(k);
+        int h = clusterHeight(k);
+        int[] queue = new int[CLUSTER * CLUSTER];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = s;
+        while (head < tail) {
+            int l = queue[head++];
+            for (int i = 0; i < DX.length; i++) {
+                int x = l % CLUSTER + DX[i];
+                int y = l / CLUSTER + DY[i];
+                if (x < 0 || y < 0 || x >= w || y >= h)
+                    continue;
+                int n = y * CLUSTER + x;
+                if (dist[n] != NONE || !open[n])
+                    continue;
+                dist[n] = dist[l] + 1;
+                if (prev != null)
+                    prev[n] = l;
+                queue[tail++] = n;
+            }
+        }
+        return dist;
+    }
+
+    private int[] walkWeighted(int k, boolean[] open, int[] weight, int s, int[] dist, int[] prev,
+            boolean toStart) {
+        int w = clusterWidth(k);
+        int h = clusterHeight(k);
+        boolean[] done = new boolean[CLUSTER * CLUSTER];
+        // entries are {distance, local cell}
+        PriorityQueue<int[]> queue = new PriorityQueue<>((x, y) -> Integer.compare(x[0], y[0]));
+        queue.add(new int[] {0, s});
+        while (!queue.isEmpty()) {
+            int l = queue.poll()[1];
+            if (done[l])
+                continue;
+            done[l] = true;
+            for (int i = 0; i < DX.length; i++) {
+                int x = l % CLUSTER + DX[i];
+                int y = l / CLUSTER + DY[i];
+                if (x < 0 || y < 0 || x >= w || y >= h)
+                    continue;
+                int n = y * CLUSTER + x;
+                if (done[n] || !open[n])
+                    continue;
+                // walking back towards start, a step costs the cell it leaves
+                int d = dist[l] + (toStart ? weight[l] : weight[n]);
+                if (dist[n] != NONE && dist[n] <= d)
+                    continue;
+                dist[n] = d;
+                if (prev != null)
+                    prev[n] = l;
+                queue.add(new int[] {d, n});
+            }
+        }
+        return dist;
+    }
+
+    private Position stepTowards(int k, int src, int target, int[] prev) {
+        int s = local(src);
+        int l = local(target);
+        if (l == s)
+            return positions.positionAt(src);
+        while (prev[l] != s)
+            l = prev[l];
+        return positions.positionAt(cellOf(k, l));
+    }
+
+    private int heuristic(int cell, int dest) {
+        if (landmarks != null)
+            return landmarks.estimate(positions.positionAt(cell), positions.positionAt(dest));
+        return Math.abs(cell % width - dest % width) + Math.abs(cell / width - dest / width);
+    }
+
+    Position find(Position src, Position dest) {
+        expanded = 0;
+        landmarks = map.getLandmarks(entity);
+        int s = positions.indexOf(src);
+        int d = positions.indexOf(dest);
+        if (s == NONE || d == NONE || s == d)
+            return src;
+
+        int ks = clusterOf(s);
+        int kd = clusterOf(d);
+        int[] prev = new int[CLUSTER * CLUSTER];
+        Cluster first = cluster(ks);
+        int[] fromSrc = walk(ks, first.open, first.weight, s, prev, false);
+        if (ks == kd && fromSrc[local(d)] != NONE)
+            return stepTowards(ks, s, d, prev);
+        Cluster target = cluster(kd);
+        int[] toDest = walk(kd, target.open, target.weight, d, null, true);
+
+        Map<Integer, Integer> g = new HashMap<>();
+        Map<Integer, Integer> parent = new HashMap<>();
+        // entries are {estimated total, cell, cost so far}
+        PriorityQueue<int[]> queue = new PriorityQueue<>((x, y) -> Integer.compare(x[0], y[0]));
+        for (int node : first.nodes) {
+            int cost = fromSrc[local(node)];
+            if (cost == NONE)
+                continue;
+            g.put(node, cost);
+            parent.put(node, START);
+            queue.add(new int[] {cost + heuristic(node, d), node, cost});
+        }
+
+        int best = Integer.MAX_VALUE;
+        int last = NONE;
+        while (!queue.isEmpty()) {
+            int[] top = queue.poll();
+            if (top[0] >= best)
+                break;
+            int c = top[1];
+            if (top[2] != g.get(c))
+                continue;
+            expanded++;
+            int k = clusterOf(c);
+            Cluster cluster = cluster(k);
+            int a = cluster.indexOf.get(c);
+            if (k == kd && toDest[local(c)] != NONE && top[2] + toDest[local(c)] < best) {
+                best = top[2] + toDest[local(c)];
+                last = c;
+            }
+            for (int b = 0; b < cluster.nodes.length; b++) {
+                if (cluster.cost[a][b] != NONE)
+                    relax(queue, g, parent, c, cluster.nodes[b], top[2] + cluster.cost[a][b], d);
+            }
+            for (int n : cluster.across[a])
+                relax(queue, g, parent, c, n, top[2] + weight(n), d);
+        }
+        if (last == NONE)
+            return src;
+
+        // the first entrance the path goes through, and the one after it
+        int next = NONE;
+        int node = last;
+        while (parent.get(node) != START) {
+            next = node;
+            node = parent.get(node);
+        }
+        if (node != s)
+            return stepTowards(ks, s, node, prev);
+        if (next == NONE)
+            return src;
+        return (clusterOf(next) == ks) ? stepTowards(ks, s, next, prev) : positions.positionAt(next);
+    }
+
+    private void relax(PriorityQueue<int[]> queue, Map<Integer, Integer> g, Map<Integer, Integer> parent, int from,
+            int to, int cost, int dest) {
+        Integer known = g.get(to);
+        if (known != null && known <= cost)
+            return;
+        g.put(to, cost);
+        parent.put(to, from);
+        queue.add(new int[] {cost + heuristic(to, dest), to, cost});
+    }
+}
@@ -0,0 +1,204 @@
+package dungeonmania.map;
+
+import java.util.PriorityQueue;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.util.Position;
+
+/**
+ * JumpPointSearch -- A* over the jump points of a 4-connected, uniform cost grid
+ *
+ * Among the shortest paths, only those moving vertically first are searched.
+ * A vertical scan stops where a horizontal scan from its cell finds something,
+ * and a horizontal scan only stops at the destination or where a cell above or
+ * below opens up behind a blocked one. The cells in between are never queued,
+ * which on open floor leaves a handful of jump points per search.
+ *
+ * Every step is expected to cost one. A search meeting a weighted tile gives up
+ * and returns null, so the caller can fall back to DijkstraSearch, which is
+ * also used while the map has portals. Like DijkstraSearch, positions outside
+ * the table are never scanned and paths longer than MAX_DISTANCE are not found.
+ * The distance left is estimated from the dungeon's landmarks when it has them.
+ */
+class JumpPointSearch {
+    private static final int NONE = -1;
+
+    private final GameMap map;
+    private PositionTable positions;
+    private int width;
+    private int height;
+    private int[] dist;
+    private int[] prev;
+    private int[] reached;
+    private int[] closed;
+    // scans pass over the same cells many times, so each cell is only tested once per search
+    private int[] tested;
+    private boolean[] passable;
+    private int stamp = 0;
+    private int expanded = 0;
+    private Entity entity;
+    private int goal;
+    private Position dest;
+    private Landmarks landmarks;
+    private boolean weighted;
+
+    JumpPointSearch(GameMap map, PositionTable positions) {
+        this.map = map;
+        grow(positions);
+    }
+
+    PositionTable getPositions() {
+        return positions;
+    }
+
+    /**
+     * Search over a table grown from the current one, as DijkstraSearch.grow
+     */
+    void grow(PositionTable grown) {
+        this.positions = grown;
+        this.width = grown.getWidth();
+        this.height = grown.getHeight();
+        this.dist = new int[grown.size()];
+        this.prev = new int[grown.size()];
+        this.reached = new int[grown.size()];
+        this.closed = new int[grown.size()];
+        this.tested = new int[grown.size()];
+        this.passable = new boolean[grown.size()];
+    }
+
+    /**
+     * @return number of jump points expanded by the last search
+     */
+    int getExpanded() {
+        return expanded;
+    }
+
+    private boolean open(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height)
+            return false;
+        int cell = y * width + x;
+        if (tested[cell] == stamp)
+            return passable[cell];
+        Position p = positions.positionAt(cell);
+        tested[cell] = stamp;
+        passable[cell] = map.canMoveTo(entity, p);
+        if (passable[cell] && map.getWeight(p) != 1)
+            weighted = true;
+        return passable[cell];
+    }
+
+    private int jumpHorizontal(int x, int y, int dx) {
+        while (!weighted) {
+            x += dx;
+            if (!open(x, y))
+                return NONE;
+            int cell = y * width + x;
+            if (cell == goal)
+                return cell;
+            if ((open(x, y - 1) && !open(x - dx, y - 1)) || (open(x, y + 1) && !open(x - dx, y + 1)))
+                return cell;
+        }
+        return NONE;
+    }
+
+    private int jumpVertical(int x, int y, int dy) {
+        while (!weighted) {
+            y += dy;
+            if (!open(x, y))
+                return NONE;
+            int cell = y * width + x;
+            if (cell == goal)
+                return cell;
+            if ((open(x - 1, y) && !open(x - 1, y - dy)) || (open(x + 1, y) && !open(x + 1, y - dy)))
+                return cell;
+            if (jumpHorizontal(x, y, 1) != NONE || jumpHorizontal(x, y, -1) != NONE)
+                return cell;
+        }
+        return NONE;
+    }
+
+    private int heuristic(int cell) {
+        if (landmarks != null)
+            return landmarks.estimate(positions.positionAt(cell), dest);
+        return Math.abs(cell % width - goal % width) + Math.abs(cell / width - goal / width);
+    }
+
+    private void push(PriorityQueue<int[]> queue, int from, int to) {
+        if (to == NONE || closed[to] == stamp)
+            return;
+        int d = dist[from] + Math.abs(to % width - from % width) + Math.abs(to / width - from / width);
+        if (reached[to] == stamp && dist[to] <= d)
+            return;
+        reached[to] = stamp;
+        dist[to] = d;
+        prev[to] = from;
+        // entries are {estimated total, cell, cost so far}
+        queue.add(new int[] {d + heuristic(to), to, d});
+    }
+
+    /**
+     * @return next position towards the destination, the source if it cannot be
+     *         reached, or null if the search met a weighted tile
+     */
+    Position find(Position src, Position dest, Entity entity) {
+        stamp++;
+        expanded = 0;
+        weighted = false;
+        this.entity = entity;
+        this.dest = dest;
+        this.landmarks = map.getLandmarks(entity);
+        int s = positions.indexOf(src);
+        goal = positions.indexOf(dest);
+        if (s == goal)
+            return src;
+        reached[s] = stamp;
+        dist[s] = 0;
+        prev[s] = NONE;
+
+        PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        queue.add(new int[] {heuristic(s), s, 0});
+        while (!queue.isEmpty() && !weighted) {
+            int[] top = queue.poll();
+            int c = top[1];
+            if (closed[c] == stamp || top[2] != dist[c] || top[2] > DijkstraSearch.MAX_DISTANCE)
+                continue;
+            if (c == goal)
+                break;
+            closed[c] = stamp;
+            expanded++;
+
+            int x = c % width;
+            int y = c / width;
+            int p = prev[c];
+            int dx = (p == NONE) ? 0 : Integer.signum(x - p % width);
+            int dy = (p == NONE) ? 0 : Integer.signum(y - p / width);
+            if (dy == 0 && dx != 0) {
+                push(queue, c, jumpHorizontal(x, y, dx));
+                if (open(x, y - 1) && !open(x - dx, y - 1))
+                    push(queue, c, jumpVertical(x, y, -1));
+                if (open(x, y + 1) && !open(x - dx, y + 1))
+                    push(queue, c, jumpVertical(x, y, 1));
+                continue;
+            }
+            if (dy != 0) {
+                push(queue, c, jumpVertical(x, y, dy));
+            } else {
+                push(queue, c, jumpVertical(x, y, -1));
+                push(queue, c, jumpVertical(x, y, 1));
+            }
+            push(queue, c, jumpHorizontal(x, y, 1));
+            push(queue, c, jumpHorizontal(x, y, -1));
+        }
+        if (weighted)
+            return null;
+
+        if (reached[goal] != stamp || dist[goal] > DijkstraSearch.MAX_DISTANCE)
+            return src;
+        int first = goal;
+        while (prev[first] != s)
+            first = prev[first];
+        int x = s % width + Integer.signum(first % width - s % width);
+        int y = s / width + Integer.signum(first / width - s / width);
+        return positions.positionAt(y * width + x);
+    }
+}
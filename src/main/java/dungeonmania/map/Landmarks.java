@@ -0,0 +1,150 @@
+package dungeonmania.map;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+
+import dungeonmania.util.Position;
+
+/**
+ * Landmarks -- lower bounds on walking distances around the walls of a dungeon
+ *
+ * A few open cells of the static layer are picked as landmarks, each as far as
+ * possible from those picked before, and the distance from each landmark to
+ * every cell is computed once, with walls as the only obstacles. By the
+ * triangle inequality, |d(L, a) - d(L, b)| never exceeds the distance from a
+ * to b, which gives an A* heuristic that follows the maze instead of cutting
+ * through its walls (ALT).
+ *
+ * Anything else only makes paths longer, so the bound still holds with doors,
+ * boulders and enemies in the way. Destroying a wall can make them shorter, so
+ * GameMap stops using the landmarks of a game once it destroyed any terrain.
+ *
+ * The tables cover the bounding box of the terrain with a margin of one, any
+ * path leaving it can be pulled back onto the margin without getting longer.
+ * Cells outside are bounded through the nearest cell inside.
+ */
+public final class Landmarks implements Serializable {
+    static final int COUNT = 8;
+    // more cells than this and the tables are not worth their memory
+    private static final int MAX_CELLS = 1 << 20;
+    private static final short UNREACHED = -1;
+
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final int height;
+    private final short[][] distances;
+
+    private Landmarks(int minX, int minY, int width, int height, short[][] distances) {
+        this.minX = minX;
+        this.minY = minY;
+        this.width = width;
+        this.height = height;
+        this.distances = distances;
+    }
+
+    /**
+     * @return landmarks for the terrain, or null if it is empty or too large
+     */
+    static Landmarks of(StaticLayer terrain) {
+        Collection<Position> extent = terrain.getExtent();
+        if (extent.isEmpty())
+            return null;
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Position p : extent) {
+            minX = Math.min(minX, p.getX() - 1);
+            minY = Math.min(minY, p.getY() - 1);
+            maxX = Math.max(maxX, p.getX() + 1);
+            maxY = Math.max(maxY, p.getY() + 1);
+        }
+        int width = maxX - minX + 1;
+        int height = maxY - minY + 1;
+        if ((long) width * height > MAX_CELLS)
+            return null;
+
+        boolean[] open = new boolean[width * height];
+        for (int cell = 0; cell < open.length; cell++)
+            open[cell] = !terrain.isWall(new Position(minX + cell % width, minY + cell / width));
+
+        // the corner is on the margin, so it is always open
+        short[][] distances = new short[COUNT][];
+        short[] nearest = walk(open, width, height, 0);
+        for (int k = 0; k < COUNT; k++) {
+            int farthest = 0;
+            for (int cell = 0; cell < open.length; cell++) {
+                if (nearest[cell] > nearest[farthest])
+                    farthest = cell;
+            }
+            distances[k] = walk(open, width, height, farthest);
+            for (int cell = 0; cell < open.length; cell++) {
+                if (distances[k][cell] != UNREACHED)
+                    nearest[cell] = (short) Math.min(nearest[cell], distances[k][cell]);
+            }
+        }
+        return new Landmarks(minX, minY, width, height, distances);
+    }
+
+    /**
+     * Breadth first search from a cell, distances past Short.MAX_VALUE are capped,
+     * which keeps every difference a lower bound
+     */
+    private static short[] walk(boolean[] open, int width, int height, int start) {
+        short[] dist = new short[open.length];
+        Arrays.fill(dist, UNREACHED);
+        int[] queue = new int[open.length];
+        int head = 0;
+        int tail = 0;
+        dist[start] = 0;
+        queue[tail++] = start;
+        while (head < tail) {
+            int cell = queue[head++];
+            int x = cell % width;
+            int y = cell / width;
+            short next = (short) Math.min(Short.MAX_VALUE, dist[cell] + 1);
+            if (y > 0)
+                tail = visit(open, dist, queue, tail, cell - width, next);
+            if (x < width - 1)
+                tail = visit(open, dist, queue, tail, cell + 1, next);
+            if (y < height - 1)
+                tail = visit(open, dist, queue, tail, cell + width, next);
+            if (x > 0)
+                tail = visit(open, dist, queue, tail, cell - 1, next);
+        }
+        return dist;
+    }
+
+    private static int visit(boolean[] open, short[] dist, int[] queue, int tail, int cell, short d) {
+        if (!open[cell] || dist[cell] != UNREACHED)
+            return tail;
+        dist[cell] = d;
+        queue[tail] = cell;
+        return tail + 1;
+    }
+
+    /**
+     * @return a lower bound on the length of any path between the two positions,
+     *         never below their Manhattan distance
+     */
+    public int estimate(Position a, Position b) {
+        int ax = Math.max(0, Math.min(width - 1, a.getX() - minX));
+        int ay = Math.max(0, Math.min(height - 1, a.getY() - minY));
+        int bx = Math.max(0, Math.min(width - 1, b.getX() - minX));
+        int by = Math.max(0, Math.min(height - 1, b.getY() - minY));
+        // distance from each position to the cell standing in for it
+        int offset = Math.abs(a.getX() - minX - ax) + Math.abs(a.getY() - minY - ay)
+                + Math.abs(b.getX() - minX - bx) + Math.abs(b.getY() - minY - by);
+        int ia = ay * width + ax;
+        int ib = by * width + bx;
+        int best = Math.abs(a.getX() - b.getX()) + Math.abs(a.getY() - b.getY());
+        for (short[] dist : distances) {
+            if (dist[ia] == UNREACHED || dist[ib] == UNREACHED)
+                continue;
+            best = Math.max(best, Math.abs(dist[ia] - dist[ib]) - offset);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,13 @@
+package dungeonmania.map;
+
+/**
+ * PathStrategy -- search used by GameMap.findPath for the next step of a path
+ *
+ * Maps too large for either are searched through clusters (HierarchicalSearch).
+ */
+public enum PathStrategy {
+    // Dijkstra over every position, handles weighted tiles and portals
+    DIJKSTRA,
+    // jump point search, for uniform cost grids, falls back to DIJKSTRA on weighted tiles or portals
+    JUMP_POINT
+}
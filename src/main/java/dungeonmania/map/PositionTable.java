@@ -0,0 +1,193 @@
+package dungeonmania.map;
+
+import java.util.Collection;
+
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+/**
+ * PositionTable -- shared Position instances for the area covered by a map
+ *
+ * Every position inside the bounds (the map plus a margin) is created the first
+ * time it is looked up and handed out again on every later lookup, so walking
+ * neighbours or translating a position inside the bounds allocates nothing once
+ * warm. Positions outside the bounds are still returned, as new instances.
+ * Searches work on the indices of the cells and only look positions up for the
+ * cells they reach. Lookups may race while enemies plan their moves in parallel,
+ * which at worst makes two equal positions for a cell.
+ *
+ * A table is never resized. A map growing past it gets a larger table covering
+ * this one, and the searches built on it carry their cells over with indexFrom.
+ *
+ * Neighbours are looked up by index, in the same order as
+ * Position.getCardinallyAdjacentPositions and Position.getAdjacentPositions.
+ */
+public class PositionTable {
+    public static final int CARDINAL = 4;
+    public static final int ADJACENT = 8;
+    // sides grow by whole clusters, so the clusters of a HierarchicalSearch keep their cells
+    private static final int GROWTH = HierarchicalSearch.CLUSTER;
+
+    private static final int[] CARDINAL_DX = {0, 1, 0, -1};
+    private static final int[] CARDINAL_DY = {-1, 0, 1, 0};
+    private static final int[] ADJACENT_DX = {-1, 0, 1, 1, 1, 0, -1, -1};
+    private static final int[] ADJACENT_DY = {-1, -1, -1, 0, 1, 1, 1, 0};
+
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final int height;
+    private final Position[] table;
+
+    public PositionTable(int minX, int minY, int maxX, int maxY) {
+        this.minX = minX;
+        this.minY = minY;
+        this.width = Math.max(0, maxX - minX + 1);
+        this.height = Math.max(0, maxY - minY + 1);
+        this.table = new Position[width * height];
+    }
+
+    /**
+     * @return a table covering the given positions, grown by margin on every side
+     */
+    public static PositionTable around(Collection<Position> positions, int margin) {
+        if (positions.isEmpty())
+            return new PositionTable(0, 0, -1, -1);
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        int maxY = Integer.MIN_VALUE;
+        for (Position p : positions) {
+            minX = Math.min(minX, p.getX());
+            minY = Math.min(minY, p.getY());
+            maxX = Math.max(maxX, p.getX());
+            maxY = Math.max(maxY, p.getY());
+        }
+        return new PositionTable(minX - margin, minY - margin, maxX + margin, maxY + margin);
+    }
+
+    /**
+     * @return a table covering this one and the given positions grown by margin,
+     *         with the positions already made kept, or this table if it covers them
+     */
+    public PositionTable grow(Collection<Position> positions, int margin) {
+        PositionTable around = around(positions, margin);
+        if (table.length == 0)
+            return around;
+        int maxX = minX + width - 1;
+        int maxY = minY + height - 1;
+        int left = Math.max(0, minX - around.minX);
+        int top = Math.max(0, minY - around.minY);
+        int right = Math.max(0, around.minX + around.width - 1 - maxX);
+        int bottom = Math.max(0, around.minY + around.height - 1 - maxY);
+        if (left + top + right + bottom == 0)
+            return this;
+        PositionTable grown = new PositionTable(minX - roundUp(left), minY - roundUp(top), maxX + roundUp(right),
+                maxY + roundUp(bottom));
+        for (int j = 0; j < height; j++)
+            System.arraycopy(table, j * width, grown.table, grown.indexFrom(this, j * width), width);
+        return grown;
+    }
+
+    private static int roundUp(int n) {
+        return (n + GROWTH - 1) / GROWTH * GROWTH;
+    }
+
+    /**
+     * Pack a coordinate pair into a single long
+     */
+    public static long pack(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    public static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    public static int unpackY(long packed) {
+        return (int) packed;
+    }
+
+    public int size() {
+        return table.length;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getMinX() {
+        return minX;
+    }
+
+    public int getMinY() {
+        return minY;
+    }
+
+    /**
+     * @return index of the coordinates in the table, or -1 if they are out of bounds
+     */
+    public int indexOf(int x, int y) {
+        int i = x - minX;
+        int j = y - minY;
+        if (i < 0 || j < 0 || i >= width || j >= height)
+            return -1;
+        return j * width + i;
+    }
+
+    public int indexOf(Position p) {
+        return indexOf(p.getX(), p.getY());
+    }
+
+    /**
+     * @return index in this table of a cell of a table it covers, as given by grow
+     */
+    public int indexFrom(PositionTable from, int cell) {
+        return indexOf(from.minX + cell % from.width, from.minY + cell / from.width);
+    }
+
+    public boolean contains(Position p) {
+        return indexOf(p) >= 0;
+    }
+
+    public Position positionAt(int index) {
+        Position p = table[index];
+        if (p == null) {
+            p = new Position(minX + index % width, minY + index / width);
+            table[index] = p;
+        }
+        return p;
+    }
+
+    public Position get(int x, int y) {
+        int i = indexOf(x, y);
+        return (i >= 0) ? positionAt(i) : new Position(x, y);
+    }
+
+    public Position get(long packed) {
+        return get(unpackX(packed), unpackY(packed));
+    }
+
+    public Position translate(Position p, Direction direction) {
+        Position offset = direction.getOffset();
+        return get(p.getX() + offset.getX(), p.getY() + offset.getY());
+    }
+
+    /**
+     * @param i 0 to CARDINAL - 1, clockwise starting from above
+     */
+    public Position cardinal(Position p, int i) {
+        return get(p.getX() + CARDINAL_DX[i], p.getY() + CARDINAL_DY[i]);
+    }
+
+    /**
+     * @param i 0 to ADJACENT - 1, clockwise starting from the top left
+     */
+    public Position adjacent(Position p, int i) {
+        return get(p.getX() + ADJACENT_DX[i], p.getY() + ADJACENT_DY[i]);
+    }
+}
@@ -0,0 +1,278 @@
+package dungeonmania.map;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Portal;
+import dungeonmania.util.Position;
+
+/**
+ * ReachabilityIndex -- connected components of the positions an entity can pass
+ *
+ * Components are kept with union-find over the cells of a PositionTable, with
+ * each pair of portals joined as if they were neighbours. Enemies and the
+ * player are not obstacles here, and portals always count as open, so two
+ * cells in different components can never be joined by a path, while two
+ * cells in one component may still be cut off for now.
+ *
+ * A cell becoming passable is joined with its neighbours on the spot. A cell
+ * becoming blocked is only dropped if the open cells around it stay connected
+ * around it, which cannot split a component. Otherwise, or when a portal is
+ * involved, the components are rebuilt on the next query.
+ *
+ * A grown table keeps the components, the cells it adds are joined as if they
+ * had all become passable.
+ */
+class ReachabilityIndex {
+    private static final int NONE = -1;
+    // the ring around a cell, clockwise from above, cardinal neighbours at even indices
+    private static final int[] RING_DX = {0, 1, 1, 1, 0, -1, -1, -1};
+    private static final int[] RING_DY = {-1, -1, 0, 1, 1, 1, 0, -1};
+
+    private final GameMap map;
+    private PositionTable positions;
+    private final Entity entity;
+    private int width;
+    private int height;
+    private int[] parent;
+    // cells blocked since they were joined, still in their set so it stays intact
+    private boolean[] blocked;
+    private final List<Integer> changed = new ArrayList<>();
+    private boolean stale = true;
+    private int rebuilds = 0;
+
+    ReachabilityIndex(GameMap map, PositionTable positions, Entity entity) {
+        this.map = map;
+        this.positions = positions;
+        this.entity = entity;
+        this.width = positions.getWidth();
+        this.height = positions.getHeight();
+        this.parent = new int[positions.size()];
+        this.blocked = new boolean[positions.size()];
+    }
+
+    PositionTable getPositions() {
+        return positions;
+    }
+
+    /**
+     * Carry the components over to a table grown from the current one
+     */
+    void grow(PositionTable grown) {
+        PositionTable old = positions;
+        int[] oldParent = parent;
+        boolean[] oldBlocked = blocked;
+        positions = grown;
+        width = grown.getWidth();
+        height = grown.getHeight();
+        parent = new int[grown.size()];
+        blocked = new boolean[grown.size()];
+        changed.replaceAll(cell -> grown.indexFrom(old, cell));
+        if (stale)
+            return;
+
+        boolean[] added = new boolean[grown.size()];
+        Arrays.fill(added, true);
+        for (int cell = 0; cell < oldParent.length; cell++) {
+            int moved = grown.indexFrom(old, cell);
+            parent[moved] = (oldParent[cell] == NONE) ? NONE : grown.indexFrom(old, oldParent[cell]);
+            blocked[moved] = oldBlocked[cell];
+            added[moved] = false;
+        }
+        for (int cell = 0; cell < parent.length; cell++) {
+            if (added[cell])
+                parent[cell] = map.canPassThrough(entity, positions.positionAt(cell)) ? cell : NONE;
+        }
+        List<Portal> portals = map.getEntities(Portal.class);
+        for (Portal portal : portals) {
+            int cell = positions.indexOf(portal.getPosition());
+            if (cell != NONE && added[cell])
+                parent[cell] = cell;
+        }
+        for (int cell = 0; cell < parent.length; cell++) {
+            if (!added[cell] || parent[cell] == NONE)
+                continue;
+            for (int i = 0; i < RING_DX.length; i += 2) {
+                int n = cellAt(cell % width + RING_DX[i], cell / width + RING_DY[i]);
+                if (n != NONE && isOpen(n))
+                    union(cell, n);
+            }
+        }
+        for (Portal portal : portals)
+            joinPair(portal);
+    }
+
+    /**
+     * @return number of times the components were built from scratch
+     */
+    int getRebuilds() {
+        return rebuilds;
+    }
+
+    /**
+     * Record that what can be passed at the position may have changed
+     */
+    void invalidate(Position p) {
+        int cell = positions.indexOf(p);
+        if (cell != NONE && !stale)
+            changed.add(cell);
+    }
+
+    /**
+     * @return false if no path can join the two positions, true if one may
+     */
+    boolean connected(Position a, Position b) {
+        update();
+        int ia = positions.indexOf(a);
+        int ib = positions.indexOf(b);
+        if (ia == NONE || ib == NONE || !isOpen(ia) || !isOpen(ib))
+            return true;
+        return find(ia) == find(ib);
+    }
+
+    private boolean isOpen(int cell) {
+        return parent[cell] != NONE && !blocked[cell];
+    }
+
+    private int find(int cell) {
+        while (parent[cell] != cell) {
+            parent[cell] = parent[parent[cell]];
+            cell = parent[cell];
+        }
+        return cell;
+    }
+
+    private void union(int a, int b) {
+        int ra = find(a);
+        int rb = find(b);
+        if (ra != rb)
+            parent[Math.max(ra, rb)] = Math.min(ra, rb);
+    }
+
+    private int cellAt(int x, int y) {
+        return (x < 0 || y < 0 || x >= width || y >= height) ? NONE : y * width + x;
+    }
+
+    private Portal portalAt(int cell) {
+        for (Entity e : map.getEntities(positions.positionAt(cell))) {
+            if (e instanceof Portal)
+                return (Portal) e;
+        }
+        return null;
+    }
+
+    private boolean passable(int cell) {
+        return map.canPassThrough(entity, positions.positionAt(cell)) || portalAt(cell) != null;
+    }
+
+    private void rebuild() {
+        for (int cell = 0; cell < parent.length; cell++) {
+            parent[cell] = map.canPassThrough(entity, positions.positionAt(cell)) ? cell : NONE;
+            blocked[cell] = false;
+        }
+        List<Portal> portals = map.getEntities(Portal.class);
+        for (Portal portal : portals) {
+            int cell = positions.indexOf(portal.getPosition());
+            if (cell != NONE)
+                parent[cell] = cell;
+        }
+        for (int cell = 0; cell < parent.length; cell++) {
+            if (parent[cell] == NONE)
+                continue;
+            int right = cellAt(cell % width + 1, cell / width);
+            int down = cellAt(cell % width, cell / width + 1);
+            if (right != NONE && parent[right] != NONE)
+                union(cell, right);
+            if (down != NONE && parent[down] != NONE)
+                union(cell, down);
+        }
+        for (Portal portal : portals)
+            joinPair(portal);
+        changed.clear();
+        stale = false;
+        rebuilds++;
+    }
+
+    private void joinPair(Portal portal) {
+        Portal pair = portal.getPair();
+        if (pair == null)
+            return;
+        int a = positions.indexOf(portal.getPosition());
+        int b = positions.indexOf(pair.getPosition());
+        if (a != NONE && b != NONE && isOpen(a) && isOpen(b))
+            union(a, b);
+    }
+
+    private void update() {
+        if (stale) {
+            rebuild();
+            return;
+        }
+        for (int i = 0; i < changed.size() && !stale; i++)
+            apply(changed.get(i));
+        if (stale)
+            rebuild();
+        changed.clear();
+    }
+
+    private void apply(int cell) {
+        boolean open = passable(cell);
+        if (open == isOpen(cell))
+            return;
+        Portal portal = portalAt(cell);
+        if (open) {
+            if (parent[cell] == NONE)
+                parent[cell] = cell;
+            blocked[cell] = false;
+            for (int i = 0; i < RING_DX.length; i += 2) {
+                int n = cellAt(cell % width + RING_DX[i], cell / width + RING_DY[i]);
+                if (n != NONE && isOpen(n))
+                    union(cell, n);
+            }
+            if (portal != null)
+                joinPair(portal);
+        } else if (portal != null || splits(cell)) {
+            stale = true;
+        } else {
+            blocked[cell] = true;
+        }
+    }
+
+    /**
+     * @return whether blocking the cell may disconnect its open cardinal neighbours,
+     *         that is whether they do not all lie on one run of open cells around it
+     */
+    private boolean splits(int cell) {
+        boolean[] open = new boolean[RING_DX.length];
+        int first = NONE;
+        for (int i = 0; i < RING_DX.length; i++) {
+            int n = cellAt(cell % width + RING_DX[i], cell / width + RING_DY[i]);
+            open[i] = n != NONE && isOpen(n);
+            if (!open[i] && first == NONE)
+                first = i;
+        }
+        if (first == NONE)
+            return false;
+        int runs = 0;
+        boolean inRun = false;
+        boolean counted = false;
+        for (int k = 1; k <= RING_DX.length; k++) {
+            int i = (first + k) % RING_DX.length;
+            if (!open[i]) {
+                inRun = false;
+                continue;
+            }
+            if (!inRun) {
+                inRun = true;
+                counted = false;
+            }
+            if (i % 2 == 0 && !counted) {
+                runs++;
+                counted = true;
+            }
+        }
+        return runs > 1;
+    }
+}
@@ -0,0 +1,298 @@
+package dungeonmania.map;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.EntityFactory;
+import dungeonmania.entities.EntityIdAllocator;
+import dungeonmania.entities.Portal;
+import dungeonmania.entities.Wall;
+import dungeonmania.util.Position;
+
+/**
+ * StaticLayer -- the terrain of a dungeon (walls, exits and portals)
+ *
+ * Terrain never moves or changes state during a game, so it is built once per
+ * dungeon and shared by every game playing that dungeon. Each GameMap keeps the
+ * other entities in its own nodes, and records the terrain destroyed in its game.
+ *
+ * Walls are kept as a bitset over their bounding box. Movement and path finding
+ * only test the bit, and a Wall entity is only created when it is asked for
+ * (responses, lookups by id, bombs), then reused by every game.
+ *
+ * Terrain entities take their ids from the layer's own allocator. A game
+ * reserves those ids, so a terrain entity has the same id in every game.
+ * Walls take a contiguous block, in the order of their cells.
+ *
+ * Distances from a few landmark cells around the walls are computed with the
+ * layer, and serve as path finding heuristics in every game of the dungeon.
+ */
+public final class StaticLayer implements Serializable {
+    public static final StaticLayer EMPTY = new StaticLayer(new HashMap<>(), 0, 0, 0, new int[0], 0, 0);
+    private static final Set<String> TYPES = Set.of("wall", "exit", "portal");
+    private static final Map<String, StaticLayer> DUNGEONS = new ConcurrentHashMap<>();
+    // walls all behave the same, so one stands in for the wall of every cell
+    private static final Wall WALL = new Wall(new Position(0, 0));
+
+    // exits and portals
+    private final Map<Position, List<Entity>> entities;
+    private final Map<Long, Entity> byId = new HashMap<>();
+    private final Map<Class<?>, Integer> counts = new HashMap<>();
+    private final int size;
+    private final long lastId;
+
+    // walls, cells are numbered row by row over the bounding box
+    private final int minX;
+    private final int minY;
+    private final int width;
+    private final long[] wallBits;
+    private final int[] wallCells;
+    private final long firstWallId;
+    private final Map<Integer, List<Entity>> walls = new ConcurrentHashMap<>();
+    private final Landmarks landmarks;
+
+    private StaticLayer(Map<Position, List<Entity>> entities, int minX, int minY, int width, int[] wallCells,
+            long firstWallId, long lastId) {
+        this.entities = entities;
+        this.minX = minX;
+        this.minY = minY;
+        this.width = width;
+        this.wallCells = wallCells;
+        this.firstWallId = firstWallId;
+        this.lastId = lastId;
+        this.wallBits = new long[(wallCells.length > 0) ? (wallCells[wallCells.length - 1] >> 6) + 1 : 0];
+        for (int cell : wallCells) {
+            wallBits[cell >> 6] |= 1L << cell;
+        }
+
+        int n = wallCells.length;
+        if (n > 0)
+            counts.put(Wall.class, n);
+        for (List<Entity> es : entities.values()) {
+            for (Entity e : es) {
+                byId.put(e.getEntityId(), e);
+                counts.merge(e.getClass(), 1, Integer::sum);
+                n++;
+            }
+        }
+        this.size = n;
+        this.landmarks = (n > 0) ? Landmarks.of(this) : null;
+    }
+
+    /**
+     * @return whether an entity of the dungeon file belongs to the terrain
+     */
+    public static boolean isStatic(JSONObject jsonEntity) {
+        return TYPES.contains(jsonEntity.getString("type"));
+    }
+
+    /**
+     * @return the terrain of the dungeon, built from its entities on first use
+     */
+    public static StaticLayer of(String dungeonName, JSONArray jsonEntities, JSONObject config) {
+        return DUNGEONS.computeIfAbsent(dungeonName, k -> build(jsonEntities, config));
+    }
+
+    static StaticLayer build(JSONArray jsonEntities, JSONObject config) {
+        List<JSONObject> others = new ArrayList<>();
+        List<int[]> wallPositions = new ArrayList<>();
+        int minX = Integer.MAX_VALUE;
+        int minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE;
+        for (int i = 0; i < jsonEntities.length(); i++) {
+            JSONObject jsonEntity = jsonEntities.getJSONObject(i);
+            if (!isStatic(jsonEntity))
+                continue;
+            if (!jsonEntity.getString("type").equals("wall")) {
+                others.add(jsonEntity);
+                continue;
+            }
+            int x = jsonEntity.getInt("x");
+            int y = jsonEntity.getInt("y");
+            wallPositions.add(new int[] {x, y});
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            maxX = Math.max(maxX, x);
+        }
+        int width = wallPositions.isEmpty() ? 0 : maxX - minX + 1;
+        int[] cells = new int[wallPositions.size()];
+        for (int i = 0; i < cells.length; i++) {
+            int[] p = wallPositions.get(i);
+            cells[i] = (p[1] - minY) * width + (p[0] - minX);
+        }
+        // two walls on one cell would be indistinguishable, so they are kept as one
+        cells = Arrays.stream(cells).sorted().distinct().toArray();
+
+        EntityIdAllocator ids = new EntityIdAllocator();
+        long firstWallId = ids.getLast() + 1;
+        ids.reserve(ids.getLast() + cells.length);
+
+        EntityFactory factory = new EntityFactory(config, ids);
+        Map<Position, List<Entity>> entities = new HashMap<>();
+        Map<String, Portal> portals = new HashMap<>();
+        for (JSONObject jsonEntity : others) {
+            Entity entity = factory.createEntity(jsonEntity);
+            entities.computeIfAbsent(entity.getPosition(), p -> new ArrayList<>()).add(entity);
+            if (entity instanceof Portal) {
+                Portal portal = (Portal) entity;
+                Portal pair = portals.putIfAbsent(portal.getColor(), portal);
+                if (pair != null)
+                    portal.bind(pair);
+            }
+        }
+        entities.replaceAll((p, es) -> Collections.unmodifiableList(es));
+        return new StaticLayer(entities, minX, minY, width, cells, firstWallId, ids.getLast());
+    }
+
+    private int cellOf(int x, int y) {
+        int cx = x - minX;
+        int cy = y - minY;
+        if (cx < 0 || cx >= width || cy < 0)
+            return -1;
+        int cell = cy * width + cx;
+        return (cell >> 6) < wallBits.length ? cell : -1;
+    }
+
+    public boolean isWall(Position p) {
+        int cell = cellOf(p.getX(), p.getY());
+        return cell >= 0 && (wallBits[cell >> 6] & (1L << cell)) != 0;
+    }
+
+    /**
+     * @return the wall entity of a cell, created on first use
+     */
+    private List<Entity> wallAt(int k) {
+        return walls.computeIfAbsent(k, i -> {
+            int cell = wallCells[i];
+            Wall wall = new Wall(new Position(minX + cell % width, minY + cell / width));
+            wall.assignId(firstWallId + i);
+            return Collections.singletonList(wall);
+        });
+    }
+
+    private List<Entity> wallAt(Position p) {
+        return wallAt(Arrays.binarySearch(wallCells, cellOf(p.getX(), p.getY())));
+    }
+
+    /**
+     * @return whether walls keep the entity out
+     */
+    public boolean isBlockedByWalls(GameMap map, Entity entity) {
+        return !WALL.canMoveOnto(map, entity);
+    }
+
+    /**
+     * @return distance tables from the landmarks of the dungeon, null if it has none
+     */
+    public Landmarks getLandmarks() {
+        return landmarks;
+    }
+
+    /**
+     * @return whether the terrain at the position lets the entity move onto it,
+     *         ignoring the terrain destroyed in the game
+     */
+    public boolean canMoveOnto(GameMap map, Position p, Entity entity, Set<Entity> destroyed) {
+        if (isWall(p) && !WALL.canMoveOnto(map, entity)
+                && (destroyed.isEmpty() || !destroyed.contains(wallAt(p).get(0))))
+            return false;
+        for (Entity e : entities.getOrDefault(p, Collections.emptyList())) {
+            if (!e.canMoveOnto(map, entity) && !destroyed.contains(e))
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return terrain at the position, the list must not be modified
+     */
+    public List<Entity> getEntities(Position p) {
+        List<Entity> others = entities.getOrDefault(p, Collections.emptyList());
+        if (!isWall(p))
+            return others;
+        if (others.isEmpty())
+            return wallAt(p);
+        List<Entity> res = new ArrayList<>(wallAt(p));
+        res.addAll(others);
+        return res;
+    }
+
+    /**
+     * @return every terrain entity, creating the walls not created yet
+     */
+    public List<Entity> getEntities() {
+        List<Entity> res = new ArrayList<>(size);
+        for (int i = 0; i < wallCells.length; i++)
+            res.addAll(wallAt(i));
+        entities.values().forEach(res::addAll);
+        return res;
+    }
+
+    /**
+     * @return every terrain entity of the type
+     */
+    public List<Entity> getEntities(Class<?> type) {
+        List<Entity> res = new ArrayList<>();
+        if (type.isAssignableFrom(Wall.class)) {
+            for (int i = 0; i < wallCells.length; i++)
+                res.addAll(wallAt(i));
+        }
+        for (List<Entity> es : entities.values()) {
+            for (Entity e : es) {
+                if (type.isInstance(e))
+                    res.add(e);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * @return positions spanning the terrain, the corners of the walls' bounding box
+     *         and the position of every other terrain entity
+     */
+    public Collection<Position> getExtent() {
+        List<Position> extent = new ArrayList<>(entities.keySet());
+        if (wallCells.length > 0) {
+            extent.add(new Position(minX, minY));
+            extent.add(new Position(minX + width - 1, minY + wallCells[wallCells.length - 1] / width));
+        }
+        return extent;
+    }
+
+    public Entity getEntity(long entityId) {
+        if (entityId >= firstWallId && entityId < firstWallId + wallCells.length)
+            return wallAt((int) (entityId - firstWallId)).get(0);
+        return byId.get(entityId);
+    }
+
+    public boolean contains(Entity entity) {
+        return getEntity(entity.getEntityId()) == entity;
+    }
+
+    public Map<Class<?>, Integer> getCounts() {
+        return counts;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the highest id given to a terrain entity
+     */
+    public long getLastId() {
+        return lastId;
+    }
+}
@@ -0,0 +1,32 @@
+package dungeonmania.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * BattleEvent -- JFR event for one BattleFacade.battle
+ */
+@Name("dungeonmania.Battle")
+@Label("Battle")
+@Category("Dungeonmania")
+@Description("A battle between the player and an enemy")
+@Enabled(false)
+public class BattleEvent extends Event {
+    @Label("Enemy")
+    private String enemy;
+
+    @Label("Rounds")
+    private int rounds;
+
+    public void setEnemy(String enemy) {
+        this.enemy = enemy;
+    }
+
+    public void setRounds(int rounds) {
+        this.rounds = rounds;
+    }
+}
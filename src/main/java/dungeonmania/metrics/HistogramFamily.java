@@ -0,0 +1,36 @@
+package dungeonmania.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * HistogramFamily -- latency histograms sharing a name, split by one label
+ */
+public class HistogramFamily {
+    private final String name;
+    private final String help;
+    private final String label;
+    private final Map<String, LatencyHistogram> series = new ConcurrentHashMap<>();
+
+    public HistogramFamily(String name, String help, String label) {
+        this.name = name;
+        this.help = help;
+        this.label = label;
+    }
+
+    public LatencyHistogram get(String value) {
+        return series.computeIfAbsent(value, v -> new LatencyHistogram());
+    }
+
+    public void recordSince(String value, long start) {
+        get(value).recordSince(start);
+    }
+
+    void writeTo(StringBuilder out) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" histogram\n");
+        new ConcurrentSkipListMap<>(series).forEach((value, histogram) -> histogram.writeTo(out, name,
+                label + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\""));
+    }
+}
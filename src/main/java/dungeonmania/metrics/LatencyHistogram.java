@@ -0,0 +1,67 @@
+package dungeonmania.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LatencyHistogram -- counts of durations over fixed buckets
+ *
+ * Bucket bounds grow by a factor of 4 from 1 microsecond to about 1 second.
+ * Recording is a handful of comparisons and a LongAdder increment, so it is
+ * safe to call on the tick path from several sessions at once.
+ */
+public class LatencyHistogram {
+    private static final long[] BOUNDS_NANOS = {
+        1_000L, 4_000L, 16_000L, 64_000L, 256_000L, 1_024_000L, 4_096_000L, 16_384_000L, 65_536_000L,
+        262_144_000L, 1_048_576_000L
+    };
+
+    private final LongAdder[] buckets = new LongAdder[BOUNDS_NANOS.length + 1];
+    private final LongAdder sumNanos = new LongAdder();
+
+    public LatencyHistogram() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long nanos) {
+        int i = 0;
+        while (i < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[i])
+            i++;
+        buckets[i].increment();
+        sumNanos.add(nanos);
+    }
+
+    /**
+     * Record the time elapsed since start, as given by System.nanoTime()
+     */
+    public void recordSince(long start) {
+        record(System.nanoTime() - start);
+    }
+
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets)
+            count += bucket.sum();
+        return count;
+    }
+
+    /**
+     * Append the series in Prometheus text format, in seconds
+     * @param labels rendered labels of the series, e.g. phase="ai_movement", or empty
+     */
+    void writeTo(StringBuilder out, String name, String labels) {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        long cumulative = 0;
+        for (int i = 0; i < BOUNDS_NANOS.length; i++) {
+            cumulative += buckets[i].sum();
+            out.append(name).append("_bucket{").append(prefix).append("le=\"").append(BOUNDS_NANOS[i] / 1e9)
+                    .append("\"} ").append(cumulative).append('\n');
+        }
+        cumulative += buckets[BOUNDS_NANOS.length].sum();
+        out.append(name).append("_bucket{").append(prefix).append("le=\"+Inf\"} ").append(cumulative).append('\n');
+        String series = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(name).append("_sum").append(series).append(' ').append(sumNanos.sum() / 1e9).append('\n');
+        out.append(name).append("_count").append(series).append(' ').append(cumulative).append('\n');
+    }
+}
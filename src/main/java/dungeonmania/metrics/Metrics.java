@@ -0,0 +1,49 @@
+package dungeonmania.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics -- engine latency histograms and counters, shared by all sessions
+ *
+ * Served in Prometheus text format on /api/metrics/.
+ */
+public final class Metrics {
+    public static final HistogramFamily TICK_PHASE = new HistogramFamily("dungeonmania_tick_phase_seconds",
+            "Time spent running the callbacks of each tick phase.", "phase");
+    public static final HistogramFamily CALLBACK = new HistogramFamily("dungeonmania_callback_seconds",
+            "Time spent running a single callback, by callback category.", "category");
+    public static final HistogramFamily ENGINE = new HistogramFamily("dungeonmania_engine_seconds",
+            "Time spent in engine operations outside the tick phases.", "operation");
+
+    public static final LatencyHistogram TICK = new LatencyHistogram();
+    public static final LongAdder TICKS = new LongAdder();
+    // incremental path repairs of allied mercenaries, and the cells each one expanded again
+    public static final LongAdder REPLANS = new LongAdder();
+    public static final LongAdder REPLAN_EXPANDED = new LongAdder();
+
+    private Metrics() {
+    }
+
+    /**
+     * @return every metric in Prometheus text exposition format (version 0.0.4)
+     */
+    public static String scrape() {
+        StringBuilder out = new StringBuilder();
+        out.append("# HELP dungeonmania_ticks_total Ticks run across all sessions.\n");
+        out.append("# TYPE dungeonmania_ticks_total counter\n");
+        out.append("dungeonmania_ticks_total ").append(TICKS.sum()).append('\n');
+        out.append("# HELP dungeonmania_replans_total Incremental path repairs of allied mercenaries.\n");
+        out.append("# TYPE dungeonmania_replans_total counter\n");
+        out.append("dungeonmania_replans_total ").append(REPLANS.sum()).append('\n');
+        out.append("# HELP dungeonmania_replan_expanded_total Cells expanded again by incremental path repairs.\n");
+        out.append("# TYPE dungeonmania_replan_expanded_total counter\n");
+        out.append("dungeonmania_replan_expanded_total ").append(REPLAN_EXPANDED.sum()).append('\n');
+        out.append("# HELP dungeonmania_tick_seconds Time spent running a whole tick.\n");
+        out.append("# TYPE dungeonmania_tick_seconds histogram\n");
+        TICK.writeTo(out, "dungeonmania_tick_seconds", "");
+        TICK_PHASE.writeTo(out);
+        CALLBACK.writeTo(out);
+        ENGINE.writeTo(out);
+        return out.toString();
+    }
+}
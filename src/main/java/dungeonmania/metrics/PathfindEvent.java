@@ -0,0 +1,32 @@
+package dungeonmania.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * PathfindEvent -- JFR event for one path search
+ */
+@Name("dungeonmania.Pathfind")
+@Label("Pathfind")
+@Category("Dungeonmania")
+@Description("A path search for an entity")
+@Enabled(false)
+public class PathfindEvent extends Event {
+    @Label("Entity")
+    private String entity;
+
+    @Label("Nodes Expanded")
+    private int expanded;
+
+    public void setEntity(String entity) {
+        this.entity = entity;
+    }
+
+    public void setExpanded(int expanded) {
+        this.expanded = expanded;
+    }
+}
@@ -0,0 +1,25 @@
+package dungeonmania.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * SessionLockEvent -- JFR event for the time a request waits on its session lock
+ */
+@Name("dungeonmania.SessionLock")
+@Label("Session Lock Wait")
+@Category("Dungeonmania")
+@Description("Time a request spent waiting for the lock of its session")
+@Enabled(false)
+public class SessionLockEvent extends Event {
+    @Label("Session")
+    private String session;
+
+    public void setSession(String session) {
+        this.session = session;
+    }
+}
@@ -0,0 +1,50 @@
+package dungeonmania.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * TickEvent -- JFR event for one Game.tick
+ *
+ * Like the other engine events it is disabled by default. Enable it in a
+ * recording with the settings file src/main/resources/jfr/dungeonmania.jfc.
+ */
+@Name("dungeonmania.Tick")
+@Label("Tick")
+@Category("Dungeonmania")
+@Description("One game tick")
+@Enabled(false)
+public class TickEvent extends Event {
+    @Label("Game")
+    private String game;
+
+    @Label("Tick")
+    private int tick;
+
+    @Label("Entities")
+    private int entities;
+
+    @Label("Callbacks")
+    @Description("Callbacks run during the tick")
+    private int callbacks;
+
+    public void setGame(String game) {
+        this.game = game;
+    }
+
+    public void setTick(int tick) {
+        this.tick = tick;
+    }
+
+    public void setEntities(int entities) {
+        this.entities = entities;
+    }
+
+    public void setCallbacks(int callbacks) {
+        this.callbacks = callbacks;
+    }
+}
@@ -0,0 +1,49 @@
+package dungeonmania.response.models;
+
+import java.util.List;
+
+public final class BatchResponse {
+    private final int applied;
+    private final List<Integer> steps;
+    private final List<DungeonResponse> responses;
+    private final String errorTitle;
+    private final String errorMessage;
+
+    public BatchResponse(int applied, List<Integer> steps, List<DungeonResponse> responses, Exception error) {
+        this.applied = applied;
+        this.steps = steps;
+        this.responses = responses;
+        this.errorTitle = (error != null) ? error.getClass().getSimpleName() : null;
+        this.errorMessage = (error != null) ? error.getLocalizedMessage() : null;
+    }
+
+    /**
+     * @return number of actions applied before the batch finished or stopped
+     */
+    public int getApplied() {
+        return applied;
+    }
+
+    /**
+     * @return index of the action after which each response was taken
+     */
+    public List<Integer> getSteps() {
+        return steps;
+    }
+
+    public List<DungeonResponse> getResponses() {
+        return responses;
+    }
+
+    public boolean isError() {
+        return errorTitle != null;
+    }
+
+    public String getErrorTitle() {
+        return errorTitle;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,102 @@
+package dungeonmania.util;
+
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Trace -- structured engine diagnostics
+ *
+ * Call sites are guarded by the compile-time constant ENABLED:
+ *
+ *     if (Trace.ENABLED)
+ *         Trace.event("door", "%s probed by %s", this, entity);
+ *
+ * With tracing disabled the compiler drops the whole block, so the call site
+ * costs nothing (not even building the arguments).
+ *
+ * With tracing enabled, events go into a fixed size ring buffer and are
+ * formatted and written out by a background thread, so the game thread never
+ * waits on the output. If the writer falls behind, the oldest events are
+ * overwritten and reported as dropped.
+ */
+public final class Trace {
+    public static final boolean ENABLED = false;
+
+    private static final int CAPACITY = 1 << 14;
+    private static final int MASK = CAPACITY - 1;
+    private static final long IDLE_NANOS = 1_000_000;
+
+    private static final AtomicReferenceArray<Event> RING = new AtomicReferenceArray<>(CAPACITY);
+    private static final AtomicLong NEXT = new AtomicLong();
+    private static volatile PrintStream out = System.err;
+    private static Thread writer = null;
+
+    private Trace() {
+    }
+
+    private static final class Event {
+        private final long seq;
+        private final long nanos;
+        private final String thread;
+        private final String category;
+        private final String format;
+        private final Object[] args;
+
+        private Event(long seq, String category, String format, Object[] args) {
+            this.seq = seq;
+            this.nanos = System.nanoTime();
+            this.thread = Thread.currentThread().getName();
+            this.category = category;
+            this.format = format;
+            this.args = args;
+        }
+
+        private String render() {
+            String message = (args.length == 0) ? format : String.format(format, args);
+            return String.format("[trace] %d %s %s: %s", nanos, thread, category, message);
+        }
+    }
+
+    /**
+     * Record an event. The message is only formatted by the writer thread.
+     */
+    public static void event(String category, String format, Object... args) {
+        long seq = NEXT.getAndIncrement();
+        RING.set((int) (seq & MASK), new Event(seq, category, format, args));
+        if (writer == null)
+            startWriter();
+    }
+
+    public static void setOutput(PrintStream stream) {
+        out = stream;
+    }
+
+    private static synchronized void startWriter() {
+        if (writer != null)
+            return;
+        writer = new Thread(Trace::drain, "trace-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private static void drain() {
+        long read = 0;
+        while (true) {
+            Event e = RING.get((int) (read & MASK));
+            if (e == null || e.seq < read) {
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+            if (e.seq > read) {
+                out.printf("[trace] %d events dropped%n", e.seq - read);
+                // the slot was overwritten, resume from the oldest event still held
+                read = Math.max(read, NEXT.get() - CAPACITY);
+                continue;
+            }
+            out.println(e.render());
+            read++;
+        }
+    }
+}
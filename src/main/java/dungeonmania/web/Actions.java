@@ -0,0 +1,59 @@
+package dungeonmania.web;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import dungeonmania.GameAction;
+import dungeonmania.util.Direction;
+
+/**
+ * Actions -- reads GameActions from their JSON form, which uses the same
+ * parameter names as the HTTP routes:
+ *   {"action": "tick", "movementDirection": ...} or {"action": "tick", "itemUsed": ...}
+ *   {"action": "build", "buildable": ...}
+ *   {"action": "interact", "entityId": ...}
+ */
+public final class Actions {
+    private Actions() {
+    }
+
+    public static GameAction parse(JsonObject action) throws IllegalArgumentException {
+        String name = param(action, "action");
+        switch (name) {
+        case "tick":
+            if (action.has("itemUsed"))
+                return GameAction.use(param(action, "itemUsed"));
+            return GameAction.move(Direction.valueOf(param(action, "movementDirection").toUpperCase()));
+        case "build":
+            return GameAction.build(param(action, "buildable"));
+        case "interact":
+            return GameAction.interact(param(action, "entityId"));
+        default:
+            throw new IllegalArgumentException(name + " is not a valid action");
+        }
+    }
+
+    /**
+     * @param json array of actions
+     */
+    public static List<GameAction> parseAll(String json) throws IllegalArgumentException {
+        if (json == null)
+            throw new IllegalArgumentException("Missing parameter actions");
+        List<GameAction> actions = new ArrayList<>();
+        for (JsonElement action : JsonParser.parseString(json).getAsJsonArray()) {
+            actions.add(parse(action.getAsJsonObject()));
+        }
+        return actions;
+    }
+
+    static String param(JsonObject action, String name) throws IllegalArgumentException {
+        JsonElement value = action.get(name);
+        if (value == null || !value.isJsonPrimitive())
+            throw new IllegalArgumentException("Missing parameter " + name);
+        return value.getAsString();
+    }
+}
@@ -0,0 +1,127 @@
+package dungeonmania.web;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import dungeonmania.response.models.AnimationQueue;
+import dungeonmania.response.models.BattleResponse;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.response.models.EntityResponse;
+import dungeonmania.response.models.ItemResponse;
+
+/**
+ * DungeonDelta -- the change between two DungeonResponses, as pushed over the game socket
+ *
+ * Entities are diffed by id. Battles are append-only within a game, so only the
+ * new ones are sent. The battle list of a response is the live list of the
+ * game, so the number of battles already sent is passed in rather than read
+ * back from the previous response. The remaining fields are small and are sent whole.
+ * A reset delta (first frame, new game or rewind) carries the full state and
+ * tells the client to drop what it had.
+ */
+public final class DungeonDelta {
+    private final boolean reset;
+    private final String dungeonId;
+    private final String dungeonName;
+    private final List<EntityResponse> added = new ArrayList<>();
+    private final List<EntityResponse> changed = new ArrayList<>();
+    private final List<String> removed = new ArrayList<>();
+    private final List<ItemResponse> inventory;
+    private final List<BattleResponse> battles;
+    private final List<String> buildables;
+    private final String goals;
+    private final List<AnimationQueue> animations;
+
+    private DungeonDelta(boolean reset, DungeonResponse current, List<BattleResponse> battles) {
+        this.reset = reset;
+        this.dungeonId = current.getDungeonId();
+        this.dungeonName = current.getDungeonName();
+        this.inventory = current.getInventory();
+        this.battles = battles;
+        this.buildables = current.getBuildables();
+        this.goals = current.getGoals();
+        this.animations = current.getAnimations();
+    }
+
+    /**
+     * @param previous     state last sent to the client, or null if nothing was sent yet
+     * @param sentBattles  number of battles the client has already been sent
+     */
+    public static DungeonDelta between(DungeonResponse previous, int sentBattles, DungeonResponse current) {
+        List<BattleResponse> battles = current.getBattles();
+        if (previous == null || !current.getDungeonId().equals(previous.getDungeonId())
+                || battles.size() < sentBattles)
+            return snapshot(current);
+
+        DungeonDelta delta = new DungeonDelta(false, current,
+                new ArrayList<>(battles.subList(sentBattles, battles.size())));
+        Map<String, EntityResponse> before = new HashMap<>();
+        for (EntityResponse e : previous.getEntities()) {
+            before.put(e.getId(), e);
+        }
+        for (EntityResponse e : current.getEntities()) {
+            EntityResponse old = before.remove(e.getId());
+            if (old == null)
+                delta.added.add(e);
+            else if (!old.equals(e))
+                delta.changed.add(e);
+        }
+        delta.removed.addAll(before.keySet());
+        return delta;
+    }
+
+    /**
+     * @return a reset delta carrying the whole of the given state
+     */
+    public static DungeonDelta snapshot(DungeonResponse current) {
+        DungeonDelta delta = new DungeonDelta(true, current, current.getBattles());
+        delta.added.addAll(current.getEntities());
+        return delta;
+    }
+
+    public boolean isReset() {
+        return reset;
+    }
+
+    public String getDungeonId() {
+        return dungeonId;
+    }
+
+    public String getDungeonName() {
+        return dungeonName;
+    }
+
+    public List<EntityResponse> getAdded() {
+        return added;
+    }
+
+    public List<EntityResponse> getChanged() {
+        return changed;
+    }
+
+    public List<String> getRemoved() {
+        return removed;
+    }
+
+    public List<ItemResponse> getInventory() {
+        return inventory;
+    }
+
+    public List<BattleResponse> getBattles() {
+        return battles;
+    }
+
+    public List<String> getBuildables() {
+        return buildables;
+    }
+
+    public String getGoals() {
+        return goals;
+    }
+
+    public List<AnimationQueue> getAnimations() {
+        return animations;
+    }
+}
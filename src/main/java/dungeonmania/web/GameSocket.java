@@ -0,0 +1,170 @@
+package dungeonmania.web;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import javax.servlet.http.HttpSession;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import dungeonmania.DungeonManiaController;
+import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.response.models.GenericResponseWrapper;
+
+/**
+ * GameSocket -- a WebSocket carrying a whole game over one connection
+ *
+ * The client sends the actions read by Actions, as well as
+ *   {"action": "new", "dungeonName": ..., "configName": ...}
+ *   {"action": "state"}
+ * and receives a GenericResponseWrapper of a DungeonDelta after each of them.
+ *
+ * Frames are written one at a time. If a client falls behind by more than
+ * MAX_QUEUED_FRAMES, its queued deltas are dropped and replaced by a single
+ * reset delta of the latest state.
+ *
+ * A socket opened without an HTTP session plays on a controller of its own.
+ * Actions run under the SessionLock given by App, as those of the HTTP routes do.
+ */
+@WebSocket
+public class GameSocket {
+    public static final int MAX_QUEUED_FRAMES = 16;
+    private static final Gson GSON = new Gson();
+
+    private final Function<String, DungeonManiaController> controllers;
+    private final SessionLock lock;
+    private final Map<Session, Connection> connections = new ConcurrentHashMap<>();
+
+    /**
+     * @param controllers looks up the controller of an HTTP session id, so a socket
+     *                    shares its game with the HTTP routes of the same session
+     * @param lock        runs the actions of a socket on its controller
+     */
+    public GameSocket(Function<String, DungeonManiaController> controllers, SessionLock lock) {
+        this.controllers = controllers;
+        this.lock = lock;
+    }
+
+    @OnWebSocketConnect
+    public void connected(Session session) {
+        Object httpSession = session.getUpgradeRequest().getSession();
+        // without an HTTP session there is no game to share, so the socket gets a game of its own
+        String id = (httpSession instanceof HttpSession) ? ((HttpSession) httpSession).getId() : null;
+        DungeonManiaController controller = (id != null) ? controllers.apply(id) : new DungeonManiaController();
+        connections.put(session, new Connection(session, id, controller));
+    }
+
+    @OnWebSocketClose
+    public void closed(Session session, int statusCode, String reason) {
+        connections.remove(session);
+    }
+
+    @OnWebSocketMessage
+    public void message(Session session, String text) {
+        Connection connection = connections.get(session);
+        if (connection == null)
+            return;
+        try {
+            JsonObject action = JsonParser.parseString(text).getAsJsonObject();
+            lock.call(connection.sessionId, connection.controller, dmc -> {
+                try {
+                    connection.push(apply(connection, dmc, action));
+                } catch (InvalidActionException e) {
+                    connection.enqueue(GSON.toJson(GenericResponseWrapper.err(e)));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            connection.enqueue(GSON.toJson(GenericResponseWrapper.err(e)));
+        }
+    }
+
+    private DungeonResponse apply(Connection connection, DungeonManiaController dmc, JsonObject action)
+            throws InvalidActionException {
+        switch (Actions.param(action, "action")) {
+        case "new":
+            return dmc.newGame(Actions.param(action, "dungeonName"), Actions.param(action, "configName"));
+        case "state":
+            connection.resync();
+            return dmc.getDungeonResponseModel();
+        default:
+            return dmc.apply(Actions.parse(action));
+        }
+    }
+
+    private static final class Connection implements WriteCallback {
+        private final Session session;
+        private final String sessionId;
+        private final DungeonManiaController controller;
+        private final Deque<String> outbox = new ArrayDeque<>();
+        // state the client will have once every queued frame is written
+        private DungeonResponse sent = null;
+        private int sentBattles = 0;
+        private boolean writing = false;
+
+        private Connection(Session session, String sessionId, DungeonManiaController controller) {
+            this.session = session;
+            this.sessionId = sessionId;
+            this.controller = controller;
+        }
+
+        private synchronized void resync() {
+            sent = null;
+        }
+
+        private synchronized void push(DungeonResponse state) {
+            if (state == null)
+                return;
+            DungeonDelta delta;
+            if (outbox.size() >= MAX_QUEUED_FRAMES) {
+                // the client is behind, so one snapshot supersedes everything still queued
+                outbox.clear();
+                delta = DungeonDelta.snapshot(state);
+            } else {
+                delta = DungeonDelta.between(sent, sentBattles, state);
+            }
+            sent = state;
+            sentBattles = state.getBattles().size();
+            enqueue(GSON.toJson(GenericResponseWrapper.ok(delta)));
+        }
+
+        private synchronized void enqueue(String frame) {
+            outbox.add(frame);
+            flush();
+        }
+
+        private void flush() {
+            if (writing || outbox.isEmpty() || !session.isOpen())
+                return;
+            writing = true;
+            session.getRemote().sendString(outbox.poll(), this);
+        }
+
+        @Override
+        public synchronized void writeSuccess() {
+            writing = false;
+            flush();
+        }
+
+        @Override
+        public synchronized void writeFailed(Throwable x) {
+            writing = false;
+            outbox.clear();
+            session.close(StatusCode.SERVER_ERROR, x.getMessage());
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package dungeonmania.web;
+
+import java.util.function.Supplier;
+
+/**
+ * ResponseCache -- the last serialized response of a session, with its ETag
+ *
+ * The key is the state tag of the controller (game id and tick count), which
+ * changes with every action applied to the game, so a stale body is never
+ * served and nothing has to be invalidated explicitly.
+ */
+public final class ResponseCache {
+    private String key = null;
+    private String etag = null;
+    private String body = null;
+
+    /**
+     * @param render serializes the current state, only called when the key changed
+     */
+    public synchronized void refresh(String key, Supplier<String> render) {
+        if (key.equals(this.key))
+            return;
+        this.body = render.get();
+        this.key = key;
+        this.etag = "\"" + key + "\"";
+    }
+
+    public synchronized String getEtag() {
+        return etag;
+    }
+
+    public synchronized String getBody() {
+        return body;
+    }
+
+    /**
+     * @param ifNoneMatch value of the If-None-Match header, may be null
+     * @return whether the client already has the cached body
+     */
+    public synchronized boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || etag == null)
+            return false;
+        for (String tag : ifNoneMatch.split(",")) {
+            tag = tag.trim();
+            if (tag.startsWith("W/"))
+                tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag))
+                return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,19 @@
+package dungeonmania.web;
+
+import java.util.function.Function;
+
+import dungeonmania.DungeonManiaController;
+
+/**
+ * SessionLock -- runs an action on a controller while holding its lock
+ *
+ * Implemented by App, so everything touching a game waits on the same lock and
+ * records the wait the same way, whether it comes over HTTP or a socket.
+ */
+@FunctionalInterface
+public interface SessionLock {
+    /**
+     * @param session id of the session the controller belongs to, null if it has none
+     */
+    <T> T call(String session, DungeonManiaController dmc, Function<DungeonManiaController, T> action);
+}
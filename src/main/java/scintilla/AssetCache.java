@@ -0,0 +1,197 @@
+package scintilla;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+import javax.servlet.http.HttpServletResponse;
+
+import spark.Request;
+import spark.Response;
+
+/**
+ * Static files of the web client, loaded once at startup and served from memory.
+ *
+ * Each file keeps its bytes, a gzip variant when that is smaller, and a strong
+ * ETag over its content. Pages are revalidated on every load, everything else
+ * is cached by the browser for a day and revalidated with the ETag after that.
+ */
+final class AssetCache {
+    static final String[] DIRECTORIES = {"app", "images", "fonts", "skins", "languages"};
+    private static final String PAGE_CACHE_CONTROL = "no-cache";
+    private static final String ASSET_CACHE_CONTROL = "public, max-age=86400";
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("html", "text/html; charset=utf-8"),
+            Map.entry("js", "application/javascript; charset=utf-8"),
+            Map.entry("css", "text/css; charset=utf-8"),
+            Map.entry("json", "application/json; charset=utf-8"),
+            Map.entry("txt", "text/plain; charset=utf-8"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("png", "image/png"),
+            Map.entry("jpg", "image/jpeg"),
+            Map.entry("gif", "image/gif"),
+            Map.entry("ico", "image/x-icon"),
+            Map.entry("ttf", "font/ttf"),
+            Map.entry("woff", "font/woff"),
+            Map.entry("woff2", "font/woff2"));
+
+    private static final class Asset {
+        private final byte[] bytes;
+        private final byte[] gzipped;
+        private final String etag;
+        private final String contentType;
+        private final String cacheControl;
+
+        private Asset(String path, byte[] bytes) throws IOException {
+            this.bytes = bytes;
+            byte[] compressed = gzip(bytes);
+            this.gzipped = (compressed.length < bytes.length) ? compressed : null;
+            this.etag = "\"" + digest(bytes) + "\"";
+            this.contentType = contentType(path);
+            this.cacheControl = path.endsWith(".html") ? PAGE_CACHE_CONTROL : ASSET_CACHE_CONTROL;
+        }
+    }
+
+    private final Map<String, Asset> assets = new HashMap<>();
+
+    /**
+     * Load every file below the given classpath directories
+     */
+    void load(String... directories) {
+        for (String directory : directories) {
+            URL url = AssetCache.class.getResource("/" + directory);
+            if (url == null)
+                continue;
+            try {
+                load(url.toURI(), directory);
+            } catch (IOException | URISyntaxException e) {
+                System.err.println("Could not cache static files in " + directory + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void load(URI uri, String directory) throws IOException {
+        if (!uri.getScheme().equals("jar")) {
+            load(Paths.get(uri), directory);
+            return;
+        }
+        FileSystem jar;
+        try {
+            jar = FileSystems.newFileSystem(uri, Map.of());
+        } catch (FileSystemAlreadyExistsException e) {
+            jar = FileSystems.getFileSystem(uri);
+        }
+        load(jar.getPath("/" + directory), directory);
+    }
+
+    private void load(Path root, String directory) throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                String path = directory + "/" + root.relativize(file).toString().replace('\\', '/');
+                assets.put(path, new Asset(path, Files.readAllBytes(file)));
+            }
+        }
+    }
+
+    /**
+     * Spark route serving a cached file, directories map to their index.html
+     */
+    Object serve(Request request, Response response) throws IOException {
+        String path = request.pathInfo().substring(1);
+        if (path.isEmpty() || path.endsWith("/"))
+            path += "index.html";
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            response.status(404);
+            return "";
+        }
+
+        allowAnyOrigin(response);
+        response.type(asset.contentType);
+        response.header("ETag", asset.etag);
+        response.header("Cache-Control", asset.cacheControl);
+        response.header("Vary", "Accept-Encoding");
+        String ifNoneMatch = request.headers("If-None-Match");
+        if (ifNoneMatch != null && ifNoneMatch.contains(asset.etag)) {
+            response.status(304);
+            return "";
+        }
+
+        byte[] body = asset.bytes;
+        String acceptEncoding = request.headers("Accept-Encoding");
+        if (asset.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.header("Content-Encoding", "gzip");
+            body = asset.gzipped;
+        }
+        // written directly, Spark skips a committed response instead of compressing it again
+        HttpServletResponse raw = response.raw();
+        raw.setContentLength(body.length);
+        raw.getOutputStream().write(body);
+        raw.flushBuffer();
+        return "";
+    }
+
+    /**
+     * Spark route serving any other classpath resource, read on every request as
+     * Spark's static files did before the cache
+     */
+    Object serveResource(Request request, Response response) throws IOException {
+        String path = request.pathInfo();
+        if (path.endsWith("/"))
+            path += "index.html";
+        try (InputStream in = AssetCache.class.getResourceAsStream(path)) {
+            if (in == null) {
+                response.status(404);
+                return "";
+            }
+            allowAnyOrigin(response);
+            response.type(contentType(path));
+            return in.readAllBytes();
+        }
+    }
+
+    private static void allowAnyOrigin(Response response) {
+        response.header("Access-Control-Allow-Origin", "*");
+        response.header("Access-Control-Allow-Methods", "*");
+        response.header("Access-Control-Allow-Headers", "*");
+    }
+
+    private static String contentType(String path) {
+        String extension = path.substring(path.lastIndexOf('.') + 1).toLowerCase();
+        return CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static String digest(byte[] bytes) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -9,15 +9,13 @@ final class WebServer {
     private String ipAddress = Environment.getIPAddress();
     private int port = Environment.getPort();
     private boolean isSecure = Environment.isSecure();
+    private AssetCache assets = new AssetCache();
 
     public void initialize() {
         port(port);
         ipAddress(ipAddress);
 
-        staticFiles.location("/");
-        staticFiles.header("Access-Control-Allow-Origin", "*");
-        staticFiles.header("Access-Control-Allow-Methods", "*");
-        staticFiles.header("Access-Control-Allow-Headers", "*");
+        assets.load(AssetCache.DIRECTORIES);
 
         initExceptionHandler((e) -> {
             System.err.println("Exception " + e.getMessage() + " was raised");
@@ -26,6 +24,13 @@ final class WebServer {
     }
 
     public void finalize() {
+        // mapped last, websockets have to be mapped before any route
+        for (String directory : AssetCache.DIRECTORIES) {
+            get("/" + directory + "/", assets::serve);
+            get("/" + directory + "/*", assets::serve);
+        }
+        // anything else on the classpath, as served before the cache
+        get("/*", assets::serveResource);
         awaitInitialization();
     }
 
@@ -0,0 +1,59 @@
+package dungeonmania.battles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.buildables.Sceptre;
+import dungeonmania.entities.buildables.Shield;
+import dungeonmania.entities.collectables.Sword;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class BattleBuffTest {
+    @Test
+    @DisplayName("Test the buff kept for allies and items matches folding every source in turn")
+    public void keptBuffMatchesFold() {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        Player player = SyntheticGames.addPlayer(map, new Position(0, 0));
+        List<Mercenary> mercenaries = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Mercenary mercenary = new Mercenary(new Position(2 + i % 10, 2 + i / 10), 1, 1, 1, 1, 1 + i % 3, 1);
+            map.addEntity(mercenary);
+            mercenaries.add(mercenary);
+        }
+        game.init();
+
+        player.pickUp(new Sceptre(1));
+        player.pickUp(new Sword(new Position(0, 0), 2, Integer.MAX_VALUE));
+        player.pickUp(new Shield(Integer.MAX_VALUE, 3));
+        for (int i = 0; i < mercenaries.size(); i += 2)
+            mercenaries.get(i).interact(player, game);
+        assertEquals(mercenaries.size() / 2, game.getBattleFacade().getAllyBuff().size());
+        // an ally blown up no longer helps
+        map.destroyEntity(mercenaries.get(0));
+        assertEquals(mercenaries.size() / 2 - 1, game.getBattleFacade().getAllyBuff().size());
+
+        // the buff folded over the map and the inventory, as every battle used to
+        BattleStatistics folded = new BattleStatistics(0, 0, 0, 1, 1);
+        folded = new Sword(new Position(0, 0), 2, 1).applyBuff(folded);
+        folded = new Shield(1, 3).applyBuff(folded);
+        for (Mercenary mercenary : map.getEntities(Mercenary.class)) {
+            if (mercenary.isAllied())
+                folded = BattleStatistics.applyBuff(folded, mercenary.getBattleStatistics());
+        }
+        BattleStatistics kept = game.getBattleFacade().getAllyBuff()
+                .applyTo(player.getInventory().getEquipmentBuff().applyTo(new BattleStatistics(0, 0, 0, 1, 1)));
+        assertEquals(folded.getAttack(), kept.getAttack());
+        assertEquals(folded.getDefence(), kept.getDefence());
+    }
+}
@@ -0,0 +1,38 @@
+package dungeonmania.benchmarks;
+
+import java.lang.management.ManagementFactory;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * Allocation -- bytes allocated and time taken by the current thread between start and stop
+ */
+final class Allocation {
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private final long thread = Thread.currentThread().getId();
+    private long bytes;
+    private long nanos;
+
+    private Allocation() {
+        bytes = THREADS.getThreadAllocatedBytes(thread);
+        nanos = System.nanoTime();
+    }
+
+    static Allocation start() {
+        return new Allocation();
+    }
+
+    void stop() {
+        nanos = System.nanoTime() - nanos;
+        bytes = THREADS.getThreadAllocatedBytes(thread) - bytes;
+    }
+
+    long getBytes() {
+        return bytes;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+}
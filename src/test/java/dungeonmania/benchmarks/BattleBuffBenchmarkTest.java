@@ -0,0 +1,64 @@
+package dungeonmania.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.buildables.Sceptre;
+import dungeonmania.entities.buildables.Shield;
+import dungeonmania.entities.collectables.Sword;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class BattleBuffBenchmarkTest {
+    private static final int MERCENARIES = 5000;
+    private static final int WARMUP = 2000;
+    private static final int BATTLES = 20000;
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark battles with 2500 allied mercenaries out of 5000")
+    public void battleSetup(TestReporter reporter) {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        Player player = SyntheticGames.addPlayer(map, new Position(0, 0));
+        List<Mercenary> mercenaries = new ArrayList<>();
+        for (int i = 0; i < MERCENARIES; i++) {
+            Mercenary mercenary = new Mercenary(new Position(2 + i % 100, 2 + i / 100), 1, 1, 1, 1, 1 + i % 3, 1);
+            map.addEntity(mercenary);
+            mercenaries.add(mercenary);
+        }
+        game.init();
+
+        player.pickUp(new Sceptre(1));
+        player.pickUp(new Sword(new Position(0, 0), 2, Integer.MAX_VALUE));
+        player.pickUp(new Shield(Integer.MAX_VALUE, 3));
+        for (int i = 0; i < MERCENARIES; i += 2)
+            mercenaries.get(i).interact(player, game);
+
+        for (int i = 0; i < WARMUP; i++)
+            fight(game, player);
+        long start = System.nanoTime();
+        for (int i = 0; i < BATTLES; i++)
+            fight(game, player);
+        long end = System.nanoTime();
+
+        reporter.publishEntry("battle", String.format("%.2f us/battle with %d allies", (end - start) / 1e3 / BATTLES,
+                game.getBattleFacade().getAllyBuff().size()));
+    }
+
+    private void fight(Game game, Player player) {
+        player.setHealth(Player.DEFAULT_HEALTH);
+        game.getBattleFacade().battle(game, player, new ZombieToast(new Position(1, 0), 1, 1));
+        game.getBattleFacade().getBattleResponses().clear();
+    }
+}
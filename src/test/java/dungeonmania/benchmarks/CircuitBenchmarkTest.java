@@ -0,0 +1,98 @@
+package dungeonmania.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.LightBulb;
+import dungeonmania.entities.Switch;
+import dungeonmania.entities.Wire;
+import dungeonmania.map.GameMap;
+import dungeonmania.util.Position;
+
+public class CircuitBenchmarkTest {
+    private static final int WIRES = 100_000;
+    private static final int BULB_SPACING = 10;
+    private static final int ROUNDS = 20;
+
+    private GameMap map;
+    private Switch sw;
+    private List<Wire> wires;
+
+    // S - - - - ... - L
+    //   L         L
+    private void buildCircuit() {
+        map = new GameMap();
+        wires = new ArrayList<>();
+
+        sw = new Switch(new Position(0, 0));
+        map.addEntity(sw);
+        for (int x = 1; x <= WIRES; x++) {
+            Wire wire = new Wire(new Position(x, 0));
+            map.addEntity(wire);
+            wires.add(wire);
+            if (x % BULB_SPACING == 0) {
+                LightBulb bulb = new LightBulb(new Position(x, 1), "or");
+                map.addEntity(bulb);
+                bulb.subscribe(wire);
+                wire.subscribe(bulb);
+            }
+        }
+        LightBulb end = new LightBulb(new Position(WIRES + 1, 0), "and");
+        map.addEntity(end);
+        end.subscribe(wires.get(WIRES - 1));
+        wires.get(WIRES - 1).subscribe(end);
+
+        sw.subscribe(wires.get(0));
+        wires.get(0).subscribe(sw);
+        for (int i = 0; i + 1 < WIRES; i++) {
+            wires.get(i).subscribe(wires.get(i + 1));
+            wires.get(i + 1).subscribe(wires.get(i));
+        }
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark toggling a switch feeding 100k wires and 10k light bulbs")
+    public void toggleLongWire(TestReporter reporter) {
+        buildCircuit();
+        Boulder boulder = new Boulder(sw.getPosition());
+
+        long start = System.nanoTime();
+        map.getCircuit().compile(map);
+        long compiled = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            sw.onOverlap(map, boulder);
+            map.getCircuit().evaluate(map);
+            sw.onMovedAway(map, boulder);
+            map.getCircuit().evaluate(map);
+        }
+        long toggled = System.nanoTime();
+
+        reporter.publishEntry("circuit", String.format("compile %d wires %.1f ms, %d toggles %.3f ms/toggle", WIRES,
+                (compiled - start) / 1e6, 2 * ROUNDS, (toggled - compiled) / 1e6 / (2 * ROUNDS)));
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark cutting a powered 100k wire circuit in half")
+    public void cutLongWire(TestReporter reporter) {
+        buildCircuit();
+        Boulder boulder = new Boulder(sw.getPosition());
+        map.getCircuit().compile(map);
+        sw.onOverlap(map, boulder);
+        map.getCircuit().evaluate(map);
+
+        long start = System.nanoTime();
+        map.destroyEntity(wires.get(WIRES / 2));
+        map.getCircuit().evaluate(map);
+        long end = System.nanoTime();
+
+        reporter.publishEntry("circuit", String.format("recompile after cut %.1f ms", (end - start) / 1e6));
+    }
+}
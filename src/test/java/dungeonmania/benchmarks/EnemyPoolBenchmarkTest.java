@@ -0,0 +1,77 @@
+package dungeonmania.benchmarks;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.entities.enemies.ZombieToastSpawner;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class EnemyPoolBenchmarkTest {
+    private static final int SIZE = 9;
+    private static final int WARMUP = 200;
+    private static final int TICKS = 2000;
+
+    // the player boxed in with four spawners, each zombie spawns next to the
+    // player and walks into it the tick after, to die in battle
+    private Game buildDungeon() {
+        Game game = SyntheticGames.create("{\"zombie_spawn_interval\": 1}");
+        GameMap map = game.getMap();
+        Position centre = new Position(SIZE / 2, SIZE / 2);
+        Set<Position> open = new HashSet<>();
+        open.add(centre);
+        for (Position p : centre.getCardinallyAdjacentPositions()) {
+            open.add(p);
+            Position spawner = Position.translateBy(p, Position.calculatePositionBetween(centre, p));
+            open.add(spawner);
+            map.addEntity(new ZombieToastSpawner(spawner, 1));
+        }
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                if (!open.contains(new Position(x, y)))
+                    map.addEntity(new Wall(new Position(x, y)));
+            }
+        }
+        Player player = new Player(centre, 1e9, 1e9);
+        map.addEntity(player);
+        map.setPlayer(player);
+        game.init();
+        return game;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark zombies spawned and killed every tick with recycled enemies")
+    public void spawnAndKill(TestReporter reporter) {
+        Game game = buildDungeon();
+        Set<Entity> incarnations = new HashSet<>();
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < WARMUP; i++) {
+            game.tick();
+            for (ZombieToast z : game.getMap().getEntities(ZombieToast.class)) {
+                incarnations.add(z);
+                ids.add(z.getId());
+            }
+        }
+
+        Allocation allocation = Allocation.start();
+        for (int i = 0; i < TICKS; i++)
+            game.tick();
+        allocation.stop();
+
+        reporter.publishEntry("enemy pool", String.format("%d zombies spawned as %d objects while warming up, "
+                + "%.1f KB/tick %.3f ms/tick", ids.size(), incarnations.size(), allocation.getBytes() / 1024.0 / TICKS,
+                allocation.getNanos() / 1e6 / TICKS));
+    }
+}
@@ -0,0 +1,106 @@
+package dungeonmania.benchmarks;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Enemy;
+import dungeonmania.entities.enemies.Spider;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class EnemyStoreBenchmarkTest {
+    private static final int SIZE = 200;
+    private static final int ZOMBIES = 8000;
+    private static final int SPIDERS = 2000;
+    private static final int OBSTACLES = 4000;
+    private static final int WARMUP = 30;
+    private static final int TICKS = 30;
+
+    // a walled room scattered with walls and boulders, with the player walled in
+    // at its centre and 10k enemies around
+    private Game buildDungeon(boolean planMoves) {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        map.setPlanMoves(planMoves);
+        SyntheticGames.enclose(map, SIZE);
+        Position centre = new Position(SIZE / 2, SIZE / 2);
+        SyntheticGames.addWalledInPlayer(map, centre);
+
+        Random random = new Random(11);
+        for (int i = 0; i < OBSTACLES; i++) {
+            Position p = new Position(2 + random.nextInt(SIZE - 4), 2 + random.nextInt(SIZE - 4));
+            if (Math.abs(p.getX() - centre.getX()) > 2 || Math.abs(p.getY() - centre.getY()) > 2)
+                map.addEntity((i % 3 == 0) ? new Boulder(p) : new Wall(p));
+        }
+        for (int i = 0; i < ZOMBIES; i++) {
+            ZombieToast zombie = new ZombieToast(SyntheticGames.free(map, random, SIZE), 1, 1);
+            zombie.getRandGen().setSeed(i);
+            map.addEntity(zombie);
+        }
+        for (int i = 0; i < SPIDERS; i++)
+            map.addEntity(new Spider(SyntheticGames.free(map, random, SIZE), 1, 1));
+        game.init();
+        return game;
+    }
+
+    private static double tickMillis(Game game) {
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++)
+            game.tick(Direction.UP);
+        return (System.nanoTime() - start) / 1e6 / TICKS;
+    }
+
+    // every enemy planned through its object, as a map scan would reach it
+    private static double objectPlanMillis(GameMap map) {
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++) {
+            for (Enemy e : map.getEntities(Enemy.class))
+                e.getStore().planMove(e.getSlot(), map);
+        }
+        return (System.nanoTime() - start) / 1e6 / TICKS;
+    }
+
+    // every enemy planned by the kernel over the columns of the store
+    private static double columnPlanMillis(GameMap map) {
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++)
+            map.planMoves();
+        map.clearPlans();
+        return (System.nanoTime() - start) / 1e6 / TICKS;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark 10k zombies and spiders planned and moved over the enemy store")
+    public void moveTenThousandEnemies(TestReporter reporter) {
+        Game game = buildDungeon(true);
+        Game serial = buildDungeon(false);
+        GameMap map = game.getMap();
+
+        for (int i = 0; i < WARMUP; i++) {
+            game.tick(Direction.UP);
+            serial.tick(Direction.UP);
+        }
+        double serialMillis = tickMillis(serial);
+        double planMillis = tickMillis(game);
+
+        objectPlanMillis(map);
+        columnPlanMillis(map);
+        double objectMillis = objectPlanMillis(map);
+        double columnMillis = columnPlanMillis(map);
+
+        reporter.publishEntry("enemy store", String.format("%d enemies, %.2f ms/tick planned in bulk, "
+                + "%.2f ms/tick one by one, planning %.2f ms through the objects, %.2f ms over the columns",
+                ZOMBIES + SPIDERS, planMillis, serialMillis, objectMillis, columnMillis));
+    }
+}
@@ -0,0 +1,36 @@
+package dungeonmania.benchmarks;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.EntityFactory;
+import dungeonmania.util.Position;
+
+public class EntityIdBenchmarkTest {
+    private static final int ENTITIES = 1_000_000;
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark allocating ids for 1M spawned enemies")
+    public void spawnManyEnemies(TestReporter reporter) {
+        Game game = new Game("synthetic");
+        EntityFactory factory = new EntityFactory(new JSONObject(), game.getIdAllocator());
+        Position origin = new Position(0, 0);
+        int length = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ENTITIES; i++) {
+            Entity e = (i % 2 == 0) ? factory.buildSpider(origin) : factory.buildZombieToast(origin);
+            length += e.getId().length();
+        }
+        long end = System.nanoTime();
+
+        reporter.publishEntry("entity ids", String.format("%d entities %.1f ns/entity, %.1f characters/id", ENTITIES,
+                (double) (end - start) / ENTITIES, (double) length / ENTITIES));
+    }
+}
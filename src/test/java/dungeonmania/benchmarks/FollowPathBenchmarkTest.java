@@ -0,0 +1,137 @@
+package dungeonmania.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.map.PathStrategy;
+import dungeonmania.metrics.Metrics;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class FollowPathBenchmarkTest {
+    private static final int SIZE = 60;
+    private static final int TICKS = 2000;
+
+    private final Random random = new Random(3);
+    private Maze maze;
+    private GameMap map;
+    private Player player;
+    private Mercenary mercenary;
+    private List<Boulder> boulders = new ArrayList<>();
+
+    private void buildDungeon(Position playerPosition) {
+        Position start = new Position(1, 1);
+        maze = Maze.random(SIZE, 0.2, random, Set.of(start, playerPosition));
+        map = new GameMap();
+        maze.addWalls(map);
+        player = SyntheticGames.addPlayer(map, playerPosition);
+        mercenary = new Mercenary(start, 1, 1, 1, 1, 1, 1);
+        map.addEntity(mercenary);
+    }
+
+    private boolean isFree(Position p) {
+        return !maze.isBlocked(p) && !p.equals(player.getPosition()) && !p.equals(mercenary.getPosition());
+    }
+
+    private Position randomNeighbour(Position p) {
+        List<Position> free = new ArrayList<>();
+        for (Position n : p.getCardinallyAdjacentPositions()) {
+            if (isFree(n))
+                free.add(n);
+        }
+        return free.isEmpty() ? p : free.get(random.nextInt(free.size()));
+    }
+
+    // drops a boulder on a free cell, or lifts one already dropped
+    private void changeMap() {
+        if (!boulders.isEmpty() && random.nextBoolean()) {
+            Boulder boulder = boulders.remove(random.nextInt(boulders.size()));
+            maze.setBlocked(boulder.getPosition(), false);
+            map.destroyEntity(boulder);
+            return;
+        }
+        Position p = new Position(1 + random.nextInt(SIZE - 2), 1 + random.nextInt(SIZE - 2));
+        if (!isFree(p))
+            return;
+        Boulder boulder = new Boulder(p);
+        maze.setBlocked(p, true);
+        map.addEntity(boulder);
+        boulders.add(boulder);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark a mercenary following a wandering player while boulders come and go")
+    public void followWanderingPlayer(TestReporter reporter) {
+        buildDungeon(new Position(1, 2));
+        report(reporter, "close behind", true, true);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark a mercenary watching a distant player while boulders come and go")
+    public void watchDistantPlayer(TestReporter reporter) {
+        buildDungeon(new Position(SIZE - 2, SIZE - 2));
+        report(reporter, "far away", false, true);
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark a mercenary watching a distant player standing still while boulders come and go")
+    public void watchStillPlayer(TestReporter reporter) {
+        buildDungeon(new Position(SIZE - 2, SIZE - 2));
+        report(reporter, "far away and still", false, false);
+    }
+
+    private void report(TestReporter reporter, String name, boolean chase, boolean wander) {
+        follow(chase, wander);
+        long expandedBefore = Metrics.REPLAN_EXPANDED.sum();
+        long[] nanos = follow(chase, wander);
+        long expanded = Metrics.REPLAN_EXPANDED.sum() - expandedBefore;
+
+        reporter.publishEntry("follow path " + name, String.format("%.1f cells expanded again per tick, "
+                + "%.3f ms/tick repaired, %.3f ms/tick searched from scratch", (double) expanded / TICKS,
+                nanos[0] / 1e6 / TICKS, nanos[1] / 1e6 / TICKS));
+    }
+
+    /**
+     * @param chase  whether the mercenary takes the steps found, or stays where it is
+     * @param wander whether the player walks around, or stays where it is
+     * @return time spent repairing the kept search, and searching from scratch
+     */
+    private long[] follow(boolean chase, boolean wander) {
+        long replanNanos = 0;
+        long searchNanos = 0;
+        for (int tick = 0; tick < TICKS; tick++) {
+            if (wander)
+                map.moveTo(player, randomNeighbour(player.getPosition()));
+            changeMap();
+            if (chase && random.nextInt(20) == 0)
+                map.moveTo(mercenary, randomNeighbour(mercenary.getPosition()));
+
+            Position src = mercenary.getPosition();
+            long start = System.nanoTime();
+            Position next = map.followPath(src, player.getPosition(), mercenary);
+            long replanned = System.nanoTime();
+            map.findPath(src, player.getPosition(), mercenary, PathStrategy.DIJKSTRA);
+            searchNanos += System.nanoTime() - replanned;
+            replanNanos += replanned - start;
+
+            if (chase && !next.equals(player.getPosition()))
+                map.moveTo(mercenary, next);
+        }
+        return new long[] {replanNanos, searchNanos};
+    }
+}
@@ -0,0 +1,45 @@
+package dungeonmania.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class HierarchicalPathBenchmarkTest {
+    private static final int WIDTH = 1200;
+    private static final int HEIGHT = 60;
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark a mercenary crossing a 1200x60 maze, far beyond the reach of a plain search")
+    public void crossLargeMaze(TestReporter reporter) {
+        Maze maze = Maze.comb(WIDTH, HEIGHT);
+        GameMap map = new GameMap();
+        map.setTerrain(maze.toTerrain("synthetic_large_comb_maze"));
+        Position dest = new Position(WIDTH - 3, 5);
+        SyntheticGames.addPlayer(map, dest);
+        Mercenary mercenary = new Mercenary(new Position(1, 5), 1, 1, 1, 1, 1, 1);
+        map.addEntity(mercenary);
+        int optimal = maze.distancesTo(dest)[1][5];
+
+        long start = System.nanoTime();
+        Position next = map.dijkstraPathFind(mercenary.getPosition(), dest, mercenary);
+        long first = System.nanoTime();
+        int steps = 1;
+        while (!next.equals(dest) && !next.equals(mercenary.getPosition())) {
+            map.moveTo(mercenary, next);
+            next = map.dijkstraPathFind(mercenary.getPosition(), dest, mercenary);
+            steps++;
+        }
+        long end = System.nanoTime();
+
+        reporter.publishEntry("hierarchical path", String.format("first search %.1f ms, %d steps (shortest %d), "
+                + "%.3f ms/step", (first - start) / 1e6, steps, optimal, (end - first) / 1e6 / steps));
+    }
+}
@@ -0,0 +1,46 @@
+package dungeonmania.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.collectables.Arrow;
+import dungeonmania.entities.collectables.SunStone;
+import dungeonmania.entities.collectables.Sword;
+import dungeonmania.entities.collectables.Treasure;
+import dungeonmania.entities.collectables.Wood;
+import dungeonmania.entities.inventory.Inventory;
+import dungeonmania.map.GameMap;
+import dungeonmania.util.Position;
+
+public class InventoryBenchmarkTest {
+    private static final int ITEMS = 30_000;
+    private static final int RESPONSES = 100_000;
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark computing buildables for an inventory of 30k items")
+    public void buildablesOfLargeInventory(TestReporter reporter) {
+        GameMap map = new GameMap();
+        Inventory inventory = new Inventory();
+        Position origin = new Position(0, 0);
+        for (int i = 0; i < ITEMS / 3; i++) {
+            inventory.add(new Wood(origin));
+            inventory.add(new Arrow(origin));
+            inventory.add(new Treasure(origin));
+        }
+        inventory.add(new SunStone(origin));
+        inventory.add(new Sword(origin, 1, 1));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < RESPONSES; i++) {
+            inventory.getBuildables(map);
+            inventory.count(Wood.class);
+        }
+        long end = System.nanoTime();
+
+        reporter.publishEntry("inventory", String.format("%d items, %d responses %.3f us/response", ITEMS,
+                RESPONSES, (end - start) / 1e3 / RESPONSES));
+    }
+}
@@ -0,0 +1,52 @@
+package dungeonmania.benchmarks;
+
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.map.PathStrategy;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class JumpPointBenchmarkTest {
+    private static final int SIZE = 40;
+    private static final int SEARCHES = 2000;
+    private static final Position START = new Position(1, 1);
+    private static final Position PLAYER = new Position(SIZE - 2, SIZE - 2);
+
+    private GameMap map;
+    private Mercenary mercenary;
+
+    private double searchMillis(PathStrategy strategy) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++)
+            map.findPath(START, PLAYER, mercenary, strategy);
+        return (System.nanoTime() - start) / 1e6 / SEARCHES;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark jump point search against Dijkstra across a 40x40 room")
+    public void searchAcrossRoom(TestReporter reporter) {
+        map = new GameMap();
+        Maze.random(SIZE, 0.05, new Random(7), Set.of(START, PLAYER)).addWalls(map);
+        SyntheticGames.addPlayer(map, PLAYER);
+        mercenary = new Mercenary(START, 1, 1, 1, 1, 1, 1);
+        map.addEntity(mercenary);
+
+        searchMillis(PathStrategy.DIJKSTRA);
+        searchMillis(PathStrategy.JUMP_POINT);
+        double dijkstraMillis = searchMillis(PathStrategy.DIJKSTRA);
+        double jumpMillis = searchMillis(PathStrategy.JUMP_POINT);
+
+        reporter.publishEntry("jump point search", String.format("%.3f ms with Dijkstra, %.3f ms with jump points",
+                dijkstraMillis, jumpMillis));
+    }
+}
@@ -0,0 +1,59 @@
+package dungeonmania.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.map.PathStrategy;
+import dungeonmania.map.StaticLayer;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class LandmarkBenchmarkTest {
+    private static final int SIZE = 40;
+    private static final int SEARCHES = 2000;
+    private static final Position START = new Position(1, SIZE / 2);
+    private static final Position PLAYER = new Position(13, SIZE / 2);
+
+    private static GameMap buildDungeon(StaticLayer terrain) {
+        GameMap map = new GameMap();
+        map.setTerrain(terrain);
+        SyntheticGames.addPlayer(map, PLAYER);
+        map.addEntity(new Mercenary(START, 1, 1, 1, 1, 1, 1));
+        return map;
+    }
+
+    private static double searchMillis(GameMap map, Mercenary mercenary) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++)
+            map.findPath(START, PLAYER, mercenary, PathStrategy.JUMP_POINT);
+        return (System.nanoTime() - start) / 1e6 / SEARCHES;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark jump point search through a comb maze with landmark and Manhattan heuristics")
+    public void searchWithLandmarks(TestReporter reporter) {
+        Maze maze = Maze.comb(SIZE, SIZE);
+        StaticLayer terrain = maze.toTerrain("synthetic_landmark_comb_maze");
+        GameMap landmarks = buildDungeon(terrain);
+        // a game that destroyed any of its terrain falls back to Manhattan distances
+        GameMap manhattan = buildDungeon(terrain);
+        manhattan.destroyEntity(manhattan.getEntities(new Position(0, 0)).get(0));
+        Mercenary m1 = landmarks.getEntities(Mercenary.class).get(0);
+        Mercenary m2 = manhattan.getEntities(Mercenary.class).get(0);
+
+        searchMillis(landmarks, m1);
+        searchMillis(manhattan, m2);
+        double landmarkMillis = searchMillis(landmarks, m1);
+        double manhattanMillis = searchMillis(manhattan, m2);
+
+        reporter.publishEntry("landmarks", String.format("path of %d steps, %.3f ms with landmarks, "
+                + "%.3f ms with Manhattan distances", maze.distancesTo(PLAYER)[START.getX()][START.getY()],
+                landmarkMillis, manhattanMillis));
+    }
+}
@@ -0,0 +1,62 @@
+package dungeonmania.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Switch;
+import dungeonmania.entities.collectables.Treasure;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class MoveDispatchBenchmarkTest {
+    private static final int ZOMBIES = 500;
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 1000;
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark allocations of 500 zombies stepping between switches and treasure")
+    public void allocationsPerMove(TestReporter reporter) {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        List<ZombieToast> zombies = new ArrayList<>();
+        for (int i = 0; i < ZOMBIES; i++) {
+            // every zombie moves away from a switch onto a treasure and back
+            Position p = new Position(2 * (i % 50), i / 50);
+            map.addEntity(new Switch(p));
+            map.addEntity(new Treasure(Position.translateBy(p, Direction.RIGHT)));
+            ZombieToast zombie = new ZombieToast(p, 1, 1);
+            map.addEntity(zombie);
+            zombies.add(zombie);
+        }
+        SyntheticGames.addPlayer(map, new Position(0, -2));
+        game.init();
+
+        for (int i = 0; i < WARMUP; i++)
+            step(map, zombies);
+        Allocation allocation = Allocation.start();
+        for (int i = 0; i < ROUNDS; i++)
+            step(map, zombies);
+        allocation.stop();
+
+        long moves = 2L * ROUNDS * ZOMBIES;
+        reporter.publishEntry("move dispatch", String.format("%.2f bytes/move %.0f ns/move",
+                (double) allocation.getBytes() / moves, (double) allocation.getNanos() / moves));
+    }
+
+    private void step(GameMap map, List<ZombieToast> zombies) {
+        for (ZombieToast zombie : zombies)
+            map.moveTo(zombie, Direction.RIGHT);
+        for (ZombieToast zombie : zombies)
+            map.moveTo(zombie, Direction.LEFT);
+    }
+}
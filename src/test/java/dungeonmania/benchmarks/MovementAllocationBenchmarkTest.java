@@ -0,0 +1,56 @@
+package dungeonmania.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class MovementAllocationBenchmarkTest {
+    private static final int SIZE = 50;
+    private static final int ZOMBIES = 300;
+    private static final int MERCENARIES = 20;
+    private static final int WARMUP = 20;
+    private static final int TICKS = 100;
+
+    // a walled room, with the player walled in at its centre so enemies wander
+    // and hostile mercenaries keep searching for a path
+    private Game buildDungeon() {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        SyntheticGames.enclose(map, SIZE);
+        SyntheticGames.addWalledInPlayer(map, new Position(SIZE / 2, SIZE / 2));
+
+        for (int i = 0; i < ZOMBIES; i++) {
+            map.addEntity(new ZombieToast(new Position(1 + i % (SIZE - 2), 1 + i / (SIZE - 2)), 1, 1));
+        }
+        for (int i = 0; i < MERCENARIES; i++) {
+            map.addEntity(new Mercenary(new Position(1 + i, SIZE - 2), 1, 1, 1, 1, 1, 1));
+        }
+        game.init();
+        return game;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark allocations per tick with 300 zombies and 20 hostile mercenaries")
+    public void allocationsPerTick(TestReporter reporter) {
+        Game game = buildDungeon();
+        for (int i = 0; i < WARMUP; i++)
+            game.tick(Direction.UP);
+        Allocation allocation = Allocation.start();
+        for (int i = 0; i < TICKS; i++)
+            game.tick(Direction.UP);
+        allocation.stop();
+
+        reporter.publishEntry("movement", String.format("%.1f KB/tick %.2f ms/tick",
+                allocation.getBytes() / 1024.0 / TICKS, allocation.getNanos() / 1e6 / TICKS));
+    }
+}
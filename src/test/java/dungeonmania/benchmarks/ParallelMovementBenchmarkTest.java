@@ -0,0 +1,80 @@
+package dungeonmania.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Spider;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class ParallelMovementBenchmarkTest {
+    private static final int SIZE = 120;
+    private static final int ZOMBIES = 2000;
+    private static final int SPIDERS = 500;
+    private static final int OBSTACLES = 1500;
+    private static final int WARMUP = 20;
+    private static final int TICKS = 100;
+
+    // a walled room scattered with walls and boulders, with the player walled in
+    // at its centre, crowded with wandering zombies and circling spiders
+    private Game buildDungeon(boolean planMoves) {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        map.setPlanMoves(planMoves);
+        SyntheticGames.enclose(map, SIZE);
+        Position centre = new Position(SIZE / 2, SIZE / 2);
+        SyntheticGames.addWalledInPlayer(map, centre);
+
+        Random random = new Random(7);
+        for (int i = 0; i < OBSTACLES; i++) {
+            Position p = new Position(2 + random.nextInt(SIZE - 4), 2 + random.nextInt(SIZE - 4));
+            if (Math.abs(p.getX() - centre.getX()) > 2 || Math.abs(p.getY() - centre.getY()) > 2)
+                map.addEntity((i % 3 == 0) ? new Boulder(p) : new Wall(p));
+        }
+        for (int i = 0; i < ZOMBIES; i++)
+            map.addEntity(new ZombieToast(SyntheticGames.free(map, random, SIZE), 1, 1));
+        for (int i = 0; i < SPIDERS; i++)
+            map.addEntity(new Spider(SyntheticGames.free(map, random, SIZE), 1, 1));
+        game.init();
+        List<ZombieToast> zombies = map.getEntities(ZombieToast.class);
+        for (int i = 0; i < zombies.size(); i++)
+            zombies.get(i).getRandGen().setSeed(i);
+        return game;
+    }
+
+    private static double tickMillis(Game game) {
+        long start = System.nanoTime();
+        for (int i = 0; i < TICKS; i++)
+            game.tick(Direction.UP);
+        return (System.nanoTime() - start) / 1e6 / TICKS;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark 2000 zombies and 500 spiders moving with and without parallel planning")
+    public void planMovesInParallel(TestReporter reporter) {
+        Game serial = buildDungeon(false);
+        Game parallel = buildDungeon(true);
+        for (int i = 0; i < WARMUP; i++) {
+            serial.tick(Direction.UP);
+            parallel.tick(Direction.UP);
+        }
+        double serialMillis = tickMillis(serial);
+        double parallelMillis = tickMillis(parallel);
+
+        reporter.publishEntry("planning", String.format("%d enemies on %d cores, %.2f ms/tick one after the other, "
+                + "%.2f ms/tick planned in parallel", ZOMBIES + SPIDERS, Runtime.getRuntime().availableProcessors(),
+                serialMillis, parallelMillis));
+    }
+}
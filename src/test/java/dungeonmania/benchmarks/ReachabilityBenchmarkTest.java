@@ -0,0 +1,71 @@
+package dungeonmania.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.map.PathStrategy;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class ReachabilityBenchmarkTest {
+    private static final int SIZE = 100;
+    private static final int MERCENARIES = 20;
+    private static final int TICKS = 200;
+    private static final Position CENTRE = new Position(SIZE / 2, SIZE / 2);
+    private static final Position GAP = new Position(SIZE / 2 + 1, SIZE / 2);
+
+    private GameMap map;
+    private List<Mercenary> mercenaries;
+    private Wall gapWall;
+
+    // a room with the player shut in a box of walls in the middle
+    private void buildDungeon() {
+        map = new GameMap();
+        SyntheticGames.enclose(map, SIZE);
+        for (Position p : CENTRE.getAdjacentPositions()) {
+            Wall wall = new Wall(p);
+            map.addEntity(wall);
+            if (p.equals(GAP))
+                gapWall = wall;
+        }
+        SyntheticGames.addPlayer(map, CENTRE);
+        mercenaries = new ArrayList<>();
+        for (int i = 0; i < MERCENARIES; i++) {
+            Mercenary mercenary = new Mercenary(new Position(2 + 4 * i, 3 + (i % 2) * 90), 1, 1, 1, 1, 1, 1);
+            map.addEntity(mercenary);
+            mercenaries.add(mercenary);
+        }
+    }
+
+    private double searchMillis() {
+        long start = System.nanoTime();
+        for (int tick = 0; tick < TICKS; tick++) {
+            for (Mercenary m : mercenaries)
+                map.findPath(m.getPosition(), CENTRE, m, PathStrategy.DIJKSTRA);
+        }
+        return (System.nanoTime() - start) / 1e6 / TICKS;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark 20 mercenaries searching for a player shut in by walls")
+    public void searchForWalledOffPlayer(TestReporter reporter) {
+        buildDungeon();
+        searchMillis();
+        double sealedMillis = searchMillis();
+        // blowing up a wall of the box opens it
+        map.destroyEntity(gapWall);
+        double openMillis = searchMillis();
+
+        reporter.publishEntry("reachability", String.format("%d mercenaries, %.3f ms/tick with the player shut in, "
+                + "%.3f ms/tick with a way in", MERCENARIES, sealedMillis, openMillis));
+    }
+}
@@ -0,0 +1,45 @@
+package dungeonmania.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.GameBuilder;
+
+public class StaticLayerBenchmarkTest {
+    private static final int GAMES = 200;
+
+    private static Game newGame() {
+        return new GameBuilder().setConfigName("simple").setDungeonName("maze").buildGame();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark heap used by 200 concurrent games of the maze dungeon")
+    public void manyGamesShareTerrain(TestReporter reporter) {
+        newGame();
+        long before = usedHeap();
+        long start = System.nanoTime();
+        List<Game> games = new ArrayList<>();
+        for (int i = 0; i < GAMES; i++) {
+            games.add(newGame());
+        }
+        long end = System.nanoTime();
+        long after = usedHeap();
+
+        reporter.publishEntry("static layer", String.format("%d games of maze %.1f ms, %.1f KiB/game, "
+                + "%d shared terrain entities", GAMES, (end - start) / 1e6, (after - before) / 1024.0 / GAMES,
+                games.get(0).getMap().getTerrain().size()));
+    }
+}
@@ -0,0 +1,59 @@
+package dungeonmania.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.Game;
+import dungeonmania.entities.LightBulb;
+import dungeonmania.entities.Switch;
+import dungeonmania.entities.Wire;
+import dungeonmania.entities.collectables.Bomb;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class SubscriptionBenchmarkTest {
+    private static final int ROWS = 100;
+    private static final int COLUMNS = 300;
+
+    // even rows: S - - - - - - - - - S - - ...
+    // odd rows:  B         L         B     ...
+    private Game buildDungeon() {
+        Game game = new Game("synthetic");
+        GameMap map = new GameMap();
+        map.setGame(game);
+        for (int y = 0; y < 2 * ROWS; y += 2) {
+            for (int x = 0; x < COLUMNS; x++) {
+                if (x % 10 == 0) {
+                    map.addEntity(new Switch(new Position(x, y)));
+                    map.addEntity(new Bomb(new Position(x, y + 1), Bomb.DEFAULT_RADIUS));
+                } else {
+                    map.addEntity(new Wire(new Position(x, y)));
+                }
+                if (x % 10 == 5) {
+                    map.addEntity(new LightBulb(new Position(x, y + 1), "or"));
+                }
+            }
+        }
+        SyntheticGames.addPlayer(map, new Position(-2, -2));
+        game.setMap(map);
+        return game;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark loading a dungeon with 27k wires, 3k switches and 3k light bulbs")
+    public void loadCircuitHeavyDungeon(TestReporter reporter) {
+        Game game = buildDungeon();
+        GameMap map = game.getMap();
+
+        long start = System.nanoTime();
+        game.init();
+        long end = System.nanoTime();
+
+        reporter.publishEntry("subscriptions", String.format("init %d wires %d switches %.1f ms",
+                map.getEntities(Wire.class).size(), map.getEntities(Switch.class).size(), (end - start) / 1e6));
+    }
+}
@@ -0,0 +1,53 @@
+package dungeonmania.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class WallLayerBenchmarkTest {
+    private static final int WIDTH = 400;
+    private static final int HEIGHT = 40;
+    private static final int SEARCHES = 2000;
+
+    private static Mercenary populate(GameMap map) {
+        SyntheticGames.addPlayer(map, new Position(13, 5));
+        Mercenary mercenary = new Mercenary(new Position(1, 5), 1, 1, 1, 1, 1, 1);
+        map.addEntity(mercenary);
+        return mercenary;
+    }
+
+    private static double searchMillis(GameMap map, Mercenary mercenary) {
+        long start = System.nanoTime();
+        for (int i = 0; i < SEARCHES; i++)
+            map.dijkstraPathFind(mercenary.getPosition(), map.getPlayer().getPosition(), mercenary);
+        return (System.nanoTime() - start) / 1e6 / SEARCHES;
+    }
+
+    @Test
+    @Tag("benchmark")
+    @DisplayName("Benchmark path finding through a 400x40 maze of walls held as entities and as a bitset")
+    public void pathFindThroughWalls(TestReporter reporter) {
+        Maze maze = Maze.comb(WIDTH, HEIGHT);
+        GameMap entities = new GameMap();
+        maze.addWalls(entities);
+        Mercenary m1 = populate(entities);
+        GameMap bitset = new GameMap();
+        bitset.setTerrain(maze.toTerrain("synthetic_comb_maze"));
+        Mercenary m2 = populate(bitset);
+
+        searchMillis(entities, m1);
+        searchMillis(bitset, m2);
+        double entityMillis = searchMillis(entities, m1);
+        double bitsetMillis = searchMillis(bitset, m2);
+
+        reporter.publishEntry("wall layer", String.format("%d walls, path find %.2f ms with wall entities, "
+                + "%.2f ms with the bitset", bitset.getTerrain().size(), entityMillis, bitsetMillis));
+    }
+}
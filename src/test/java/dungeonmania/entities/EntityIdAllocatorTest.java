@@ -0,0 +1,43 @@
+package dungeonmania.entities;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.map.GameMap;
+import dungeonmania.util.Position;
+
+public class EntityIdAllocatorTest {
+    @Test
+    @DisplayName("Test every spawned enemy gets an id of its own, and is found by it on the map")
+    public void spawnedEnemiesGetUniqueIds() {
+        Game game = new Game("synthetic");
+        EntityFactory factory = new EntityFactory(new JSONObject(), game.getIdAllocator());
+        Position origin = new Position(0, 0);
+        Set<String> ids = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Entity e = (i % 2 == 0) ? factory.buildSpider(origin) : factory.buildZombieToast(origin);
+            ids.add(e.getId());
+        }
+        assertEquals(1000, ids.size());
+        // base 36, so a million entities fit in 4 characters
+        assertEquals(4, EntityIdAllocator.encode(1_000_000).length());
+
+        GameMap map = new GameMap();
+        Entity spider = factory.buildSpider(origin);
+        map.addEntity(spider);
+        assertSame(spider, map.getEntity(spider.getId()));
+        map.moveTo(spider, new Position(1, 0));
+        assertSame(spider, map.getEntity(spider.getEntityId()));
+        map.removeNode(spider);
+        assertNull(map.getEntity(spider.getEntityId()));
+    }
+}
@@ -0,0 +1,70 @@
+package dungeonmania.entities.enemies;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Wall;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class EnemyPoolTest {
+    @Test
+    @DisplayName("Test zombies spawned and killed every tick are recycled without reusing an id")
+    public void pooledZombiesGetFreshIds() {
+        // the player boxed in with four spawners, each zombie spawns next to the
+        // player and walks into it the tick after, to die in battle
+        Game game = SyntheticGames.create("{\"zombie_spawn_interval\": 1}");
+        GameMap map = game.getMap();
+        Position centre = new Position(4, 4);
+        Set<Position> open = new HashSet<>();
+        open.add(centre);
+        for (Position p : centre.getCardinallyAdjacentPositions()) {
+            open.add(p);
+            Position spawner = Position.translateBy(p, Position.calculatePositionBetween(centre, p));
+            open.add(spawner);
+            map.addEntity(new ZombieToastSpawner(spawner, 1));
+        }
+        for (int x = 0; x < 9; x++) {
+            for (int y = 0; y < 9; y++) {
+                if (!open.contains(new Position(x, y)))
+                    map.addEntity(new Wall(new Position(x, y)));
+            }
+        }
+        Player player = new Player(centre, 1e9, 1e9);
+        map.addEntity(player);
+        map.setPlayer(player);
+        game.init();
+
+        Set<Entity> incarnations = new HashSet<>();
+        Set<String> seen = new HashSet<>();
+        Set<String> live = new HashSet<>();
+        int spawns = 0;
+        for (int i = 0; i < 50; i++) {
+            game.tick();
+            Set<String> now = new HashSet<>();
+            for (ZombieToast z : map.getEntities(ZombieToast.class)) {
+                now.add(z.getId());
+                incarnations.add(z);
+                // a zombie never shows up under the id of one before it
+                if (!live.contains(z.getId())) {
+                    assertFalse(seen.contains(z.getId()));
+                    spawns++;
+                }
+                seen.add(z.getId());
+            }
+            live = now;
+        }
+        assertTrue(spawns > 0);
+        assertTrue(incarnations.size() < spawns);
+    }
+}
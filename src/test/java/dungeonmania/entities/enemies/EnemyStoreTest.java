@@ -0,0 +1,51 @@
+package dungeonmania.entities.enemies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.map.GameMap;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class EnemyStoreTest {
+    @Test
+    @DisplayName("Test enemies keep their state as they move into the store of a map and out again")
+    public void enemiesKeepStateAcrossStores() {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        SyntheticGames.addPlayer(map, new Position(0, 0));
+        Spider spider = new Spider(new Position(5, 5), 3, 1);
+        ZombieToast zombie = new ZombieToast(new Position(1, 1), 5, 2);
+        zombie.getRandGen().setSeed(42);
+        map.addEntity(spider);
+        map.addEntity(zombie);
+        game.init();
+        assertSame(spider.getStore(), zombie.getStore());
+        assertEquals(5, zombie.getHealth());
+        assertEquals(new Position(1, 1), zombie.getPosition());
+
+        // the generator over the seed column draws as java.util.Random does
+        Random random = new Random(42);
+        for (int i = 0; i < 10; i++)
+            assertEquals(random.nextInt(i + 1), zombie.getRandGen().nextInt(i + 1));
+
+        int slot = zombie.getSlot();
+        map.destroyEntity(zombie);
+        assertNotSame(spider.getStore(), zombie.getStore());
+        assertEquals(5, zombie.getHealth());
+        assertEquals(random.nextInt(7), zombie.getRandGen().nextInt(7));
+
+        // the slot left behind is taken by the next enemy
+        ZombieToast next = new ZombieToast(new Position(2, 2), 1, 1);
+        map.addEntity(next);
+        assertEquals(slot, next.getSlot());
+        assertEquals(3, spider.getHealth());
+    }
+}
@@ -0,0 +1,67 @@
+package dungeonmania.entities.inventory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.entities.collectables.Arrow;
+import dungeonmania.entities.collectables.SunStone;
+import dungeonmania.entities.collectables.Sword;
+import dungeonmania.entities.collectables.Treasure;
+import dungeonmania.entities.collectables.Wood;
+import dungeonmania.entities.collectables.potions.InvincibilityPotion;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.map.GameMap;
+import dungeonmania.util.Position;
+
+public class InventoryTest {
+    @Test
+    @DisplayName("Test buildables are kept until the inventory or the zombies on the map change")
+    public void buildablesKeptUntilChange() {
+        GameMap map = new GameMap();
+        Inventory inventory = new Inventory();
+        Position origin = new Position(0, 0);
+        for (int i = 0; i < 10; i++) {
+            inventory.add(new Wood(origin));
+            inventory.add(new Arrow(origin));
+            inventory.add(new Treasure(origin));
+        }
+        inventory.add(new SunStone(origin));
+        inventory.add(new Sword(origin, 1, 1));
+
+        List<String> buildables = inventory.getBuildables(map);
+        assertSame(buildables, inventory.getBuildables(map));
+        assertEquals(10, inventory.count(Wood.class));
+        assertEquals(List.of("bow", "shield", "sceptre", "midnight_armour"), buildables);
+
+        // midnight armour cannot be built with zombies around
+        map.addEntity(new ZombieToast(origin, 1, 1));
+        assertEquals(List.of("bow", "shield", "sceptre"), inventory.getBuildables(map));
+    }
+
+    @Test
+    @DisplayName("Test adding an item already held keeps a single copy of it")
+    public void addingHeldItemKeepsOneCopy() {
+        Inventory inventory = new Inventory();
+        Position origin = new Position(0, 0);
+        Sword sword = new Sword(origin, 1, 1);
+        inventory.add(new InvincibilityPotion(origin, 1));
+        // counted once before the sword comes, so the kept buckets must pick it up
+        assertEquals(0, inventory.count(Sword.class));
+        assertTrue(inventory.add(sword));
+        assertFalse(inventory.add(sword));
+
+        assertEquals(1, inventory.count(Sword.class));
+        assertEquals(List.of(sword), inventory.getEquipment());
+        assertEquals(1, inventory.getEquipmentBuff().size());
+        inventory.remove(sword);
+        assertEquals(0, inventory.count(Sword.class));
+        assertEquals(0, inventory.getEquipmentBuff().size());
+    }
+}
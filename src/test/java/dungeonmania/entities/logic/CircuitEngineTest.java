@@ -0,0 +1,146 @@
+package dungeonmania.entities.logic;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.LightBulb;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Switch;
+import dungeonmania.entities.Wire;
+import dungeonmania.entities.collectables.Bomb;
+import dungeonmania.map.GameMap;
+import dungeonmania.util.Position;
+
+public class CircuitEngineTest {
+    private static final int WIRES = 100;
+
+    private GameMap map;
+    private Switch sw;
+    private List<Wire> wires;
+    private List<LightBulb> bulbs;
+
+    // S - - - - ... - L
+    //   L         L
+    private void buildCircuit() {
+        map = new GameMap();
+        wires = new ArrayList<>();
+        bulbs = new ArrayList<>();
+
+        sw = new Switch(new Position(0, 0));
+        map.addEntity(sw);
+        for (int x = 1; x <= WIRES; x++) {
+            Wire wire = new Wire(new Position(x, 0));
+            map.addEntity(wire);
+            wires.add(wire);
+            if (x % 10 == 0) {
+                LightBulb bulb = new LightBulb(new Position(x, 1), "or");
+                map.addEntity(bulb);
+                bulb.subscribe(wire);
+                wire.subscribe(bulb);
+                bulbs.add(bulb);
+            }
+        }
+        LightBulb end = new LightBulb(new Position(WIRES + 1, 0), "and");
+        map.addEntity(end);
+        end.subscribe(wires.get(WIRES - 1));
+        wires.get(WIRES - 1).subscribe(end);
+        bulbs.add(end);
+
+        sw.subscribe(wires.get(0));
+        wires.get(0).subscribe(sw);
+        for (int i = 0; i + 1 < WIRES; i++) {
+            wires.get(i).subscribe(wires.get(i + 1));
+            wires.get(i + 1).subscribe(wires.get(i));
+        }
+    }
+
+    private static Entity entityAt(GameMap map, Class<? extends Entity> type, int x, int y) {
+        return map.getEntities(new Position(x, y)).stream().filter(type::isInstance).findFirst().get();
+    }
+
+    @Test
+    @DisplayName("Test toggling a switch powers every light bulb of a long wire, and turns them all off again")
+    public void toggleLongWire() {
+        buildCircuit();
+        Boulder boulder = new Boulder(sw.getPosition());
+        map.getCircuit().compile(map);
+        assertEquals(1, map.getCircuit().getComponentCount());
+
+        for (int i = 0; i < 3; i++) {
+            sw.onOverlap(map, boulder);
+            map.getCircuit().evaluate(map);
+            assertTrue(bulbs.stream().allMatch(LightBulb::getActivationStatus));
+
+            sw.onMovedAway(map, boulder);
+            map.getCircuit().evaluate(map);
+            assertFalse(bulbs.stream().anyMatch(LightBulb::getActivationStatus));
+        }
+    }
+
+    @Test
+    @DisplayName("Test cutting a powered wire in half turns off the bulbs past the cut")
+    public void cutLongWire() {
+        buildCircuit();
+        Boulder boulder = new Boulder(sw.getPosition());
+        map.getCircuit().compile(map);
+        sw.onOverlap(map, boulder);
+        map.getCircuit().evaluate(map);
+
+        map.destroyEntity(wires.get(WIRES / 2));
+        map.getCircuit().evaluate(map);
+        assertEquals(2, map.getCircuit().getComponentCount());
+        assertTrue(map.getCircuit().isPowered(wires.get(0)));
+        assertFalse(map.getCircuit().isPowered(wires.get(WIRES - 1)));
+        for (LightBulb bulb : bulbs) {
+            assertEquals(bulb.getPosition().getX() <= WIRES / 2, bulb.getActivationStatus());
+        }
+    }
+
+    @Test
+    @DisplayName("Test loading a dungeon subscribes every switch, wire, bomb and light bulb to its neighbours")
+    public void initSubscribesNeighbours() {
+        // even rows: S - - - - - - - - - S - - ...
+        // odd rows:  B         L         B     ...
+        Game game = new Game("synthetic");
+        GameMap map = new GameMap();
+        map.setGame(game);
+        for (int y = 0; y < 4; y += 2) {
+            for (int x = 0; x < 30; x++) {
+                if (x % 10 == 0) {
+                    map.addEntity(new Switch(new Position(x, y)));
+                    map.addEntity(new Bomb(new Position(x, y + 1), Bomb.DEFAULT_RADIUS));
+                } else {
+                    map.addEntity(new Wire(new Position(x, y)));
+                }
+                if (x % 10 == 5) {
+                    map.addEntity(new LightBulb(new Position(x, y + 1), "or"));
+                }
+            }
+        }
+        Player player = new Player(new Position(-2, -2), Player.DEFAULT_HEALTH, Player.DEFAULT_ATTACK);
+        map.addEntity(player);
+        map.setPlayer(player);
+        game.setMap(map);
+        game.init();
+
+        Wire wire = (Wire) entityAt(map, Wire.class, 1, 0);
+        Switch sw = (Switch) entityAt(map, Switch.class, 10, 0);
+        assertEquals(2, wire.getSubs().size());
+        assertTrue(wire.getSubs().contains(entityAt(map, Switch.class, 0, 0)));
+        // left wire, right wire and bomb
+        assertEquals(3, sw.getSubs().size());
+        // wires above and below
+        assertEquals(2, ((LightBulb) entityAt(map, LightBulb.class, 5, 1)).getSubs().size());
+        assertEquals(6, map.getCircuit().getComponentCount());
+    }
+}
@@ -0,0 +1,38 @@
+package dungeonmania.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.collectables.Bomb;
+import dungeonmania.entities.collectables.LogicalBomb;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Position;
+
+public class BlastResolverTest {
+    @Test
+    @DisplayName("Test an unpicked logical bomb caught in a blast is destroyed without going off")
+    public void unpickedLogicalBombDoesNotChain() {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        Bomb bomb = new Bomb(new Position(0, 0), 1);
+        bomb.setState(Bomb.State.PLACED);
+        map.addEntity(bomb);
+        // in the blast of the bomb, with a wall in its own blast only
+        LogicalBomb logicalBomb = new LogicalBomb(new Position(1, 0), 1, "or");
+        map.addEntity(logicalBomb);
+        Wall wall = new Wall(new Position(2, 0));
+        map.addEntity(wall);
+        SyntheticGames.addPlayer(map, new Position(10, 10));
+        game.init();
+
+        bomb.explode(map);
+        assertTrue(map.getEntities(LogicalBomb.class).isEmpty());
+        assertEquals(1, map.getEntities(Wall.class).size());
+        assertTrue(map.getEntities(wall.getPosition()).contains(wall));
+    }
+}
@@ -0,0 +1,61 @@
+package dungeonmania.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Switch;
+import dungeonmania.entities.collectables.Treasure;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class MoveDispatchTest {
+    @Test
+    @DisplayName("Test zombies stepping between switches and treasure leave both where they were")
+    public void zombiesStepOverSwitchesAndTreasure() {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        List<ZombieToast> zombies = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            // every zombie moves away from a switch onto a treasure and back
+            Position p = new Position(2 * i, 0);
+            map.addEntity(new Switch(p));
+            map.addEntity(new Treasure(Position.translateBy(p, Direction.RIGHT)));
+            ZombieToast zombie = new ZombieToast(p, 1, 1);
+            map.addEntity(zombie);
+            zombies.add(zombie);
+        }
+        SyntheticGames.addPlayer(map, new Position(0, -2));
+        game.init();
+
+        for (int round = 0; round < 3; round++) {
+            for (ZombieToast zombie : zombies)
+                map.moveTo(zombie, Direction.RIGHT);
+            for (ZombieToast zombie : zombies)
+                map.moveTo(zombie, Direction.LEFT);
+        }
+        for (int i = 0; i < zombies.size(); i++)
+            assertEquals(new Position(2 * i, 0), zombies.get(i).getPosition());
+        assertEquals(zombies.size(), map.getEntities(Treasure.class).size());
+        assertEquals(0, map.getPlayer().getInventory().count(Treasure.class));
+        // a zombie is not heavy enough to keep a switch down
+        for (Switch sw : map.getEntities(Switch.class))
+            assertFalse(sw.isActivated());
+        // a tile left empty holds no node
+        map.moveTo(zombies.get(0), Direction.UP);
+        assertEquals(new Position(0, -1), zombies.get(0).getPosition());
+        map.moveTo(zombies.get(0), Direction.DOWN);
+        assertFalse(map.getGraphNode().containsKey(new Position(0, -1)));
+        for (GraphNode node : map.getGraphNode().values())
+            assertNotEquals(0, node.size());
+    }
+}
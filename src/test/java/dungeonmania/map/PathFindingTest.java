@@ -0,0 +1,267 @@
+package dungeonmania.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Exit;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.util.Position;
+
+public class PathFindingTest {
+    private static Player addPlayer(GameMap map, Position position) {
+        Player player = new Player(position, Player.DEFAULT_HEALTH, Player.DEFAULT_ATTACK);
+        map.addEntity(player);
+        map.setPlayer(player);
+        return player;
+    }
+
+    private static Mercenary addMercenary(GameMap map, Position position) {
+        Mercenary mercenary = new Mercenary(position, 1, 1, 1, 1, 1, 1);
+        map.addEntity(mercenary);
+        return mercenary;
+    }
+
+    private static void assertShortestStep(int[][] dist, Position src, Position next) {
+        int d = dist[src.getX()][src.getY()];
+        if (d <= 0) {
+            assertEquals(src, next);
+            return;
+        }
+        assertEquals(d - 1, dist[next.getX()][next.getY()]);
+    }
+
+    @Test
+    @DisplayName("Test jump point search takes a step along a shortest path in random mazes")
+    public void jumpPointStepsAlongShortestPath() {
+        Random random = new Random(42);
+        Position src = new Position(1, 1);
+        Position dest = new Position(13, 13);
+        for (int i = 0; i < 50; i++) {
+            Maze maze = Maze.random(15, 0.3, random, Set.of(src, dest));
+            GameMap map = new GameMap();
+            maze.addWalls(map);
+            addPlayer(map, dest);
+            Mercenary mercenary = addMercenary(map, src);
+
+            Position next = map.findPath(src, dest, mercenary, PathStrategy.JUMP_POINT);
+            assertShortestStep(maze.distancesTo(dest), src, next);
+        }
+    }
+
+    @Test
+    @DisplayName("Test a mercenary following the player steps along a shortest path while boulders come and go")
+    public void followPathStepsAlongShortestPath() {
+        Random random = new Random(3);
+        Position start = new Position(1, 1);
+        Position dest = new Position(18, 18);
+        Maze maze = Maze.random(20, 0.2, random, Set.of(start, dest));
+        GameMap map = new GameMap();
+        maze.addWalls(map);
+        addPlayer(map, dest);
+        Mercenary mercenary = addMercenary(map, start);
+
+        List<Boulder> boulders = new ArrayList<>();
+        for (int tick = 0; tick < 300; tick++) {
+            // drop a boulder on a free cell, or lift one already dropped
+            if (!boulders.isEmpty() && random.nextBoolean()) {
+                Boulder boulder = boulders.remove(random.nextInt(boulders.size()));
+                maze.setBlocked(boulder.getPosition(), false);
+                map.destroyEntity(boulder);
+            } else {
+                Position p = new Position(1 + random.nextInt(18), 1 + random.nextInt(18));
+                if (!maze.isBlocked(p) && !p.equals(dest) && !p.equals(mercenary.getPosition())) {
+                    Boulder boulder = new Boulder(p);
+                    maze.setBlocked(p, true);
+                    map.addEntity(boulder);
+                    boulders.add(boulder);
+                }
+            }
+
+            Position src = mercenary.getPosition();
+            Position next = map.followPath(src, dest, mercenary);
+            assertShortestStep(maze.distancesTo(dest), src, next);
+            if (!next.equals(dest))
+                map.moveTo(mercenary, next);
+        }
+    }
+
+    @Test
+    @DisplayName("Test the search through clusters walks a mercenary across a maze within twice the shortest path")
+    public void hierarchicalSearchCrossesMaze() {
+        Maze maze = Maze.comb(80, 20);
+        GameMap map = new GameMap();
+        map.setTerrain(maze.toTerrain("synthetic_hierarchical_comb"));
+        Position dest = new Position(77, 5);
+        addPlayer(map, dest);
+        Mercenary mercenary = addMercenary(map, new Position(1, 5));
+        HierarchicalSearch search = new HierarchicalSearch(map, map.getPositions(), mercenary);
+
+        int optimal = maze.distancesTo(dest)[1][5];
+        Position next = search.find(mercenary.getPosition(), dest);
+        // the gap of the first comb wall is at the top, so the path goes up first
+        assertEquals(new Position(1, 4), next);
+
+        // closing the gap cuts the mercenary off, clearing it lets it through again
+        Position gap = new Position(2, 1);
+        Boulder boulder = new Boulder(gap);
+        map.addEntity(boulder);
+        search.invalidate(gap);
+        assertEquals(mercenary.getPosition(), search.find(mercenary.getPosition(), dest));
+        map.destroyEntity(boulder);
+        search.invalidate(gap);
+        assertEquals(next, search.find(mercenary.getPosition(), dest));
+
+        int steps = 1;
+        while (!next.equals(dest)) {
+            assertNotEquals(mercenary.getPosition(), next);
+            assertTrue(steps <= 2 * optimal);
+            map.moveTo(mercenary, next);
+            next = search.find(mercenary.getPosition(), dest);
+            steps++;
+        }
+    }
+
+    @Test
+    @DisplayName("Test the search through clusters walks a mercenary around slow tiles when that is cheaper")
+    public void hierarchicalSearchAvoidsWeightedTiles() {
+        GameMap map = new GameMap();
+        Maze.room(40, 20).addWalls(map);
+        // a band of slow tiles across the room, open along its bottom rows
+        Set<Position> slow = new HashSet<>();
+        for (int x = 18; x < 22; x++) {
+            for (int y = 1; y < 17; y++) {
+                Position p = new Position(x, y);
+                map.addNode(new GraphNode(new Exit(p), 10));
+                slow.add(p);
+            }
+        }
+        Position dest = new Position(38, 5);
+        addPlayer(map, dest);
+        Mercenary mercenary = addMercenary(map, new Position(1, 5));
+        HierarchicalSearch search = new HierarchicalSearch(map, map.getPositions(), mercenary);
+
+        // going round the band takes 61 steps, against 37 steps costing 73 through it
+        int around = 61;
+        Position next = search.find(mercenary.getPosition(), dest);
+        int steps = 1;
+        while (!next.equals(dest)) {
+            assertFalse(slow.contains(next));
+            assertTrue(steps <= around);
+            map.moveTo(mercenary, next);
+            next = search.find(mercenary.getPosition(), dest);
+            steps++;
+        }
+    }
+
+    @Test
+    @DisplayName("Test a walled in player is reachable once a wall is destroyed, until a boulder fills the gap")
+    public void reachabilityFollowsObstacles() {
+        GameMap map = new GameMap();
+        Maze.room(20, 20).addWalls(map);
+        Position centre = new Position(10, 10);
+        Position gap = new Position(11, 10);
+        Wall gapWall = null;
+        for (Position p : centre.getAdjacentPositions()) {
+            Wall wall = new Wall(p);
+            map.addEntity(wall);
+            if (p.equals(gap))
+                gapWall = wall;
+        }
+        addPlayer(map, centre);
+        Position src = new Position(1, 5);
+        Mercenary mercenary = addMercenary(map, src);
+        assertFalse(map.isReachable(src, centre, mercenary));
+        assertEquals(src, map.findPath(src, centre, mercenary, PathStrategy.DIJKSTRA));
+
+        map.destroyEntity(gapWall);
+        assertTrue(map.isReachable(src, centre, mercenary));
+        assertNotEquals(src, map.findPath(src, centre, mercenary, PathStrategy.DIJKSTRA));
+        Boulder boulder = new Boulder(gap);
+        map.addEntity(boulder);
+        assertFalse(map.isReachable(src, centre, mercenary));
+        map.moveTo(boulder, new Position(gap.getX() + 1, gap.getY()));
+        assertFalse(map.isReachable(src, centre, mercenary));
+        map.moveTo(boulder, new Position(gap.getX() + 1, gap.getY() + 1));
+        assertTrue(map.isReachable(src, centre, mercenary));
+    }
+
+    @Test
+    @DisplayName("Test a mercenary keeps following the player off the area of the map, as the searches grow with it")
+    public void searchesGrowWithTheMap() {
+        Maze maze = Maze.room(20, 20);
+        maze.setBlocked(new Position(19, 2), false);
+        GameMap map = new GameMap();
+        maze.addWalls(map);
+        Player player = addPlayer(map, new Position(15, 10));
+        Position start = new Position(1, 10);
+        Mercenary mercenary = addMercenary(map, start);
+        ReachabilityIndex index = new ReachabilityIndex(map, map.getPositions(), mercenary);
+        assertTrue(index.connected(start, player.getPosition()));
+        assertEquals(new Position(2, 10), map.followPath(start, player.getPosition(), mercenary));
+
+        // a walled in cell and the player, both off the area the searches were built on
+        Position pocket = new Position(40, 20);
+        for (Position p : pocket.getCardinallyAdjacentPositions())
+            map.addEntity(new Wall(p));
+        Position dest = new Position(40, 10);
+        map.moveTo(player, dest);
+        assertFalse(map.getPositions().contains(dest));
+
+        // out through the gap at the top of the room, then down to the player
+        int optimal = 18 + 8 + 21 + 8;
+        Position next = map.followPath(start, dest, mercenary);
+        int steps = 1;
+        while (!next.equals(dest)) {
+            assertNotEquals(mercenary.getPosition(), next);
+            map.moveTo(mercenary, next);
+            next = map.followPath(mercenary.getPosition(), dest, mercenary);
+            steps++;
+        }
+        assertEquals(optimal, steps);
+
+        index.grow(map.getPositions());
+        assertTrue(index.connected(start, dest));
+        assertFalse(index.connected(start, pocket));
+        assertEquals(1, index.getRebuilds());
+    }
+
+    @Test
+    @DisplayName("Test landmark distances lead jump point search along a shortest path, as Manhattan distances do")
+    public void landmarksKeepPathsShortest() {
+        Maze maze = Maze.comb(40, 40);
+        StaticLayer terrain = maze.toTerrain("synthetic_landmark_comb");
+        Position src = new Position(1, 20);
+        Position dest = new Position(13, 20);
+        GameMap landmarks = new GameMap();
+        landmarks.setTerrain(terrain);
+        addPlayer(landmarks, dest);
+        Mercenary m1 = addMercenary(landmarks, src);
+        // a game that destroyed any of its terrain falls back to Manhattan distances
+        GameMap manhattan = new GameMap();
+        manhattan.setTerrain(terrain);
+        addPlayer(manhattan, dest);
+        Mercenary m2 = addMercenary(manhattan, src);
+        manhattan.destroyEntity(manhattan.getEntities(new Position(0, 0)).get(0));
+
+        int[][] dist = maze.distancesTo(dest);
+        Position next = landmarks.findPath(src, dest, m1, PathStrategy.JUMP_POINT);
+        assertShortestStep(dist, src, next);
+        assertEquals(next, manhattan.findPath(src, dest, m2, PathStrategy.JUMP_POINT));
+        assertShortestStep(dist, src, landmarks.followPath(src, dest, m1));
+    }
+}
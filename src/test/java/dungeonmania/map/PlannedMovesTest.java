@@ -0,0 +1,70 @@
+package dungeonmania.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.entities.Boulder;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Enemy;
+import dungeonmania.entities.enemies.Spider;
+import dungeonmania.entities.enemies.ZombieToast;
+import dungeonmania.synthetic.SyntheticGames;
+import dungeonmania.util.Direction;
+import dungeonmania.util.Position;
+
+public class PlannedMovesTest {
+    private static final int SIZE = 30;
+    private static final int ZOMBIES = 80;
+    private static final int SPIDERS = 20;
+
+    // a walled room scattered with walls and boulders, with the player walled in
+    // at its centre, crowded with enough enemies for their moves to be planned
+    private static Game crowdedDungeon(boolean planMoves) {
+        Game game = SyntheticGames.create("{}");
+        GameMap map = game.getMap();
+        map.setPlanMoves(planMoves);
+        SyntheticGames.enclose(map, SIZE);
+        Position centre = new Position(SIZE / 2, SIZE / 2);
+        SyntheticGames.addWalledInPlayer(map, centre);
+
+        Random random = new Random(7);
+        for (int i = 0; i < 60; i++) {
+            Position p = new Position(2 + random.nextInt(SIZE - 4), 2 + random.nextInt(SIZE - 4));
+            if (Math.abs(p.getX() - centre.getX()) > 2 || Math.abs(p.getY() - centre.getY()) > 2)
+                map.addEntity((i % 3 == 0) ? new Boulder(p) : new Wall(p));
+        }
+        for (int i = 0; i < ZOMBIES; i++) {
+            ZombieToast zombie = new ZombieToast(SyntheticGames.free(map, random, SIZE), 1, 1);
+            zombie.getRandGen().setSeed(i);
+            map.addEntity(zombie);
+        }
+        for (int i = 0; i < SPIDERS; i++)
+            map.addEntity(new Spider(SyntheticGames.free(map, random, SIZE), 1, 1));
+        game.init();
+        return game;
+    }
+
+    @Test
+    @DisplayName("Test enemies planned in bulk end each tick where they would moving one after the other")
+    public void plannedMovesMatchSerialMoves() {
+        Game serial = crowdedDungeon(false);
+        Game planned = crowdedDungeon(true);
+        List<Position> start = SyntheticGames.enemyPositions(planned);
+        assertEquals(SyntheticGames.enemyPositions(serial), start);
+
+        for (int i = 0; i < 20; i++) {
+            serial.tick(Direction.UP);
+            planned.tick(Direction.UP);
+            assertEquals(SyntheticGames.enemyPositions(serial), SyntheticGames.enemyPositions(planned));
+        }
+        assertNotEquals(start, SyntheticGames.enemyPositions(planned));
+        assertEquals(ZOMBIES + SPIDERS, planned.getMap().countEntities(Enemy.class));
+    }
+}
@@ -0,0 +1,93 @@
+package dungeonmania.map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.Game;
+import dungeonmania.GameBuilder;
+import dungeonmania.entities.Entity;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Mercenary;
+import dungeonmania.entities.enemies.Spider;
+import dungeonmania.synthetic.Maze;
+import dungeonmania.util.Position;
+
+public class StaticLayerTest {
+    private static Game newGame() {
+        return new GameBuilder().setConfigName("simple").setDungeonName("maze").buildGame();
+    }
+
+    private static Mercenary populate(GameMap map) {
+        Player player = new Player(new Position(13, 5), Player.DEFAULT_HEALTH, Player.DEFAULT_ATTACK);
+        map.addEntity(player);
+        map.setPlayer(player);
+        Mercenary mercenary = new Mercenary(new Position(1, 5), 1, 1, 1, 1, 1, 1);
+        map.addEntity(mercenary);
+        return mercenary;
+    }
+
+    @Test
+    @DisplayName("Test games of a dungeon share its terrain, and destroying a wall leaves the other games untouched")
+    public void gamesShareTerrain() {
+        GameMap first = newGame().getMap();
+        GameMap second = newGame().getMap();
+        assertSame(first.getTerrain(), second.getTerrain());
+        assertTrue(first.getTerrain().size() > 0);
+        assertEquals(first.getEntities().size(), second.getEntities().size());
+
+        // terrain ids are the same in every game, and never reused by the game itself
+        Set<String> ids = new HashSet<>();
+        for (Entity e : first.getEntities()) {
+            assertTrue(ids.add(e.getId()));
+        }
+        Wall wall = first.getEntities(Wall.class).get(0);
+        assertSame(wall, second.getEntity(wall.getId()));
+
+        int walls = first.countEntities(Wall.class);
+        first.destroyEntity(wall);
+        assertNull(first.getEntity(wall.getId()));
+        assertFalse(first.getEntities(wall.getPosition()).contains(wall));
+        assertEquals(walls - 1, first.countEntities(Wall.class));
+        assertSame(wall, second.getEntity(wall.getId()));
+        assertEquals(walls, second.countEntities(Wall.class));
+    }
+
+    @Test
+    @DisplayName("Test walls held as terrain block the same paths as wall entities, and keep their identity")
+    public void terrainWallsActAsEntities() {
+        Maze maze = Maze.comb(40, 12);
+        GameMap entities = new GameMap();
+        maze.addWalls(entities);
+        Mercenary m1 = populate(entities);
+        GameMap terrain = new GameMap();
+        terrain.setTerrain(maze.toTerrain("synthetic_static_layer_comb"));
+        Mercenary m2 = populate(terrain);
+
+        // the gap of the first comb wall is at the top, so the path goes up first
+        Position next = entities.dijkstraPathFind(m1.getPosition(), entities.getPlayer().getPosition(), m1);
+        assertEquals(new Position(1, 4), next);
+        assertEquals(next, terrain.dijkstraPathFind(m2.getPosition(), terrain.getPlayer().getPosition(), m2));
+
+        // walls are only created as entities once asked for, and stop mercenaries but not spiders
+        Position p = new Position(2, 5);
+        assertFalse(terrain.canMoveTo(m2, p));
+        assertTrue(terrain.canMoveTo(new Spider(p, 1, 1), p));
+        Entity wall = terrain.getEntities(p).get(0);
+        assertSame(wall, terrain.getEntity(wall.getId()));
+        int walls = entities.countEntities(Wall.class);
+        assertEquals(walls, terrain.countEntities(Wall.class));
+        terrain.destroyEntity(wall);
+        assertTrue(terrain.canMoveTo(m2, p));
+        assertEquals(walls - 1, terrain.countEntities(Wall.class));
+    }
+}
@@ -0,0 +1,48 @@
+package dungeonmania.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.DungeonManiaController;
+import dungeonmania.util.Direction;
+
+public class MetricsTest {
+    @Test
+    @DisplayName("Test ticks are recorded per phase and per callback category")
+    public void ticksAreRecorded() {
+        long ticks = Metrics.TICKS.sum();
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown");
+        dmc.tick(Direction.DOWN);
+        dmc.tick(Direction.DOWN);
+
+        assertEquals(ticks + 2, Metrics.TICKS.sum());
+        String scrape = Metrics.scrape();
+        assertTrue(scrape.contains("dungeonmania_ticks_total "));
+        assertTrue(scrape.contains("dungeonmania_tick_phase_seconds_bucket{phase=\"player_movement\",le=\"+Inf\"}"));
+        assertTrue(scrape.contains("dungeonmania_callback_seconds_count{category=\"playerMoves\"}"));
+        assertTrue(scrape.contains("dungeonmania_engine_seconds_count{operation=\"move_dispatch\"}"));
+        assertTrue(scrape.contains("dungeonmania_engine_seconds_count{operation=\"response_build\"}"));
+    }
+
+    @Test
+    @DisplayName("Test histogram buckets are cumulative")
+    public void bucketsAreCumulative() {
+        HistogramFamily family = new HistogramFamily("test_seconds", "Test.", "kind");
+        family.get("a").record(500);
+        family.get("a").record(2_000_000);
+        family.get("a").record(5_000_000_000L);
+        StringBuilder out = new StringBuilder();
+        family.writeTo(out);
+
+        String text = out.toString();
+        assertTrue(text.contains("# TYPE test_seconds histogram"));
+        assertTrue(text.contains("test_seconds_bucket{kind=\"a\",le=\"1.0E-6\"} 1\n"));
+        assertTrue(text.contains("test_seconds_bucket{kind=\"a\",le=\"0.004096\"} 2\n"));
+        assertTrue(text.contains("test_seconds_bucket{kind=\"a\",le=\"+Inf\"} 3\n"));
+        assertTrue(text.contains("test_seconds_count{kind=\"a\"} 3\n"));
+    }
+}
@@ -239,4 +239,42 @@ public class BombTest {
         assertEquals(1, TestUtils.getEntities(res, "player").size());
     }
 
+    @Test
+    @Tag("8-9")
+    @DisplayName("Test a placed bomb caught in a blast detonates as well")
+    public void chainReaction() throws InvalidActionException {
+        DungeonManiaController dmc;
+        dmc = new DungeonManiaController();
+        DungeonResponse res = dmc.newGame("d_bombTest_chainReaction", "c_bombTest_placeCardinallyActive");
+
+        // Activate Switch
+        res = dmc.tick(Direction.RIGHT);
+
+        // Pick up both bombs
+        res = dmc.tick(Direction.LEFT);
+        res = dmc.tick(Direction.DOWN);
+        res = dmc.tick(Direction.DOWN);
+        assertEquals(2, TestUtils.getInventory(res, "bomb").size());
+
+        // Place a bomb diagonally adjacent to the switch
+        res = dmc.tick(Direction.RIGHT);
+        res = dmc.tick(Direction.UP);
+        res = dmc.tick(TestUtils.getInventory(res, "bomb").get(0).getId());
+        assertEquals(1, TestUtils.getEntities(res, "bomb").size());
+
+        // Place the other one cardinally adjacent, within range of the first
+        res = dmc.tick(Direction.UP);
+        res = dmc.tick(TestUtils.getInventory(res, "bomb").get(0).getId());
+
+        //                 Player/Bomb     Boulder/Switch
+        //                 Bomb
+        //                                 Treasure
+        //                                                 Treasure
+        assertEquals(0, TestUtils.getEntities(res, "bomb").size());
+        assertEquals(0, TestUtils.getEntities(res, "boulder").size());
+        assertEquals(0, TestUtils.getEntities(res, "switch").size());
+        assertEquals(1, TestUtils.getEntities(res, "treasure").size());
+        assertEquals(new Position(3, 3), TestUtils.getEntities(res, "treasure").get(0).getPosition());
+        assertEquals(1, TestUtils.getEntities(res, "player").size());
+    }
 }
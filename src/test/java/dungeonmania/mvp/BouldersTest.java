@@ -33,6 +33,20 @@ public class BouldersTest {
         assertEquals(new Position(1, 0), TestUtils.getPlayer(res).get().getPosition());
     }
 
+    @Test
+    @Tag("3-1")
+    @DisplayName("Test a pushed boulder and the player pushing it keep their layer")
+    public void pushBoulderKeepsLayer() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        DungeonResponse res = dmc.newGame("d_boulderTest_pushBoulder", "c_boulderTest_pushBoulder");
+        int boulderLayer = TestUtils.getEntities(res, "boulder").get(0).getPosition().getLayer();
+        int playerLayer = TestUtils.getPlayer(res).get().getPosition().getLayer();
+
+        res = dmc.tick(Direction.RIGHT);
+        assertEquals(boulderLayer, TestUtils.getEntities(res, "boulder").get(0).getPosition().getLayer());
+        assertEquals(playerLayer, TestUtils.getPlayer(res).get().getPosition().getLayer());
+    }
+
     @Test
     @Tag("3-2")
     @DisplayName("Test attempting to push a boulder into a wall")
@@ -1,7 +1,9 @@
 package dungeonmania.mvp;
 
 import dungeonmania.DungeonManiaController;
+import dungeonmania.GameAction;
 import dungeonmania.exceptions.InvalidActionException;
+import dungeonmania.response.models.BatchResponse;
 import dungeonmania.response.models.DungeonResponse;
 import dungeonmania.util.Direction;
 import org.junit.jupiter.api.DisplayName;
@@ -9,6 +11,9 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class InterfaceTest {
@@ -80,4 +85,43 @@ public class InterfaceTest {
         }
 
     }
+
+    @Nested
+    class BatchInterfaceTest {
+        @Test
+        @Tag("2-6")
+        @DisplayName("Testing batch interface method, returns the selected steps and the final state")
+        public void testBatchInterfaceNormalOperation() {
+            DungeonManiaController dmc = new DungeonManiaController();
+            dmc.newGame("d_BuildablesTest_BuildBow", "c_BuildablesTest_BuildBow");
+            List<GameAction> actions = List.of(GameAction.move(Direction.RIGHT), GameAction.move(Direction.RIGHT),
+                    GameAction.move(Direction.RIGHT), GameAction.move(Direction.RIGHT), GameAction.build("bow"));
+
+            BatchResponse res = dmc.batch(actions, Set.of(0));
+            assertFalse(res.isError());
+            assertEquals(5, res.getApplied());
+            assertEquals(List.of(0, 4), res.getSteps());
+            assertEquals(1, TestUtils.getInventory(res.getResponses().get(0), "wood").size());
+            assertEquals(1, TestUtils.getInventory(res.getResponses().get(1), "bow").size());
+            assertEquals(1, TestUtils.getInventory(dmc.getDungeonResponseModel(), "bow").size());
+        }
+
+        @Test
+        @Tag("2-7")
+        @DisplayName("Testing batch interface method stops at the first invalid action")
+        public void testBatchInterfaceStopsOnInvalidAction() {
+            DungeonManiaController dmc = new DungeonManiaController();
+            dmc.newGame("d_BuildablesTest_BuildBow", "c_BuildablesTest_BuildBow");
+            List<GameAction> actions = List.of(GameAction.move(Direction.RIGHT), GameAction.build("shield"),
+                    GameAction.move(Direction.RIGHT));
+
+            BatchResponse res = dmc.batch(actions, Set.of());
+            assertTrue(res.isError());
+            assertEquals("InvalidActionException", res.getErrorTitle());
+            assertEquals(1, res.getApplied());
+            assertEquals(List.of(0), res.getSteps());
+            // the move after the invalid build was not applied
+            assertEquals(0, TestUtils.getInventory(dmc.getDungeonResponseModel(), "arrow").size());
+        }
+    }
 }
@@ -0,0 +1,142 @@
+package dungeonmania.synthetic;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Random;
+import java.util.Set;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import dungeonmania.entities.Wall;
+import dungeonmania.map.GameMap;
+import dungeonmania.map.StaticLayer;
+import dungeonmania.util.Position;
+
+/**
+ * Maze -- a grid of blocked cells for the path finding tests and benchmarks
+ *
+ * The outer cells are always blocked. A maze is put on a map as wall entities
+ * or as shared terrain, and gives the true distances to a cell so a step taken
+ * by any search can be checked against a shortest path.
+ */
+public final class Maze {
+    private final boolean[][] blocked;
+
+    private Maze(int width, int height) {
+        blocked = new boolean[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++)
+                blocked[x][y] = x == 0 || y == 0 || x == width - 1 || y == height - 1;
+        }
+    }
+
+    /**
+     * @return an empty room, blocked only around its edges
+     */
+    public static Maze room(int width, int height) {
+        return new Maze(width, height);
+    }
+
+    /**
+     * @return a comb of walls across the maze, with the gap of each wall at the
+     *         other end from the one before, the first gap being at the top
+     */
+    public static Maze comb(int width, int height) {
+        Maze maze = new Maze(width, height);
+        for (int x = 2; x < width - 1; x += 4) {
+            int gap = (x % 8 == 2) ? 1 : height - 2;
+            for (int y = 1; y < height - 1; y++)
+                maze.blocked[x][y] = y != gap;
+        }
+        return maze;
+    }
+
+    /**
+     * @return a square maze with each inner cell blocked with the given chance,
+     *         apart from the kept cells
+     */
+    public static Maze random(int size, double density, Random random, Set<Position> kept) {
+        Maze maze = new Maze(size, size);
+        for (int x = 1; x < size - 1; x++) {
+            for (int y = 1; y < size - 1; y++)
+                maze.blocked[x][y] = !kept.contains(new Position(x, y)) && random.nextDouble() < density;
+        }
+        return maze;
+    }
+
+    public int getWidth() {
+        return blocked.length;
+    }
+
+    public int getHeight() {
+        return blocked[0].length;
+    }
+
+    public boolean isBlocked(Position p) {
+        return blocked[p.getX()][p.getY()];
+    }
+
+    /**
+     * Block or clear a cell, to follow what was put on or taken off the map
+     */
+    public void setBlocked(Position p, boolean isBlocked) {
+        blocked[p.getX()][p.getY()] = isBlocked;
+    }
+
+    /**
+     * Add the blocked cells to the map as wall entities
+     */
+    public void addWalls(GameMap map) {
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                if (blocked[x][y])
+                    map.addEntity(new Wall(new Position(x, y)));
+            }
+        }
+    }
+
+    /**
+     * @return the blocked cells as wall entities of a dungeon file
+     */
+    public JSONArray toJson() {
+        StringBuilder json = new StringBuilder("{\"entities\": [");
+        for (int x = 0; x < getWidth(); x++) {
+            for (int y = 0; y < getHeight(); y++) {
+                if (blocked[x][y])
+                    json.append(String.format("{\"type\": \"wall\", \"x\": %d, \"y\": %d},", x, y));
+            }
+        }
+        json.setLength(json.length() - 1);
+        return new JSONObject(json.append("]}").toString()).getJSONArray("entities");
+    }
+
+    /**
+     * @return the blocked cells as the terrain shared by the games of a dungeon of that name
+     */
+    public StaticLayer toTerrain(String dungeonName) {
+        return StaticLayer.of(dungeonName, toJson(), new JSONObject());
+    }
+
+    /**
+     * @return number of steps from every cell to dest, -1 where dest cannot be reached
+     */
+    public int[][] distancesTo(Position dest) {
+        int[][] dist = new int[getWidth()][getHeight()];
+        Arrays.stream(dist).forEach(row -> Arrays.fill(row, -1));
+        Deque<Position> queue = new ArrayDeque<>();
+        dist[dest.getX()][dest.getY()] = 0;
+        queue.add(dest);
+        while (!queue.isEmpty()) {
+            Position c = queue.poll();
+            for (Position p : c.getCardinallyAdjacentPositions()) {
+                if (isBlocked(p) || dist[p.getX()][p.getY()] >= 0)
+                    continue;
+                dist[p.getX()][p.getY()] = dist[c.getX()][c.getY()] + 1;
+                queue.add(p);
+            }
+        }
+        return dist;
+    }
+}
@@ -0,0 +1,87 @@
+package dungeonmania.synthetic;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.json.JSONObject;
+
+import dungeonmania.Game;
+import dungeonmania.entities.EntityFactory;
+import dungeonmania.entities.Player;
+import dungeonmania.entities.Wall;
+import dungeonmania.entities.enemies.Enemy;
+import dungeonmania.map.GameMap;
+import dungeonmania.util.Position;
+
+/**
+ * SyntheticGames -- games built in code rather than loaded from a dungeon file
+ */
+public final class SyntheticGames {
+    private SyntheticGames() {
+    }
+
+    /**
+     * @param config configuration of the entity factory, as the JSON of a config file
+     * @return an empty game, ready for entities to be added and init to be called
+     */
+    public static Game create(String config) {
+        Game game = new Game("synthetic");
+        GameMap map = game.getMap();
+        map.setGame(game);
+        game.setEntityFactory(new EntityFactory(new JSONObject(config), game.getIdAllocator()));
+        return game;
+    }
+
+    /**
+     * Surround a square room of the given size with walls
+     */
+    public static void enclose(GameMap map, int size) {
+        for (int i = 0; i < size; i++) {
+            map.addEntity(new Wall(new Position(i, 0)));
+            map.addEntity(new Wall(new Position(i, size - 1)));
+            map.addEntity(new Wall(new Position(0, i)));
+            map.addEntity(new Wall(new Position(size - 1, i)));
+        }
+    }
+
+    /**
+     * Put the player at the position, walled in so that it never moves
+     */
+    public static Player addWalledInPlayer(GameMap map, Position position) {
+        for (Position p : position.getAdjacentPositions())
+            map.addEntity(new Wall(p));
+        return addPlayer(map, position);
+    }
+
+    /**
+     * Put the player at the position
+     */
+    public static Player addPlayer(GameMap map, Position position) {
+        Player player = new Player(position, Player.DEFAULT_HEALTH, Player.DEFAULT_ATTACK);
+        map.addEntity(player);
+        map.setPlayer(player);
+        return player;
+    }
+
+    /**
+     * @return a random empty position inside a walled room of the given size
+     */
+    public static Position free(GameMap map, Random random, int size) {
+        while (true) {
+            Position p = new Position(1 + random.nextInt(size - 2), 1 + random.nextInt(size - 2));
+            if (map.getEntities(p).isEmpty())
+                return p;
+        }
+    }
+
+    /**
+     * @return positions of the enemies, in the order the map holds them
+     */
+    public static List<Position> enemyPositions(Game game) {
+        List<Position> positions = new ArrayList<>();
+        for (Enemy e : game.getMap().getEntities(Enemy.class))
+            positions.add(e.getPosition());
+        return positions;
+    }
+}
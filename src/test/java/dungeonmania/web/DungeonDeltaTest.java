@@ -0,0 +1,67 @@
+package dungeonmania.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.DungeonManiaController;
+import dungeonmania.response.models.DungeonResponse;
+import dungeonmania.response.models.EntityResponse;
+import dungeonmania.util.Direction;
+
+public class DungeonDeltaTest {
+    private static Map<String, EntityResponse> apply(Map<String, EntityResponse> state, DungeonDelta delta) {
+        if (delta.isReset())
+            state.clear();
+        delta.getRemoved().forEach(state::remove);
+        delta.getAdded().forEach(e -> state.put(e.getId(), e));
+        delta.getChanged().forEach(e -> state.put(e.getId(), e));
+        return state;
+    }
+
+    private static void assertSameEntities(List<EntityResponse> expected, Map<String, EntityResponse> actual) {
+        assertEquals(expected.size(), actual.size());
+        expected.forEach(e -> assertEquals(e, actual.get(e.getId())));
+    }
+
+    @Test
+    @DisplayName("Test the first delta is a reset carrying every entity")
+    public void firstDeltaIsReset() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        DungeonResponse res = dmc.newGame("d_battleTest_basicZombie", "c_battleTest_basicZombieZombieDies");
+
+        DungeonDelta delta = DungeonDelta.between(null, 0, res);
+        assertTrue(delta.isReset());
+        assertEquals(res.getEntities().size(), delta.getAdded().size());
+        assertEquals(res.getGoals(), delta.getGoals());
+    }
+
+    @Test
+    @DisplayName("Test applying deltas tick by tick reproduces the full state")
+    public void deltasReproduceState() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        DungeonResponse previous = dmc.newGame("d_battleTest_basicZombie", "c_battleTest_basicZombieZombieDies");
+        Map<String, EntityResponse> state = apply(new HashMap<>(), DungeonDelta.between(null, 0, previous));
+
+        int battles = 0;
+        for (int i = 0; i < 5; i++) {
+            DungeonResponse current = dmc.tick(Direction.RIGHT);
+            DungeonDelta delta = DungeonDelta.between(previous, battles, current);
+            assertFalse(delta.isReset());
+            // only the moving entities are sent again
+            assertTrue(delta.getAdded().size() + delta.getChanged().size() < current.getEntities().size());
+            battles += delta.getBattles().size();
+            assertSameEntities(current.getEntities(), apply(state, delta));
+            assertEquals(current.getBattles().size(), battles);
+            previous = current;
+        }
+        assertTrue(battles > 0);
+    }
+}
@@ -0,0 +1,102 @@
+package dungeonmania.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import dungeonmania.DungeonManiaController;
+
+public class GameSocketTest {
+    private static final String NEW_GAME = "{\"action\": \"new\", \"dungeonName\": \"%s\","
+            + " \"configName\": \"c_movementTest_testMovementDown\"}";
+
+    // a socket upgraded without a cookie, recording the frames written to it
+    private static Session cookieless(List<String> frames) {
+        UpgradeRequest upgrade = (UpgradeRequest) Proxy.newProxyInstance(UpgradeRequest.class.getClassLoader(),
+                new Class<?>[] {UpgradeRequest.class}, (proxy, method, args) -> null);
+        RemoteEndpoint remote = (RemoteEndpoint) Proxy.newProxyInstance(RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[] {RemoteEndpoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("sendString")) {
+                        frames.add((String) args[0]);
+                        if (args.length > 1)
+                            ((WriteCallback) args[1]).writeSuccess();
+                    }
+                    return null;
+                });
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[] {Session.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getUpgradeRequest":
+                        return upgrade;
+                    case "getRemote":
+                        return remote;
+                    case "isOpen":
+                        return true;
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        return null;
+                    }
+                });
+    }
+
+    // sessions of the actions run under the lock, in order
+    private final List<String> locked = new ArrayList<>();
+
+    private <T> T callLocked(String session, DungeonManiaController dmc, Function<DungeonManiaController, T> action) {
+        synchronized (dmc) {
+            locked.add(session);
+            return action.apply(dmc);
+        }
+    }
+
+    private static String dungeonId(List<String> frames) {
+        JsonObject frame = JsonParser.parseString(frames.get(frames.size() - 1)).getAsJsonObject();
+        return frame.getAsJsonObject("result").get("dungeonId").getAsString();
+    }
+
+    @Test
+    @DisplayName("Test sockets without an HTTP session do not share a game")
+    public void cookielessSocketsGetSeparateGames() {
+        // the controller of the default session, which every cookie-less client used to get
+        DungeonManiaController shared = new DungeonManiaController();
+        GameSocket socket = new GameSocket(id -> shared, this::callLocked);
+        List<String> framesA = new ArrayList<>();
+        List<String> framesB = new ArrayList<>();
+        Session a = cookieless(framesA);
+        Session b = cookieless(framesB);
+        socket.connected(a);
+        socket.connected(b);
+
+        socket.message(a, String.format(NEW_GAME, "d_movementTest_testMovementDown"));
+        String gameA = dungeonId(framesA);
+        socket.message(b, String.format(NEW_GAME, "d_movementTest_testMovementDown"));
+        String gameB = dungeonId(framesB);
+        assertNotEquals(gameA, gameB);
+
+        // a's game is untouched by b starting one
+        socket.message(a, "{\"action\": \"state\"}");
+        assertEquals(gameA, dungeonId(framesA));
+        assertNull(shared.getStateTag());
+        // every action ran under the lock, without a session to record
+        assertEquals(Collections.nCopies(3, null), locked);
+    }
+}
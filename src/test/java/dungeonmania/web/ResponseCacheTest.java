@@ -0,0 +1,51 @@
+package dungeonmania.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import dungeonmania.DungeonManiaController;
+import dungeonmania.util.Direction;
+
+public class ResponseCacheTest {
+    @Test
+    @DisplayName("Test the response is only serialized again after the state changed")
+    public void serializesOncePerState() {
+        DungeonManiaController dmc = new DungeonManiaController();
+        dmc.newGame("d_movementTest_testMovementDown", "c_movementTest_testMovementDown");
+        ResponseCache cache = new ResponseCache();
+        AtomicInteger renders = new AtomicInteger();
+
+        cache.refresh(dmc.getStateTag(), () -> "state " + renders.incrementAndGet());
+        cache.refresh(dmc.getStateTag(), () -> "state " + renders.incrementAndGet());
+        assertEquals(1, renders.get());
+        assertEquals("state 1", cache.getBody());
+        String etag = cache.getEtag();
+
+        dmc.tick(Direction.DOWN);
+        cache.refresh(dmc.getStateTag(), () -> "state " + renders.incrementAndGet());
+        assertEquals(2, renders.get());
+        assertEquals("state 2", cache.getBody());
+        assertNotEquals(etag, cache.getEtag());
+    }
+
+    @Test
+    @DisplayName("Test If-None-Match is compared against the current ETag")
+    public void matchesIfNoneMatch() {
+        ResponseCache cache = new ResponseCache();
+        assertFalse(cache.matches("*"));
+        cache.refresh("game-3", () -> "{}");
+
+        assertTrue(cache.matches("\"game-3\""));
+        assertTrue(cache.matches("\"game-2\", W/\"game-3\""));
+        assertTrue(cache.matches("*"));
+        assertFalse(cache.matches("\"game-2\""));
+        assertFalse(cache.matches(null));
+    }
+}